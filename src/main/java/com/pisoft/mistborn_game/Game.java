@@ -1,40 +1,66 @@
 package com.pisoft.mistborn_game;
 
+import com.pisoft.mistborn_game.clock.Clock;
+import com.pisoft.mistborn_game.clock.RealTimeClock;
+import com.pisoft.mistborn_game.clock.VirtualClock;
+import com.pisoft.mistborn_game.controllers.IntentController;
+import com.pisoft.mistborn_game.display.Camera;
 import com.pisoft.mistborn_game.display.Display;
+import com.pisoft.mistborn_game.display.FrameRenderer;
+import com.pisoft.mistborn_game.display.RenderGeometry;
+import com.pisoft.mistborn_game.display.RenderSnapshotBuffer;
 import com.pisoft.mistborn_game.levels.Level;
 import com.pisoft.mistborn_game.levels.LoadedLevels;
-import com.pisoft.mistborn_game.player.actions.PlayerActionManager;
-import com.pisoft.mistborn_game.player.constants.GameEventLagConstants;
-import com.pisoft.mistborn_game.player.constants.GameEventPriorityConstants;
-import com.pisoft.mistborn_game.player.game_events.GameEvent;
-import com.pisoft.mistborn_game.player.game_events.GameEventManager;
 
 /**
  * Main wrapping class for all game objects and information.
  * <p>
  * Contains the main game loop, as while as <code>tick</code> and
- * <code>render</code> methods.
+ * <code>render</code> methods. The simulation itself is held by a
+ * {@link GameContext}, which a <code>Game</code> runs in real time and
+ * connects to a display (or to an <code>IntentController</code>, when
+ * headless).
  * 
  * @author gouldb
  *
  */
 public class Game implements Runnable {
-	private static Display display;
+	private final GameContext context = new GameContext();
 
-	private boolean running = false;
-	private GameState state;
+	private Display display;
+
+	// input source when running without a display
+	private IntentController controller;
+
+	// render state handed from the game thread to the render thread
+	private final RenderSnapshotBuffer snapshots = new RenderSnapshotBuffer();
+
+	// moved by the game thread as the level is played
+	private final Camera camera = new Camera(FrameRenderer.LOGICAL_WIDTH, FrameRenderer.LOGICAL_HEIGHT);
+	private RenderGeometry geometry;
+
+	private volatile boolean running = false;
+	private volatile GameState state;
+
+	// wakes the loop while it is idle (paused or in a menu)
+	private final Object stateLock = new Object();
+	private boolean renderRequested = false;
 
 	private Thread thread;
 
-	private static Level activeLevel;
+	// time source for the loop; see setClock()
+	private volatile Clock clock;
 
-	private static GameEventManager<GameEvent> gameEventManager = new GameEventManager<>(GameEvent.class);
-	private static PlayerActionManager playerActionManager = new PlayerActionManager();
+	private volatile int tickDelay = (int) Math.pow(10, 9) / 30;
+	private volatile int renderDelay = (int) Math.pow(10, 9) / 60;
+	private volatile int debugRefreshDelay = (int) Math.pow(10, 9) / 10;
 
-	// for debugging: increase delay between ticks to read stat menu
-	private static int tickDelay = (int) Math.pow(10, 9) / 30;
-	private int printDelay = (int) Math.pow(10, 9);
-	private static long currentTime = 3;
+	// resolution of the offscreen buffer the level is drawn into, and how it is scaled onto the screen
+	private volatile double renderScale = 1;
+	private volatile boolean smoothScaling = true;
+	private volatile int maxTicksPerFrame = 5;
+	private volatile int printDelay = (int) Math.pow(10, 9);
+	private volatile long currentTime = 3;
 
 	/**
 	 * Basic constructor for the <code>Game</code> class.
@@ -43,76 +69,174 @@ public class Game implements Runnable {
 	 * 
 	 */
 	public Game() {
-		// TODO: figure out how to not paint this until a level is initialized
-		display = new Display();
-
-		initResources();
-		setActiveLevel(LoadedLevels.getLevel1());
+		this(false);
+	}
 
-		state = GameState.PLAYING;
+	/**
+	 * Constructs a new <code>Game</code>, optionally without a display.
+	 * <p>
+	 * A headless game never loads any AWT or Swing classes, so it can run on
+	 * machines without a graphics environment. Its input comes from the
+	 * <code>IntentController</code> returned by <code>getController()</code>, and
+	 * its loop runs on a <code>VirtualClock</code>, so ticks run back to back
+	 * instead of at a fixed rate.
+	 * 
+	 * @param headless Whether to run without a display
+	 */
+	public Game(boolean headless) {
+		this(headless, true);
 	}
 
 	/**
-	 * Loads all game resources.
+	 * Constructs a new <code>Game</code>, optionally without a display, choosing
+	 * how the display is rendered if there is one.
 	 * 
+	 * @param headless        Whether to run without a display
+	 * @param activeRendering Whether the display draws frames directly from the
+	 *                        game loop (see {@link Display#Display(Game, boolean)})
 	 */
-	private void initResources() {
-		LoadedLevels.initLevels();
+	public Game(boolean headless, boolean activeRendering) {
+		if (headless) {
+			controller = new IntentController(context);
+			clock = new VirtualClock();
+		} else {
+			// TODO: figure out how to not paint this until a level is initialized
+			display = new Display(this, activeRendering);
+			clock = new RealTimeClock();
+		}
 
-		GameEventPriorityConstants.initActionPriorities();
-		GameEventLagConstants.initLagFrames();
+		setActiveLevel(LoadedLevels.createLevel1());
+
+		state = GameState.PLAYING;
 	}
 
 	/**
 	 * Contains the main game loop logic.
 	 * <p>
-	 * The game renders as quickly as it can.
+	 * All time is read from the game's <code>Clock</code>, which can be set with
+	 * <code>setClock(Clock clock)</code>, so the whole loop can be sped up, slowed
+	 * down, or run on virtual time.
 	 * <p>
-	 * The tick speed is dependent on the <code>tickDelay</code> variable, which can
-	 * be set with <code>setTickDelay(int tickDelay)</code>. This variable specifies
-	 * the delay in ns between each tick. However, there are also other operations
-	 * that take time within the game loop, so no hard guarantee is made about the
-	 * exact tick speed.
+	 * The game is simulated in fixed steps of <code>tickDelay</code> ns, which can
+	 * be set with <code>setTickDelay(int tickDelay)</code>. Time that has passed
+	 * since the last loop is added to an accumulator, and a tick is run for every
+	 * full <code>tickDelay</code> in it. If the loop falls behind (e.g. after a
+	 * long pause), at most <code>maxTicksPerFrame</code> ticks are run to catch
+	 * up, and any time beyond that is dropped rather than making the game run
+	 * fast until it has caught up.
+	 * <p>
+	 * Rendering is capped at one frame every <code>renderDelay</code> ns, which
+	 * can be set with <code>setRenderDelay(int renderDelay)</code> (0 renders on
+	 * every loop). Since rendering more often than the screen refreshes is wasted
+	 * work, renders are also never closer together than <code>renderDelay</code>
+	 * ns of real time, however fast the clock runs. Between ticks and renders, the
+	 * loop waits on the clock until the next one is due. A headless game has
+	 * nothing to render, so it only waits for ticks.
 	 * <p>
 	 * Information about the actual number of ticks and renders over a given
-	 * interval are printed to the console at the end of that interval. The size of
-	 * this interval (in ns) can be set with
+	 * interval of real time are printed to the console at the end of that
+	 * interval. The size of this interval (in ns) can be set with
 	 * <code>setPrintDelay(int printDelay)</code>.
+	 * <p>
+	 * In any state other than <code>PLAYING</code>, nothing is simulated, so the
+	 * loop blocks until the state changes or a render is requested with
+	 * <code>requestRender()</code>, rendering only then. When play resumes, the
+	 * loop carries on from the current time with the same accumulator it paused
+	 * with, so the time spent paused is neither simulated nor dropped as lag.
 	 * 
 	 */
 	@Override
 	public void run() {
-		long lastTickTime = System.nanoTime();
+		Clock clock = this.clock;
+
+		long lastLoopTime = clock.nanoTime();
+		long nextRenderTime = lastLoopTime;
+		long lastRealRenderTime = System.nanoTime() - renderDelay;
 		long lastPrintTime = System.nanoTime();
-		int numTicks = 0, numRenders = 0;
+		long accumulator = 0;
+		int numTicks = 0, numRenders = 0, numDropped = 0;
 
 		while (running) {
 
 			switch (state) {
 			case PLAYING:
 
-				currentTime = System.nanoTime();
+				if (clock != this.clock) {
+					// carry on from the same point on the new clock's timeline
+					clock = this.clock;
+					long now = clock.nanoTime();
+					nextRenderTime = now + (nextRenderTime - lastLoopTime);
+					lastLoopTime = now;
+				}
+
+				// the delays can be set from other threads --> read them once per pass
+				int stepDelay = tickDelay;
+				int frameDelay = renderDelay;
+				int maxSteps = maxTicksPerFrame;
+
+				currentTime = clock.nanoTime();
 
-				render();
-				numRenders++;
+				accumulator += currentTime - lastLoopTime;
+				lastLoopTime = currentTime;
 
-				if (currentTime - lastTickTime >= tickDelay) {
-					lastTickTime = currentTime;
+				// run as many fixed steps as have built up, up to the cap
+				int steps = 0;
+				while (accumulator >= stepDelay && steps < maxSteps) {
 					tick();
-					numTicks++;
+					accumulator -= stepDelay;
+					steps++;
+				}
+				numTicks += steps;
+
+				if (accumulator >= stepDelay) {
+					numDropped += accumulator / stepDelay;
+					accumulator %= stepDelay;
+				}
+
+				long realTime = System.nanoTime();
+
+				if (display != null && currentTime - nextRenderTime >= 0) {
+					if (realTime - lastRealRenderTime >= frameDelay) {
+						render();
+						numRenders++;
+						lastRealRenderTime = realTime;
+					}
+
+					nextRenderTime += frameDelay;
+					if (currentTime - nextRenderTime >= frameDelay) {
+						// too far behind to make up frames --> start from now
+						nextRenderTime = currentTime + frameDelay;
+					}
 				}
 
-				if (currentTime - lastPrintTime >= printDelay) {
-					lastPrintTime = currentTime;
-					System.out.println("FPS: " + numRenders + ", " + "Ticks: " + numTicks);
+				if (realTime - lastPrintTime >= printDelay) {
+					lastPrintTime = realTime;
+					System.out.println("FPS: " + numRenders + ", " + "Ticks: " + numTicks
+							+ (numDropped > 0 ? ", Dropped ticks: " + numDropped : ""));
 					System.out.println("");
 					numTicks = 0;
 					numRenders = 0;
+					numDropped = 0;
+				}
+
+				long nextTickTime = currentTime + (stepDelay - accumulator);
+				if (display == null || nextTickTime - nextRenderTime < 0) {
+					clock.sleepUntil(nextTickTime);
+				} else {
+					clock.sleepUntil(nextRenderTime);
 				}
 
 				break;
 
 			default:
+				if (waitWhileIdle() && display != null) {
+					render();
+				}
+
+				// resume from now, as if no time had passed while idle
+				lastLoopTime = clock.nanoTime();
+				nextRenderTime = lastLoopTime;
+
 				break;
 			}
 		}
@@ -120,31 +244,72 @@ public class Game implements Runnable {
 		stop();
 	}
 
+	/**
+	 * Blocks while the game is running in a state other than
+	 * <code>PLAYING</code>, until the state changes or a render is requested.
+	 * 
+	 * @return Whether a render was requested
+	 */
+	private boolean waitWhileIdle() {
+		synchronized (stateLock) {
+			try {
+				while (running && state != GameState.PLAYING && !renderRequested) {
+					stateLock.wait();
+				}
+			} catch (InterruptedException e) {
+				running = false;
+			}
+
+			boolean render = renderRequested;
+			renderRequested = false;
+
+			return render;
+		}
+	}
+
 	// playing methods
 	// ---------------------------------------------------------------------------------------------------
 	/**
-	 * Resolves all <code>GameEvent</code> objects that have been generated since
-	 * the last call of this method, and changes the state of the active
-	 * <code>Player</code> object accordingly.
-	 * 
-	 * TODO: This should be able to tick an arbitrary number / type of objects
+	 * Runs one tick of the game's context (see {@link GameContext#tick()}), then
+	 * publishes the new state to the render thread.
 	 */
-	private void tick() {
-		System.out.println("Frame break");
+	public void tick() {
+		context.tick();
 
-		playerActionManager.resolveQueuedEvents();
-		activeLevel.getPlayer().tick();
-		gameEventManager.resolveQueuedEvents();
+		publishSnapshot();
+	}
 
-		System.out.println();
+	/**
+	 * Captures the render state of the active level at the current tick, and
+	 * publishes it to the render thread. Does nothing when there is no display to
+	 * render to.
+	 * <p>
+	 * The camera is moved to follow the player first, and the level's geometry is
+	 * only copied again if it has changed since the last capture.
+	 */
+	private void publishSnapshot() {
+		if (display == null) {
+			return;
+		}
+
+		Level level = context.getActiveLevel();
+		if (geometry == null || geometry.getVersion() != level.getGeometryVersion()) {
+			geometry = new RenderGeometry(level);
+		}
+
+		camera.follow(level.getPlayer(), geometry);
+
+		snapshots.getBack().capture(level, geometry, camera, context.getCurrentTick());
+		snapshots.publish();
 	}
 
 	/**
-	 * Updates the current visual display of the game.
+	 * Updates the current visual display of the game. With active rendering,
+	 * the frame has been drawn and shown by the time this returns.
 	 * 
 	 */
 	private void render() {
-		display.getBoard().repaint();
+		display.getSurface().render();
 	}
 
 	// thread methods
@@ -172,7 +337,11 @@ public class Game implements Runnable {
 			return;
 		}
 
-		running = false;
+		synchronized (stateLock) {
+			running = false;
+			stateLock.notifyAll();
+		}
+
 		try {
 			thread.join();
 		} catch (InterruptedException e) {
@@ -181,52 +350,141 @@ public class Game implements Runnable {
 
 	// getters and setters
 	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the context this game runs.
+	 * 
+	 * @return The context of this game
+	 */
+	public GameContext getContext() {
+		return context;
+	}
+
 	/**
 	 * Gets the active level.
 	 * 
 	 * @return The <code>Level</code> object that is currently in use.
 	 * 
 	 */
-	public static Level getActiveLevel() {
-		return activeLevel;
+	public Level getActiveLevel() {
+		return context.getActiveLevel();
 	}
 
 	/**
-	 * Sets the active level, and changes manager targets to ensure events are
-	 * processed properly.
+	 * Sets the active level, and changes manager and input targets to ensure
+	 * events are processed properly.
 	 * 
 	 * @param activeLevel The <code>Level</code> object to set as active.
 	 * 
 	 */
-	public static void setActiveLevel(Level activeLevel) {
-		activeLevel.getPlayer().addGameEventListener(gameEventManager);
-		display.getBoard().getKeyBinder().setTargetPlayer(activeLevel.getPlayer());
+	public void setActiveLevel(Level activeLevel) {
+		context.setActiveLevel(activeLevel);
+
+		// no display when headless
+		if (display != null) {
+			display.getSurface().getKeyBinder().setTargetPlayer(activeLevel.getPlayer());
+
+			geometry = new RenderGeometry(activeLevel);
+			camera.centreOn(activeLevel.getPlayer(), geometry);
+		}
+
+		if (controller != null) {
+			controller.setTargetPlayer(activeLevel.getPlayer());
+		}
+
+		publishSnapshot();
+	}
+
+	/**
+	 * Gets the buffer that render state is published through at the end of each
+	 * tick. Only the render thread should acquire snapshots from it.
+	 * 
+	 * @return The snapshot buffer
+	 */
+	public RenderSnapshotBuffer getSnapshots() {
+		return snapshots;
+	}
+
+	/**
+	 * Gets the camera the active level is seen through. It is moved by the game
+	 * thread; other threads should only set the size of its viewport.
+	 * 
+	 * @return The camera
+	 */
+	public Camera getCamera() {
+		return camera;
+	}
 
-		Game.activeLevel = activeLevel;
+	/**
+	 * Gets the controller that a headless game takes its input from.
+	 * 
+	 * @return The controller, or <code>null</code> if the game has a display
+	 */
+	public IntentController getController() {
+		return controller;
 	}
 
-	public static Display getDisplay() {
+	public Display getDisplay() {
 		return display;
 	}
 
-	public static void setDisplay(Display display) {
-		Game.display = display;
+	public GameState getState() {
+		return state;
 	}
 
-	public static GameEventManager<GameEvent> getGameEventManager() {
-		return gameEventManager;
+	/**
+	 * Sets the state of the game, and renders it once. Can be called from any
+	 * thread.
+	 * 
+	 * @param state The new state
+	 */
+	public void setState(GameState state) {
+		synchronized (stateLock) {
+			this.state = state;
+			renderRequested = true;
+			stateLock.notifyAll();
+		}
 	}
 
-	public static void setGameEventManager(GameEventManager<GameEvent> gameEventManager) {
-		Game.gameEventManager = gameEventManager;
+	/**
+	 * Pauses the game if it is playing, or resumes it if it is paused.
+	 */
+	public void togglePause() {
+		synchronized (stateLock) {
+			if (state == GameState.PLAYING) {
+				setState(GameState.PAUSED);
+			} else if (state == GameState.PAUSED) {
+				setState(GameState.PLAYING);
+			}
+		}
 	}
 
-	public static PlayerActionManager getPlayerActionManager() {
-		return playerActionManager;
+	/**
+	 * Asks for the display to be rendered again while the game is idle (e.g.
+	 * after a menu changes). While playing, the display is rendered regularly
+	 * anyway, so this has no effect.
+	 */
+	public void requestRender() {
+		synchronized (stateLock) {
+			renderRequested = true;
+			stateLock.notifyAll();
+		}
 	}
 
-	public static void setPlayerActionManager(PlayerActionManager playerActionManager) {
-		Game.playerActionManager = playerActionManager;
+	public Clock getClock() {
+		return clock;
+	}
+
+	/**
+	 * Sets the clock that the game loop takes its time from. Can be changed
+	 * while the game is running, in which case the loop carries on from the same
+	 * point on the new clock, without running or dropping any ticks for the
+	 * change.
+	 * 
+	 * @param clock The clock to use, e.g. a <code>ScaledClock</code> to run the
+	 *              game in slow motion
+	 */
+	public void setClock(Clock clock) {
+		this.clock = clock;
 	}
 
 	/**
@@ -235,7 +493,7 @@ public class Game implements Runnable {
 	 * @return The current tickDelay.
 	 * 
 	 */
-	public static int getTickDelay() {
+	public int getTickDelay() {
 		return tickDelay;
 	}
 
@@ -246,7 +504,117 @@ public class Game implements Runnable {
 	 * 
 	 */
 	public void setTickDelay(int tickDelay) {
-		Game.tickDelay = tickDelay;
+		this.tickDelay = tickDelay;
+	}
+
+	/**
+	 * Gets the minimum delay between successive calls to the <code>render()</code>
+	 * function.
+	 * 
+	 * @return The current renderDelay.
+	 * 
+	 */
+	public int getRenderDelay() {
+		return renderDelay;
+	}
+
+	/**
+	 * Sets the minimum delay between successive calls to the <code>render()</code>
+	 * function. A delay of 0 removes the frame cap.
+	 * 
+	 * @param renderDelay The new renderDelay to use
+	 * 
+	 */
+	public void setRenderDelay(int renderDelay) {
+		this.renderDelay = renderDelay;
+	}
+
+	/**
+	 * Gets the minimum delay between successive refreshes of the debug text drawn
+	 * over the level.
+	 * 
+	 * @return The current debugRefreshDelay.
+	 * 
+	 */
+	public int getDebugRefreshDelay() {
+		return debugRefreshDelay;
+	}
+
+	/**
+	 * Sets the minimum delay between successive refreshes of the debug text drawn
+	 * over the level (see {@link com.pisoft.mistborn_game.display.DebugOverlay}).
+	 * Between refreshes, the last text drawn is shown. A delay of 0 refreshes the
+	 * text whenever a new tick is drawn.
+	 * 
+	 * @param debugRefreshDelay The new debugRefreshDelay to use
+	 * 
+	 */
+	public void setDebugRefreshDelay(int debugRefreshDelay) {
+		this.debugRefreshDelay = debugRefreshDelay;
+	}
+
+	/**
+	 * Gets the resolution the level is drawn at, relative to the logical
+	 * resolution (see {@link FrameRenderer}).
+	 * 
+	 * @return The current renderScale.
+	 * 
+	 */
+	public double getRenderScale() {
+		return renderScale;
+	}
+
+	/**
+	 * Sets the resolution the level is drawn at, relative to the logical
+	 * resolution. Lower scales are cheaper to draw but blurrier once scaled up to
+	 * the window, and higher ones are sharper on large windows. How much drawing
+	 * costs only depends on this, and not on the size of the window.
+	 * 
+	 * @param renderScale The new renderScale to use
+	 * @throws IllegalArgumentException if the scale is outside of
+	 *                                  <code>FrameRenderer.MIN_RENDER_SCALE</code>
+	 *                                  to
+	 *                                  <code>FrameRenderer.MAX_RENDER_SCALE</code>
+	 * 
+	 */
+	public void setRenderScale(double renderScale) {
+		if (!(renderScale >= FrameRenderer.MIN_RENDER_SCALE && renderScale <= FrameRenderer.MAX_RENDER_SCALE)) {
+			throw new IllegalArgumentException("Render scale must be between " + FrameRenderer.MIN_RENDER_SCALE
+					+ " and " + FrameRenderer.MAX_RENDER_SCALE + ", was " + renderScale);
+		}
+
+		this.renderScale = renderScale;
+	}
+
+	public boolean isSmoothScaling() {
+		return smoothScaling;
+	}
+
+	/**
+	 * Sets how the drawn level is scaled to fit the window: with bilinear
+	 * filtering, or with nearest neighbour filtering, which is cheaper and keeps
+	 * pixels sharp, but makes them uneven at scales that are not whole numbers.
+	 * 
+	 * @param smoothScaling Whether to use bilinear filtering
+	 * 
+	 */
+	public void setSmoothScaling(boolean smoothScaling) {
+		this.smoothScaling = smoothScaling;
+	}
+
+	/**
+	 * Gets the maximum number of ticks run in a single loop to catch up after the
+	 * game falls behind.
+	 * 
+	 * @return The current maxTicksPerFrame.
+	 * 
+	 */
+	public int getMaxTicksPerFrame() {
+		return maxTicksPerFrame;
+	}
+
+	public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+		this.maxTicksPerFrame = maxTicksPerFrame;
 	}
 
 	/**
@@ -271,16 +639,12 @@ public class Game implements Runnable {
 
 	/**
 	 * Returns the current time as a <code>long</code> in nanoseconds (updated
-	 * before every render). Use this method to avoid repeated calls to the
-	 * potentially costly <code>System.nanoTime()</code>.
+	 * at the start of every loop). Use this method to avoid repeated calls to the
+	 * potentially costly <code>Clock.nanoTime()</code>.
 	 * 
-	 * @return The current time as specified by <code>System.nanoTime()</code>.
+	 * @return The current time as specified by the game's <code>Clock</code>.
 	 */
-	public static long getCurrentTime() {
+	public long getCurrentTime() {
 		return currentTime;
 	}
-
-	public static void setCurrentTime(long currentTime) {
-		Game.currentTime = currentTime;
-	}
 }
@@ -0,0 +1,282 @@
+package com.pisoft.mistborn_game;
+
+import java.util.Arrays;
+
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.player.actions.PlayerActionManager;
+import com.pisoft.mistborn_game.player.constants.GameEventConflictConstants;
+import com.pisoft.mistborn_game.player.constants.GameEventLagConstants;
+import com.pisoft.mistborn_game.player.constants.GameEventPriorityConstants;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
+import com.pisoft.mistborn_game.player.game_events.GameEventManager;
+import com.pisoft.mistborn_game.player.game_events.GameEventPool;
+import com.pisoft.mistborn_game.player.game_events.GameEventTypes;
+import com.pisoft.mistborn_game.profiling.FrameProfiler;
+import com.pisoft.mistborn_game.profiling.FrameProfiler.Phase;
+
+/**
+ * State of a single simulation: its active level, its managers, its event
+ * pools and its current tick.
+ * <p>
+ * Nothing in a simulation is shared through static state. Players, events and
+ * managers all reach their simulation through its context (see
+ * {@link com.pisoft.mistborn_game.player.game_events.GameEventDispatcher#getContext()}),
+ * so any number of contexts can run side by side in the same process, e.g. on
+ * a thread pool for batch evaluation.
+ * <p>
+ * A context is not thread safe. Its ticks must only be run by one thread at a
+ * time, although that thread may change between ticks as long as the hand
+ * over is synchronized (as it is when submitting tasks to an
+ * <code>ExecutorService</code>). Other threads may only send events through
+ * the managers' ingress queues.
+ *
+ * @author gouldb
+ *
+ */
+public class GameContext {
+	private static boolean resourcesLoaded = false;
+
+	private volatile long currentTick = 0;
+
+	private Level activeLevel;
+
+	private final GameEventManager<GameEvent> gameEventManager;
+	private final PlayerActionManager playerActionManager;
+
+	// event pools, indexed by type id
+	private GameEventPool<?>[] pools = new GameEventPool<?>[0];
+	private boolean poolDebug = false;
+
+	// null unless profiling
+	private volatile FrameProfiler profiler;
+
+	private volatile boolean printResolutions = false;
+
+	/**
+	 * Constructs a new <code>GameContext</code>, with no active level, starting
+	 * at tick 0. Loads the shared game resources if they have not been loaded yet.
+	 */
+	public GameContext() {
+		initResources();
+
+		gameEventManager = new GameEventManager<>(this, GameEvent.class);
+		playerActionManager = new PlayerActionManager(this);
+	}
+
+	/**
+	 * Loads all resources shared between contexts. Only the first call does
+	 * anything, so this is safe to call from every context, on any thread.
+	 */
+	public static synchronized void initResources() {
+		if (resourcesLoaded) {
+			return;
+		}
+
+		GameEventPriorityConstants.initActionPriorities();
+		GameEventLagConstants.initLagFrames();
+		GameEventConflictConstants.initConflicts();
+
+		resourcesLoaded = true;
+	}
+
+	// playing methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Resolves all <code>GameEvent</code> objects that have been generated since
+	 * the last call of this method, and changes the state of the active
+	 * <code>Player</code> object accordingly.
+	 * <p>
+	 * If a profiler is set, each of the three phases of the tick is timed.
+	 *
+	 * TODO: This should be able to tick an arbitrary number / type of objects
+	 */
+	public void tick() {
+		currentTick++;
+
+		// separates the resolutions printed by each tick
+		boolean print = printResolutions;
+		if (print) {
+			System.out.println("Frame break");
+		}
+
+		FrameProfiler profiler = this.profiler;
+		if (profiler == null) {
+			playerActionManager.resolveQueuedEvents();
+			activeLevel.getPlayer().tick();
+			gameEventManager.resolveQueuedEvents();
+		} else {
+			profiler.begin(Phase.ACTIONS);
+			playerActionManager.resolveQueuedEvents();
+			profiler.end(Phase.ACTIONS);
+
+			profiler.begin(Phase.PLAYER);
+			activeLevel.getPlayer().tick();
+			profiler.end(Phase.PLAYER);
+
+			profiler.begin(Phase.EVENTS);
+			gameEventManager.resolveQueuedEvents();
+			profiler.end(Phase.EVENTS);
+
+			profiler.endFrame(currentTick);
+		}
+
+		if (print) {
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Gets a reset event of the given class from this context's pool of them, or
+	 * a new one if the pool is empty. Events dispatched every tick should be
+	 * obtained this way instead of being constructed, so that they are recycled
+	 * once every manager has released them.
+	 * <p>
+	 * The event is stamped with the current tick as its creation tick. Any state
+	 * the event needs (e.g. its direction) must be set on it before it is
+	 * dispatched.
+	 *
+	 * @param type The class of the event, which must have a public no argument
+	 *             constructor
+	 * @return The event to dispatch
+	 */
+	public <T extends GameEvent> T obtain(Class<T> type) {
+		T event = getPool(type).acquire();
+		event.setCreationTick(currentTick);
+
+		return event;
+	}
+
+	/**
+	 * Gets the pool that events of the given class are recycled through in this
+	 * context, creating it the first time it is asked for.
+	 *
+	 * @param type The class of the events in the pool
+	 * @return The pool for the class
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends GameEvent> GameEventPool<T> getPool(Class<T> type) {
+		int id = GameEventTypes.idOf(type);
+
+		if (id >= pools.length) {
+			pools = Arrays.copyOf(pools, Math.max(id + 1, GameEventTypes.count()));
+		}
+
+		GameEventPool<?> pool = pools[id];
+		if (pool == null) {
+			pool = new GameEventPool<>(type);
+			pool.setDebug(poolDebug);
+			pools[id] = pool;
+		}
+
+		return (GameEventPool<T>) pool;
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the active level.
+	 *
+	 * @return The <code>Level</code> object that is currently in use.
+	 *
+	 */
+	public Level getActiveLevel() {
+		return activeLevel;
+	}
+
+	/**
+	 * Sets the active level, and attaches its player to this context and its
+	 * managers.
+	 *
+	 * @param activeLevel The <code>Level</code> object to set as active. Must not
+	 *                    be active in any other context.
+	 *
+	 */
+	public void setActiveLevel(Level activeLevel) {
+		activeLevel.getPlayer().setContext(this);
+		activeLevel.getPlayer().addGameEventListener(gameEventManager, gameEventManager.getEventClass());
+
+		this.activeLevel = activeLevel;
+	}
+
+	public GameEventManager<GameEvent> getGameEventManager() {
+		return gameEventManager;
+	}
+
+	public PlayerActionManager getPlayerActionManager() {
+		return playerActionManager;
+	}
+
+	public FrameProfiler getProfiler() {
+		return profiler;
+	}
+
+	/**
+	 * Sets the profiler that ticks are timed with. The same profiler is used by
+	 * the display to time painting.
+	 *
+	 * @param profiler The profiler to use, or <code>null</code> to stop profiling
+	 */
+	public void setProfiler(FrameProfiler profiler) {
+		this.profiler = profiler;
+	}
+
+	/**
+	 * Gets whether this context's managers print the name of each event they
+	 * resolve, with a break printed between ticks.
+	 *
+	 * @return <code>true</code> if resolutions are printed
+	 */
+	public boolean isPrintResolutions() {
+		return printResolutions;
+	}
+
+	/**
+	 * Sets whether this context's managers print the name of each event they
+	 * resolve. Off by default, since printing every resolution slows the game
+	 * down and floods the output of batch runs.
+	 *
+	 * @param printResolutions Whether to print resolutions
+	 */
+	public void setPrintResolutions(boolean printResolutions) {
+		this.printResolutions = printResolutions;
+	}
+
+	public boolean isPoolDebug() {
+		return poolDebug;
+	}
+
+	/**
+	 * Turns debug mode on or off for every one of this context's event pools (see
+	 * {@link GameEventPool}), including the ones created later. Like the pools
+	 * themselves, this must only be called by the thread running the context.
+	 *
+	 * @param poolDebug Whether the pools should use debug mode
+	 */
+	public void setPoolDebug(boolean poolDebug) {
+		this.poolDebug = poolDebug;
+
+		for (GameEventPool<?> pool : pools) {
+			if (pool != null) {
+				pool.setDebug(poolDebug);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of the tick currently being run (or the last one run, if
+	 * called between ticks). The counter is incremented once at the start of every
+	 * call to <code>tick()</code>, so it does not depend on how long ticks or
+	 * renders take.
+	 * <p>
+	 * All <code>GameEvent</code> timing is measured in ticks.
+	 *
+	 * @return The current tick
+	 */
+	public long getCurrentTick() {
+		return currentTick;
+	}
+
+	public void setCurrentTick(long currentTick) {
+		this.currentTick = currentTick;
+	}
+}
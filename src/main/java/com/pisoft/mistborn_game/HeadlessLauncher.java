@@ -0,0 +1,129 @@
+package com.pisoft.mistborn_game;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.pisoft.mistborn_game.controllers.IntentController;
+import com.pisoft.mistborn_game.levels.LoadedLevels;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.Side;
+import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+import com.pisoft.mistborn_game.player.intents.StopAccIntent;
+import com.pisoft.mistborn_game.player.intents.StopJumpIntent;
+
+/**
+ * Runs the game without a display, for machines without a graphics environment
+ * (build agents, servers). No AWT or Swing classes are loaded.
+ * <p>
+ * Each session is its own <code>GameContext</code>, with its player driven by
+ * a fixed input script through an <code>IntentController</code>, running left
+ * and right and jumping. Sessions are run on a thread pool with one thread per
+ * processor, and each runs its ticks back to back as fast as possible. Once
+ * done, the time taken to start up and the number of ticks run per second are
+ * printed. Since every session gets the same input, they should all end in the
+ * same state, which is checked as well.
+ * <p>
+ * Accepts two optional arguments: the number of ticks to run in each session
+ * (default <code>DEFAULT_TICKS</code>), and the number of sessions to run
+ * (default 1).
+ * 
+ * @author gouldb
+ *
+ */
+public class HeadlessLauncher {
+	private static final long DEFAULT_TICKS = 1_000_000;
+
+	// input script: run one way, then the other, jumping every JUMP_PERIOD ticks
+	private static final int RUN_PERIOD = 120;
+	private static final int RUN_LENGTH = 40;
+	private static final int JUMP_PERIOD = 60;
+	private static final int JUMP_LENGTH = 10;
+
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		long mainTime = System.nanoTime();
+
+		long ticks = (args.length > 0) ? Long.parseLong(args[0]) : DEFAULT_TICKS;
+		int sessions = (args.length > 1) ? Integer.parseInt(args[1]) : 1;
+
+		ArrayList<GameContext> contexts = new ArrayList<>(sessions);
+		for (int i = 0; i < sessions; i++) {
+			GameContext context = new GameContext();
+			context.setActiveLevel(LoadedLevels.createLevel1());
+
+			contexts.add(context);
+		}
+
+		long startupNanos = System.nanoTime() - mainTime;
+		long jvmUptime = ManagementFactory.getRuntimeMXBean().getUptime();
+
+		ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		ArrayList<Future<?>> results = new ArrayList<>(sessions);
+
+		long startTime = System.nanoTime();
+
+		for (GameContext context : contexts) {
+			results.add(pool.submit(() -> run(context, ticks)));
+		}
+
+		for (Future<?> result : results) {
+			result.get();
+		}
+
+		long elapsed = System.nanoTime() - startTime;
+		pool.shutdown();
+
+		Player player = contexts.get(0).getActiveLevel().getPlayer();
+		int diverged = 0;
+		for (GameContext context : contexts) {
+			Player other = context.getActiveLevel().getPlayer();
+
+			if (other.getxPos() != player.getxPos() || other.getyPos() != player.getyPos()) {
+				diverged++;
+			}
+		}
+
+		long totalTicks = ticks * sessions;
+
+		System.out.println("Started " + sessions + " session(s) in " + startupNanos / 1_000_000 + " ms (" + jvmUptime
+				+ " ms since JVM start)");
+		System.out.println("Ran " + totalTicks + " ticks in " + elapsed / 1_000_000 + " ms ("
+				+ (long) (totalTicks * 1e9 / Math.max(elapsed, 1)) + " ticks/s)");
+		System.out.println("Player: x = " + player.getxPos() + ", y = " + player.getyPos() + ", xSpeed = "
+				+ player.getxSpeed() + ", ySpeed = " + player.getySpeed());
+
+		if (diverged > 0) {
+			System.out.println(diverged + " session(s) ended in a different state");
+		}
+	}
+
+	private static void run(GameContext context, long ticks) {
+		IntentController controller = new IntentController(context);
+		controller.setTargetPlayer(context.getActiveLevel().getPlayer());
+
+		for (long tick = 0; tick < ticks; tick++) {
+			sendScriptedInput(controller, tick);
+			context.tick();
+		}
+	}
+
+	private static void sendScriptedInput(IntentController controller, long tick) {
+		Side side = ((tick / RUN_PERIOD) % 2 == 0) ? Side.RIGHT : Side.LEFT;
+
+		if (tick % RUN_PERIOD == 0) {
+			controller.send(new AccelerateIntent(side));
+		} else if (tick % RUN_PERIOD == RUN_LENGTH) {
+			controller.send(new StopAccIntent(side));
+		}
+
+		if (tick % JUMP_PERIOD == JUMP_PERIOD / 2) {
+			controller.send(new JumpIntent());
+		} else if (tick % JUMP_PERIOD == JUMP_PERIOD / 2 + JUMP_LENGTH) {
+			controller.send(new StopJumpIntent());
+		}
+	}
+}
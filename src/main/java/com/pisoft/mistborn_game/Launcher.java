@@ -1,15 +1,187 @@
 package com.pisoft.mistborn_game;
 
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.pisoft.mistborn_game.clock.ScaledClock;
+import com.pisoft.mistborn_game.levels.LoadedLevels;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.profiling.FrameProfiler;
+import com.pisoft.mistborn_game.profiling.ProfileCsvWriter;
+import com.pisoft.mistborn_game.replay.InputRecorder;
+import com.pisoft.mistborn_game.replay.InputReplayer;
+
 /**
  * Main class for this game. Creates a new <code>Game</code> object, and starts
  * it in a new thread.
+ * <p>
+ * Accepts any of the following (optional) arguments, in any order:
+ * <ul>
+ * <li><code>--record &lt;file&gt;</code>: plays the game as normal, while
+ * recording every intent to an input log</li>
+ * <li><code>--replay &lt;file&gt;</code>: replays an input log without a
+ * display, as fast as possible, and prints the final state of the player. Every
+ * other argument but <code>--metrics</code> is ignored.</li>
+ * <li><code>--speed &lt;scale&gt;</code>: plays the game at a multiple of real
+ * time, from <code>ScaledClock.MIN_SCALE</code> (slow motion, for debugging) to
+ * <code>ScaledClock.MAX_SCALE</code></li>
+ * <li><code>--profile [&lt;file&gt;]</code>: plays the game with a graph of
+ * how long each phase of the loop takes, optionally writing the timings of
+ * every tick to a CSV file</li>
+ * <li><code>--debug-rate &lt;hz&gt;</code>: plays the game with the debug
+ * text refreshed at most this many times a second (10 by default)</li>
+ * </ul>
+ * Any of them can be combined with these options for drawing and diagnostics:
+ * <ul>
+ * <li><code>--passive</code>: draws the game through Swing's repaint mechanism
+ * instead of actively rendering it from the game loop</li>
+ * <li><code>--render-scale &lt;scale&gt;</code>: draws the level at a multiple
+ * of its logical resolution, from <code>FrameRenderer.MIN_RENDER_SCALE</code>
+ * (fast, but blurry) to <code>FrameRenderer.MAX_RENDER_SCALE</code></li>
+ * <li><code>--nearest</code>: scales the level to the window without
+ * filtering</li>
+ * <li><code>--print-resolutions</code>: prints every event as it is
+ * resolved</li>
+ * <li><code>--metrics</code>: prints the event metrics of each manager when the
+ * game exits</li>
+ * </ul>
  * 
  * @author gouldb
  * 
  */
 public class Launcher {
-	public static void main(String[] args) {
-		Game game = new Game();
+	// number of ticks to keep running after the last intent of a replay
+	private static final int REPLAY_EXTRA_TICKS = 60;
+
+	public static void main(String[] args) throws IOException {
+		Map<String, String> options = parseOptions(args);
+
+		if (options.get("--replay") != null) {
+			GameContext context = new GameContext();
+			if (options.containsKey("--metrics")) {
+				dumpMetricsOnExit(context);
+			}
+
+			replay(context, options.get("--replay"));
+			return;
+		}
+
+		Game game = new Game(false, !options.containsKey("--passive"));
+		game.getContext().setPrintResolutions(options.containsKey("--print-resolutions"));
+		game.setSmoothScaling(!options.containsKey("--nearest"));
+
+		if (options.get("--render-scale") != null) {
+			game.setRenderScale(Double.parseDouble(options.get("--render-scale")));
+		}
+
+		if (options.containsKey("--metrics")) {
+			dumpMetricsOnExit(game.getContext());
+		}
+
+		if (options.get("--record") != null) {
+			record(game.getContext(), options.get("--record"));
+		}
+		if (options.get("--speed") != null) {
+			game.setClock(new ScaledClock(game.getClock(), Double.parseDouble(options.get("--speed"))));
+		}
+		if (options.get("--debug-rate") != null) {
+			game.setDebugRefreshDelay((int) (Math.pow(10, 9) / Double.parseDouble(options.get("--debug-rate"))));
+		}
+		if (options.containsKey("--profile")) {
+			profile(game.getContext(), options.get("--profile"));
+		}
+
 		game.start();
 	}
+
+	/**
+	 * Reads every option in the arguments in one pass. Each option (anything
+	 * starting with <code>--</code>) is mapped to the argument after it, or to
+	 * <code>null</code> if it is not followed by a value.
+	 */
+	private static Map<String, String> parseOptions(String[] args) {
+		Map<String, String> options = new HashMap<>();
+
+		for (int i = 0; i < args.length; i++) {
+			if (!args[i].startsWith("--")) {
+				continue;
+			}
+
+			String option = args[i];
+			String value = null;
+			if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+				value = args[++i];
+			}
+
+			options.put(option, value);
+		}
+
+		return options;
+	}
+
+	private static void dumpMetricsOnExit(GameContext context) {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			context.getPlayerActionManager().getMetrics().snapshot().dump(System.out, "PlayerActionManager");
+			System.out.println();
+			context.getGameEventManager().getMetrics().snapshot().dump(System.out, "GameEventManager");
+		}));
+	}
+
+	private static void record(GameContext context, String fileName) throws IOException {
+		InputRecorder recorder = new InputRecorder(fileName);
+		context.getPlayerActionManager().setRecorder(recorder);
+
+		// the window closes the game by exiting, so the log is finished on shutdown
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			context.getPlayerActionManager().setRecorder(null);
+
+			try {
+				recorder.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}));
+	}
+
+	private static void profile(GameContext context, String fileName) throws IOException {
+		FrameProfiler profiler = new FrameProfiler();
+
+		if (fileName != null) {
+			ProfileCsvWriter writer = new ProfileCsvWriter(fileName, FrameProfiler.getCsvHeader(),
+					FrameProfiler.getCsvColumns());
+			profiler.setWriter(writer);
+
+			// the window closes the game by exiting, so the file is finished on shutdown
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				profiler.setWriter(null);
+
+				try {
+					writer.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}));
+		}
+
+		context.setProfiler(profiler);
+	}
+
+	private static void replay(GameContext context, String fileName) throws IOException {
+		context.setActiveLevel(LoadedLevels.createLevel1());
+
+		long startTime = System.nanoTime();
+		long ticks;
+
+		try (InputReplayer replayer = new InputReplayer(fileName)) {
+			ticks = replayer.replay(context, REPLAY_EXTRA_TICKS);
+		}
+
+		long elapsed = System.nanoTime() - startTime;
+		Player player = context.getActiveLevel().getPlayer();
+
+		System.out.println("Replayed " + ticks + " ticks in " + elapsed / 1_000_000 + " ms");
+		System.out.println("Player: x = " + player.getxPos() + ", y = " + player.getyPos() + ", xSpeed = "
+				+ player.getxSpeed() + ", ySpeed = " + player.getySpeed());
+	}
 }
@@ -0,0 +1,38 @@
+package com.pisoft.mistborn_game.clock;
+
+/**
+ * Source of time for the game loop.
+ * <p>
+ * The loop never reads the system timer directly. It asks its clock for the
+ * time, and asks the clock to wait whenever it has nothing to do until some
+ * later time. Swapping the clock changes how fast the game runs compared to
+ * the real world, without changing anything about the ticks themselves:
+ * <ul>
+ * <li>{@link RealTimeClock} follows <code>System.nanoTime()</code></li>
+ * <li>{@link ScaledClock} runs another clock faster or slower, e.g. for slow
+ * motion while debugging</li>
+ * <li>{@link VirtualClock} only moves when told to, so waiting costs nothing
+ * and the game runs as fast as it can be simulated</li>
+ * </ul>
+ * All times are in nanoseconds. Like <code>System.nanoTime()</code>, they are
+ * only meaningful relative to other times from the same clock.
+ *
+ * @author gouldb
+ *
+ */
+public interface Clock {
+	/**
+	 * Gets the current time of this clock.
+	 *
+	 * @return The current time, in ns
+	 */
+	long nanoTime();
+
+	/**
+	 * Blocks until this clock reaches the given time. Returns immediately if the
+	 * time has already been reached.
+	 *
+	 * @param time The time to wait for, in ns
+	 */
+	void sleepUntil(long time);
+}
@@ -0,0 +1,35 @@
+package com.pisoft.mistborn_game.clock;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Clock that follows <code>System.nanoTime()</code>.
+ * <p>
+ * Waiting parks the thread, only yielding for the last <code>SPIN_NANOS</code>
+ * since parking can oversleep.
+ *
+ * @author gouldb
+ *
+ */
+public class RealTimeClock implements Clock {
+	// parking can oversleep by this much, so the rest of each wait is spent yielding
+	private static final long SPIN_NANOS = 200_000;
+
+	@Override
+	public long nanoTime() {
+		return System.nanoTime();
+	}
+
+	@Override
+	public void sleepUntil(long time) {
+		long remaining = time - System.nanoTime();
+
+		if (remaining > SPIN_NANOS) {
+			LockSupport.parkNanos(remaining - SPIN_NANOS);
+		}
+
+		while (time - System.nanoTime() > 0) {
+			Thread.yield();
+		}
+	}
+}
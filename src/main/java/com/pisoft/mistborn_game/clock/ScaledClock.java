@@ -0,0 +1,111 @@
+package com.pisoft.mistborn_game.clock;
+
+/**
+ * Clock that runs at a multiple of another clock's speed.
+ * <p>
+ * A scale of 2 runs twice as fast as the source clock, and a scale of 0.5 half
+ * as fast. The scale can be changed while the clock is in use (e.g. from a key
+ * binding on the event dispatch thread), and the clock carries on from the
+ * time it had reached, so changing speed never makes it jump.
+ *
+ * @author gouldb
+ *
+ */
+public class ScaledClock implements Clock {
+	public static final double MIN_SCALE = 0.1;
+	public static final double MAX_SCALE = 100;
+
+	private final Clock source;
+
+	private double scale;
+
+	// the time of this clock, and of the source, when the scale was last set
+	private long baseTime;
+	private long baseSourceTime;
+
+	/**
+	 * Constructs a new <code>ScaledClock</code> starting at the source clock's
+	 * current time.
+	 *
+	 * @param source The clock to follow
+	 * @param scale  How many times faster than the source to run
+	 * @throws IllegalArgumentException if the scale is outside of
+	 *                                  <code>MIN_SCALE</code> to
+	 *                                  <code>MAX_SCALE</code>
+	 */
+	public ScaledClock(Clock source, double scale) {
+		checkScale(scale);
+
+		this.source = source;
+		this.scale = scale;
+		this.baseSourceTime = source.nanoTime();
+		this.baseTime = baseSourceTime;
+	}
+
+	@Override
+	public synchronized long nanoTime() {
+		return toScaled(source.nanoTime());
+	}
+
+	/**
+	 * Waits on the source clock until the time it should take this clock to
+	 * reach the given time. If the scale is lowered in the meantime, waits again.
+	 */
+	@Override
+	public void sleepUntil(long time) {
+		while (true) {
+			long sourceTime;
+
+			synchronized (this) {
+				if (toScaled(source.nanoTime()) - time >= 0) {
+					return;
+				}
+
+				// round up, so that the wait never ends just short of the time
+				sourceTime = baseSourceTime + (long) Math.ceil((time - baseTime) / scale);
+			}
+
+			source.sleepUntil(sourceTime);
+		}
+	}
+
+	private long toScaled(long sourceTime) {
+		return baseTime + (long) ((sourceTime - baseSourceTime) * scale);
+	}
+
+	private static void checkScale(double scale) {
+		if (!(scale >= MIN_SCALE && scale <= MAX_SCALE)) {
+			throw new IllegalArgumentException(
+					"Scale must be between " + MIN_SCALE + " and " + MAX_SCALE + ", was " + scale);
+		}
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	public Clock getSource() {
+		return source;
+	}
+
+	public synchronized double getScale() {
+		return scale;
+	}
+
+	/**
+	 * Sets how many times faster than the source clock this clock runs, from now
+	 * on.
+	 *
+	 * @param scale The new scale
+	 * @throws IllegalArgumentException if the scale is outside of
+	 *                                  <code>MIN_SCALE</code> to
+	 *                                  <code>MAX_SCALE</code>
+	 */
+	public synchronized void setScale(double scale) {
+		checkScale(scale);
+
+		long sourceTime = source.nanoTime();
+		baseTime = toScaled(sourceTime);
+		baseSourceTime = sourceTime;
+
+		this.scale = scale;
+	}
+}
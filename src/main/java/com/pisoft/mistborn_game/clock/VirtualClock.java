@@ -0,0 +1,61 @@
+package com.pisoft.mistborn_game.clock;
+
+/**
+ * Clock whose time only moves when it is advanced.
+ * <p>
+ * Waiting on a virtual clock does not block. It simply moves the clock forward
+ * to the time being waited for, so a game loop running on one skips straight
+ * from each tick to the next. This is meant for tests and batch jobs, where
+ * hours of game time can be run in seconds while the loop still sees time
+ * passing exactly as it would in real time.
+ *
+ * @author gouldb
+ *
+ */
+public class VirtualClock implements Clock {
+	private volatile long time;
+
+	/**
+	 * Constructs a new <code>VirtualClock</code> starting at time 0.
+	 */
+	public VirtualClock() {
+		this(0);
+	}
+
+	/**
+	 * Constructs a new <code>VirtualClock</code> starting at the given time.
+	 *
+	 * @param time The time to start at, in ns
+	 */
+	public VirtualClock(long time) {
+		this.time = time;
+	}
+
+	@Override
+	public long nanoTime() {
+		return time;
+	}
+
+	/**
+	 * Moves the clock forward to the given time, if it has not reached it yet.
+	 */
+	@Override
+	public synchronized void sleepUntil(long time) {
+		if (time - this.time > 0) {
+			this.time = time;
+		}
+	}
+
+	/**
+	 * Moves the clock forward.
+	 *
+	 * @param nanos How far to move the clock, in ns. Must not be negative.
+	 */
+	public synchronized void advance(long nanos) {
+		if (nanos < 0) {
+			throw new IllegalArgumentException("Cannot move a clock backwards: " + nanos);
+		}
+
+		time += nanos;
+	}
+}
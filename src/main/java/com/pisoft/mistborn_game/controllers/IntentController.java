@@ -0,0 +1,89 @@
+package com.pisoft.mistborn_game.controllers;
+
+import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.actions.PlayerActionManager;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
+import com.pisoft.mistborn_game.player.game_events.GameEventDispatcher;
+import com.pisoft.mistborn_game.player.game_events.GameEventListener;
+import com.pisoft.mistborn_game.player.game_events.GameEventListenerRegistry;
+import com.pisoft.mistborn_game.player.game_events.GameEventSubscriptions;
+import com.pisoft.mistborn_game.player.intents.PlayerIntent;
+
+/**
+ * Controller for supplying input from code rather than from a keyboard or
+ * mouse. This is what a headless game takes its input from (see
+ * {@link Game#Game(boolean)}), and it does not depend on any AWT classes.
+ * <p>
+ * Like the <code>KeyBinder</code>, intents are handed to the
+ * <code>PlayerActionManager</code>'s ingress queue, so <code>send()</code> can
+ * be called from any thread.
+ * 
+ * @author gouldb
+ *
+ */
+public class IntentController implements GameEventDispatcher {
+	private final GameContext context;
+	private Player targetPlayer;
+	private final GameEventListenerRegistry listeners = new GameEventListenerRegistry();
+
+	/**
+	 * Constructs a new <code>IntentController</code> that sends intents into a
+	 * context. The target player must be set before anything is sent.
+	 * 
+	 * @param context The context to send intents into
+	 */
+	public IntentController(GameContext context) {
+		this.context = context;
+
+		PlayerActionManager manager = context.getPlayerActionManager();
+		addGameEventListener(manager.getIngress(), manager.getEventClass());
+	}
+
+	/**
+	 * Sends an intent to the target player, as if its key had just been pressed.
+	 * The intent is resolved in the next tick.
+	 * 
+	 * @param intent The intent to send. Must not be sent again once sent.
+	 */
+	public void send(PlayerIntent intent) {
+		dispatchEvent(intent);
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	@Override
+	public GameEventSubscriptions getListeners() {
+		return listeners.snapshot();
+	}
+
+	@Override
+	public void addGameEventListener(GameEventListener listener, Class<? extends GameEvent> type) {
+		listeners.add(listener, type);
+	}
+
+	@Override
+	public void removeGameEventListener(GameEventListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void removeGameEventListener(int index) {
+		listeners.remove(index);
+	}
+
+	@Override
+	public GameContext getContext() {
+		return context;
+	}
+
+	@Override
+	public Player getTargetPlayer() {
+		return targetPlayer;
+	}
+
+	public void setTargetPlayer(Player targetPlayer) {
+		this.targetPlayer = targetPlayer;
+	}
+}
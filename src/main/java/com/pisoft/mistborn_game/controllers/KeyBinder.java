@@ -1,20 +1,24 @@
 package com.pisoft.mistborn_game.controllers;
 
+import java.awt.Component;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Point2D;
 import java.util.HashMap;
 
-import javax.swing.JComponent;
-
-import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameContext;
 import com.pisoft.mistborn_game.player.Player;
 import com.pisoft.mistborn_game.player.actions.PlayerAction;
+import com.pisoft.mistborn_game.player.actions.PlayerActionManager;
 import com.pisoft.mistborn_game.player.game_events.GameEvent;
 import com.pisoft.mistborn_game.player.game_events.GameEventDispatcher;
 import com.pisoft.mistborn_game.player.game_events.GameEventListener;
+import com.pisoft.mistborn_game.player.game_events.GameEventListenerRegistry;
+import com.pisoft.mistborn_game.player.game_events.GameEventSubscriptions;
 import com.pisoft.mistborn_game.player.intents.SteelPushIntent;
 import com.pisoft.mistborn_game.player.intents.StopSteelPushIntent;
 
@@ -28,6 +32,10 @@ import com.pisoft.mistborn_game.player.intents.StopSteelPushIntent;
  * The values of the map are <code>PlayerAction</code> objects. The binding can
  * dispatch these actions, or <code>resolve()</code> them directly when the
  * corrosponding key event is received.
+ * <p>
+ * Mouse positions are mapped from the component's coordinates to level
+ * coordinates through the view transform, which whoever draws the level
+ * should keep up to date with the camera.
  * 
  * @author gouldb
  *
@@ -47,14 +55,21 @@ public class KeyBinder implements GameEventDispatcher {
 
 	private HashMap<Integer, PlayerAction> keyBindings = new HashMap<>();
 
-	private JComponent targetComponent;
+	private Component targetComponent;
+	private final GameContext context;
 	private Player targetPlayer;
-	private ArrayList<GameEventListener> listeners = new ArrayList<>();
+	private final GameEventListenerRegistry listeners = new GameEventListenerRegistry();
+
+	// maps level coordinates to component coordinates. Never changed once set, only replaced.
+	private volatile AffineTransform viewTransform = new AffineTransform();
 
-	public KeyBinder(JComponent targetComponent) {
+	public KeyBinder(Component targetComponent, GameContext context) {
+		this.context = context;
 		setTargetComponent(targetComponent);
 
-		addGameEventListener(Game.getPlayerActionManager());
+		// input arrives on the Event Dispatch Thread, so hand it to the game thread
+		PlayerActionManager manager = context.getPlayerActionManager();
+		addGameEventListener(manager.getIngress(), manager.getEventClass());
 
 		targetComponent.addKeyListener(new KeyAdapter() {
 			@Override
@@ -62,11 +77,7 @@ public class KeyBinder implements GameEventDispatcher {
 				int keyCode = e.getKeyCode();
 
 				if (keyCode != lastKeyPressed && keyCode != KeyEvent.VK_UNDEFINED) {
-					try {
-						dispatchEvent((GameEvent) getKeyBindings().get(keyCode).clone());
-					} catch (CloneNotSupportedException e1) {
-						e1.printStackTrace();
-					}
+					dispatchBinding(keyCode);
 					
 					if (!(keyCode == KeyEvent.VK_SHIFT || keyCode == KeyEvent.VK_ALT || keyCode == KeyEvent.VK_CONTROL)) {
 						lastKeyPressed = keyCode;
@@ -78,11 +89,7 @@ public class KeyBinder implements GameEventDispatcher {
 			public void keyReleased(KeyEvent e) {
 				int keyCode = e.getKeyCode();
 				
-				try {
-					dispatchEvent((GameEvent) getKeyBindings().get(keyCode + KeyBinder.RELEASED).clone());
-				} catch (CloneNotSupportedException e1) {
-					e1.printStackTrace();
-				}
+				dispatchBinding(keyCode + KeyBinder.RELEASED);
 				
 				if (!(keyCode == KeyEvent.VK_SHIFT || keyCode == KeyEvent.VK_ALT || keyCode == KeyEvent.VK_CONTROL)) {
 					lastKeyPressed = -1;
@@ -94,7 +101,9 @@ public class KeyBinder implements GameEventDispatcher {
 			@Override
 			public void mousePressed(MouseEvent e) {
 				if ((e.getModifiersEx() & MouseEvent.BUTTON1_DOWN_MASK) == MouseEvent.BUTTON1_DOWN_MASK) {
-					dispatchEvent(new SteelPushIntent(e.getPoint()));
+					Point2D target = toLevel(e.getX(), e.getY());
+
+					dispatchEvent(new SteelPushIntent((int) Math.round(target.getX()), (int) Math.round(target.getY())));
 				}
 
 				if ((e.getModifiersEx() & MouseEvent.BUTTON3_DOWN_MASK) == MouseEvent.BUTTON3_DOWN_MASK) {
@@ -115,6 +124,38 @@ public class KeyBinder implements GameEventDispatcher {
 		});
 	}
 
+	/**
+	 * Dispatches a copy of the action bound to a key, if there is one. Keys
+	 * without a binding may be handled by other listeners on the component.
+	 * 
+	 * @param binding The key code, plus <code>RELEASED</code> for release bindings
+	 */
+	private void dispatchBinding(int binding) {
+		PlayerAction action = getKeyBindings().get(binding);
+		if (action == null) {
+			return;
+		}
+
+		try {
+			dispatchEvent((GameEvent) action.clone());
+		} catch (CloneNotSupportedException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Maps a point on the component to the point in the level drawn there.
+	 */
+	private Point2D toLevel(int x, int y) {
+		Point2D point = new Point2D.Double(x, y);
+
+		try {
+			return viewTransform.inverseTransform(point, point);
+		} catch (NoninvertibleTransformException e) {
+			return point;
+		}
+	}
+
 	// getters and setters
 	// ---------------------------------------------------------------------------------------------------
 	/**
@@ -130,17 +171,52 @@ public class KeyBinder implements GameEventDispatcher {
 		this.keyBindings = keyBindings;
 	}
 
-	public JComponent getTargetComponent() {
+	public AffineTransform getViewTransform() {
+		return viewTransform;
+	}
+
+	/**
+	 * Sets the transform from level coordinates to the coordinates of the target
+	 * component, used to find what the mouse is pointing at. The transform must
+	 * not be changed after it is set. Safe to call from any thread.
+	 * 
+	 * @param viewTransform The transform the level is currently drawn with
+	 */
+	public void setViewTransform(AffineTransform viewTransform) {
+		this.viewTransform = viewTransform;
+	}
+
+	public Component getTargetComponent() {
 		return targetComponent;
 	}
 
-	public void setTargetComponent(JComponent targetComponent) {
+	public void setTargetComponent(Component targetComponent) {
 		this.targetComponent = targetComponent;
 	}
 
 	@Override
-	public ArrayList<GameEventListener> getListeners() {
-		return listeners;
+	public GameEventSubscriptions getListeners() {
+		return listeners.snapshot();
+	}
+
+	@Override
+	public void addGameEventListener(GameEventListener listener, Class<? extends GameEvent> type) {
+		listeners.add(listener, type);
+	}
+
+	@Override
+	public void removeGameEventListener(GameEventListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void removeGameEventListener(int index) {
+		listeners.remove(index);
+	}
+
+	@Override
+	public GameContext getContext() {
+		return context;
 	}
 
 	@Override
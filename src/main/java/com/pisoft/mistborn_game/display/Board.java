@@ -3,75 +3,71 @@ package com.pisoft.mistborn_game.display;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Toolkit;
-import java.awt.event.KeyEvent;
 
 import javax.swing.JPanel;
 
 import com.pisoft.mistborn_game.Game;
 import com.pisoft.mistborn_game.controllers.KeyBinder;
-import com.pisoft.mistborn_game.player.Side;
-import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
-import com.pisoft.mistborn_game.player.intents.CrouchIntent;
-import com.pisoft.mistborn_game.player.intents.JumpIntent;
-import com.pisoft.mistborn_game.player.intents.PrepRunIntent;
-import com.pisoft.mistborn_game.player.intents.StopAccIntent;
-import com.pisoft.mistborn_game.player.intents.StopCrouchIntent;
-import com.pisoft.mistborn_game.player.intents.StopJumpIntent;
-import com.pisoft.mistborn_game.player.intents.StopPrepRunIntent;
-
-public class Board extends JPanel {
+import com.pisoft.mistborn_game.profiling.FrameProfiler;
+import com.pisoft.mistborn_game.profiling.FrameProfiler.Phase;
+
+/**
+ * Passive rendering surface: a <code>JPanel</code> that the game loop asks
+ * Swing to repaint, and that paints itself on the Event Dispatch Thread
+ * whenever Swing gets round to it.
+ * <p>
+ * Kept as a fallback for {@link GameCanvas}, e.g. on platforms where buffer
+ * strategies misbehave.
+ * 
+ * @author gouldb
+ */
+public class Board extends JPanel implements GameSurface {
 
 	private static final long serialVersionUID = -3991296469087660042L;
 
-	private final int WIDTH = 500;
-	private final int HEIGHT = 500;
-
-	private Painter painter = new Painter();
-
+	private final FrameRenderer renderer;
 	private KeyBinder keyBinder;
 
-	public Board() {
+	public Board(Game game) {
+		this.renderer = new FrameRenderer(game);
+
 		initBoard();
-		initKeyBindings();
 	}
 
 	// initialization
 	// ---------------------------------------------------------------------------------------------------
 	private void initBoard() {
-		setKeyBinder(new KeyBinder(this));
+		setKeyBinder(renderer.bindControls(this));
 
-		setPreferredSize(new Dimension(WIDTH, HEIGHT));
+		setPreferredSize(new Dimension(FrameRenderer.LOGICAL_WIDTH, FrameRenderer.LOGICAL_HEIGHT));
 		setFocusable(true);
 	}
 
-	private void initKeyBindings() {
-		keyBinder.getKeyBindings().put(KeyEvent.VK_RIGHT, new AccelerateIntent(Side.RIGHT));
-		keyBinder.getKeyBindings().put(KeyEvent.VK_LEFT, new AccelerateIntent(Side.LEFT));
-		keyBinder.getKeyBindings().put(KeyEvent.VK_UP, new JumpIntent());
-		keyBinder.getKeyBindings().put(KeyEvent.VK_DOWN, new CrouchIntent());
-		keyBinder.getKeyBindings().put(KeyEvent.VK_SHIFT, new PrepRunIntent());
-
-		keyBinder.getKeyBindings().put(KeyEvent.VK_RIGHT + KeyBinder.RELEASED, new StopAccIntent(Side.RIGHT));
-		keyBinder.getKeyBindings().put(KeyEvent.VK_LEFT + KeyBinder.RELEASED, new StopAccIntent(Side.LEFT));
-		keyBinder.getKeyBindings().put(KeyEvent.VK_UP + KeyBinder.RELEASED, new StopJumpIntent());
-		keyBinder.getKeyBindings().put(KeyEvent.VK_DOWN + KeyBinder.RELEASED, new StopCrouchIntent());
-		keyBinder.getKeyBindings().put(KeyEvent.VK_SHIFT + KeyBinder.RELEASED, new StopPrepRunIntent());
-	}
-
 	// drawing
 	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Asks Swing to repaint the board.
+	 */
+	@Override
+	public void render() {
+		repaint();
+	}
+
 	@Override
 	protected void paintComponent(Graphics g) {
-		// paint background
-		super.paintComponent(g);
+		renderer.paintFrame(g, getWidth(), getHeight());
 
-		// paint active level
-		if (Game.getActiveLevel() != null) {
-			painter.paintLevel(g, Game.getActiveLevel());
+		FrameProfiler profiler = renderer.getGame().getContext().getProfiler();
+		if (profiler != null) {
+			profiler.begin(Phase.SYNC);
 		}
 
 		// prevent excessive buffering of graphics events
 		Toolkit.getDefaultToolkit().sync();
+
+		if (profiler != null) {
+			profiler.end(Phase.SYNC);
+		}
 	}
 
 	// getters and setters
@@ -80,6 +76,7 @@ public class Board extends JPanel {
 		return 1;
 	}
 
+	@Override
 	public KeyBinder getKeyBinder() {
 		return keyBinder;
 	}
@@ -0,0 +1,151 @@
+package com.pisoft.mistborn_game.display;
+
+import com.pisoft.mistborn_game.player.Player;
+
+/**
+ * Viewport onto a level that follows the player, in level coordinates.
+ * <p>
+ * The camera keeps the player inside a dead zone around the middle of the
+ * viewport: while the player moves around inside it, the camera stays still,
+ * and once the player leaves it, the camera moves just far enough to bring
+ * them back to its edge. That move is not made all at once, but eased in by
+ * <code>SMOOTHING</code> of the remaining distance every tick, so the view
+ * never jumps. The viewport is kept inside the bounds of the level's geometry
+ * (and the origin), so a level that fits on the screen is drawn exactly where
+ * it would be without a camera.
+ * <p>
+ * The camera is moved by the game thread, once per tick, so it only depends on
+ * the state of the simulation and not on the frame rate. The size of the
+ * viewport is set by the render thread, whenever it draws a frame.
+ *
+ * @author gouldb
+ *
+ */
+public class Camera {
+	// fractions of the viewport's width and height covered by the dead zone
+	private static final double DEAD_ZONE_WIDTH = 0.3;
+	private static final double DEAD_ZONE_HEIGHT = 0.4;
+
+	// fraction of the distance to its target the camera moves each tick
+	private static final double SMOOTHING = 0.2;
+
+	// top left corner of the viewport
+	private double xPos;
+	private double yPos;
+
+	private volatile int viewportWidth;
+	private volatile int viewportHeight;
+
+	/**
+	 * Constructs a new <code>Camera</code> at the origin, with a viewport of the
+	 * given size.
+	 *
+	 * @param viewportWidth  Initial width of the viewport
+	 * @param viewportHeight Initial height of the viewport
+	 */
+	public Camera(int viewportWidth, int viewportHeight) {
+		setViewportSize(viewportWidth, viewportHeight);
+	}
+
+	// moving methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Moves the camera one tick closer to keeping a player inside its dead zone.
+	 *
+	 * @param player   The player to follow
+	 * @param geometry The geometry of the player's level, which the viewport is
+	 *                 kept inside
+	 */
+	public void follow(Player player, RenderGeometry geometry) {
+		int width = viewportWidth;
+		int height = viewportHeight;
+
+		double targetX = deadZoneTarget(xPos, player.getxPos(), player.getWidth(), width, DEAD_ZONE_WIDTH);
+		double targetY = deadZoneTarget(yPos, player.getyPos(), player.getHeight(), height, DEAD_ZONE_HEIGHT);
+
+		xPos = clamp(xPos + (targetX - xPos) * SMOOTHING, geometry.getMinX(), geometry.getMaxX(), width);
+		yPos = clamp(yPos + (targetY - yPos) * SMOOTHING, geometry.getMinY(), geometry.getMaxY(), height);
+	}
+
+	/**
+	 * Moves the camera straight to where it would settle following a player, with
+	 * no smoothing. Used when a level is first shown.
+	 *
+	 * @param player   The player to centre on
+	 * @param geometry The geometry of the player's level
+	 */
+	public void centreOn(Player player, RenderGeometry geometry) {
+		int width = viewportWidth;
+		int height = viewportHeight;
+
+		xPos = clamp(player.getxPos() + (player.getWidth() - width) / 2, geometry.getMinX(), geometry.getMaxX(), width);
+		yPos = clamp(player.getyPos() + (player.getHeight() - height) / 2, geometry.getMinY(), geometry.getMaxY(),
+				height);
+	}
+
+	/**
+	 * Finds where the camera needs to be along one axis for an object to be just
+	 * inside the dead zone, or where it already is if the object is inside.
+	 */
+	private static double deadZoneTarget(double camera, double pos, double size, int viewport, double deadZone) {
+		double zoneMin = camera + viewport * (1 - deadZone) / 2;
+		double zoneMax = zoneMin + viewport * deadZone;
+
+		if (pos < zoneMin) {
+			return camera - (zoneMin - pos);
+		} else if (pos + size > zoneMax) {
+			return camera + (pos + size - zoneMax);
+		}
+
+		return camera;
+	}
+
+	/**
+	 * Keeps the viewport inside the given bounds along one axis. If the viewport
+	 * is larger than the bounds, it is lined up with their start.
+	 */
+	private static double clamp(double camera, double min, double max, int viewport) {
+		return Math.max(min, Math.min(camera, max - viewport));
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the left edge of the viewport, rounded to a whole pixel so that
+	 * cached images are drawn without resampling.
+	 *
+	 * @return The left edge of the viewport
+	 */
+	public int getViewX() {
+		return (int) Math.round(xPos);
+	}
+
+	/**
+	 * Gets the top edge of the viewport, rounded to a whole pixel.
+	 *
+	 * @return The top edge of the viewport
+	 */
+	public int getViewY() {
+		return (int) Math.round(yPos);
+	}
+
+	public int getViewportWidth() {
+		return viewportWidth;
+	}
+
+	public int getViewportHeight() {
+		return viewportHeight;
+	}
+
+	/**
+	 * Sets the size of the viewport. Safe to call from any thread; the camera
+	 * adjusts to the new size on its next move.
+	 *
+	 * @param viewportWidth  The width of the viewport
+	 * @param viewportHeight The height of the viewport
+	 */
+	public void setViewportSize(int viewportWidth, int viewportHeight) {
+		this.viewportWidth = viewportWidth;
+		this.viewportHeight = viewportHeight;
+	}
+}
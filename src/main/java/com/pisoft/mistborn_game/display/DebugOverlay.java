@@ -0,0 +1,352 @@
+package com.pisoft.mistborn_game.display;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Debug text drawn over the level, listing the state of the player.
+ * <p>
+ * Each field of the overlay is declared once, in the constructor, as a label
+ * and a function reading its value from a {@link PlayerSnapshot}; where it is
+ * drawn follows from the order fields, columns and blank lines are declared
+ * in.
+ * <p>
+ * Formatting and drawing text is expensive, so each column of the overlay is
+ * rendered into its own cached image, which is copied to the screen on every
+ * frame. The text is only formatted again once <code>refreshDelay</code> ns
+ * have passed since it last was, and only if a new tick has been captured
+ * since then, and a column's image is only redrawn if any of its text
+ * actually changed. Images are sized to fit their column's text, and only the
+ * part of them holding text is copied.
+ * <p>
+ * Copying the images is only cheap when the graphics device can accelerate
+ * it. Without acceleration, blending a mostly transparent image costs more
+ * than drawing its glyphs again from the font's glyph cache, so on those
+ * devices the cached text is drawn directly instead, which still saves
+ * formatting it on every frame.
+ * <p>
+ * Only used from the render thread.
+ *
+ * @author gouldb
+ */
+public class DebugOverlay {
+	private static final int LINE_HEIGHT = 20;
+	private static final Color CLEAR = new Color(0, 0, 0, 0);
+
+	// where the first field is drawn; the top of the text is cut off, as it always has been
+	private static final int X = 10;
+	private static final int Y = 10;
+
+	private final ArrayList<Field> fields = new ArrayList<>();
+	private final ArrayList<Column> columns = new ArrayList<>();
+
+	// layout cursor, only used while declaring fields
+	private int xOffset = 0;
+	private int yOffset = 0;
+
+	private long refreshDelay = (long) Math.pow(10, 9) / 10;
+	private long lastRefreshTime;
+	private long lastTick = -1;
+
+	// current text of each field
+	private final String[] lines;
+
+	private GraphicsConfiguration config;
+	private Font font;
+	private FontMetrics metrics;
+
+	// whether the text is cached in images, or drawn directly
+	private boolean cached;
+
+	/**
+	 * Constructs a new <code>DebugOverlay</code>, declaring its fields.
+	 */
+	public DebugOverlay() {
+		columns.add(new Column(X));
+
+		field("Player State", PlayerSnapshot::getState);
+		field("xPos", PlayerSnapshot::getxPos);
+		field("yPos", PlayerSnapshot::getyPos);
+		field("xSpeed", PlayerSnapshot::getxSpeed);
+		field("ySpeed", PlayerSnapshot::getySpeed);
+		field("xAcc", PlayerSnapshot::getxAcc);
+		field("yAcc", PlayerSnapshot::getyAcc);
+		field("xPushAmount", PlayerSnapshot::getxPushAmount);
+		field("yPushAmount", PlayerSnapshot::getyPushAmount);
+
+		nextColumn(250);
+
+		field("Facing Side", PlayerSnapshot::getFacingSide);
+		field("Wants to Acc", PlayerSnapshot::wantsToAccelerate);
+		field("Accelerating", PlayerSnapshot::isAccelerating);
+		field("Walking", PlayerSnapshot::isWalking);
+		field("Running", PlayerSnapshot::isRunning);
+		field("Can Run", PlayerSnapshot::getCanRun);
+		field("Sliding", PlayerSnapshot::isSliding);
+		field("Crouching", PlayerSnapshot::isCrouching);
+
+		nextColumn(150);
+
+		field("Grounded", PlayerSnapshot::isGrounded);
+		field("Falling", PlayerSnapshot::isFalling);
+		field("Landing", PlayerSnapshot::isLanding);
+		blankLine(5);
+		field("Can Jump", PlayerSnapshot::canJump);
+		field("Jumping", PlayerSnapshot::isJumping);
+		blankLine(5);
+		field("Can Double Jump", PlayerSnapshot::canDoubleJump);
+		field("Double Jumping", PlayerSnapshot::isDoubleJumping);
+		blankLine(5);
+		field("Last Wall Jump Side", PlayerSnapshot::getLastWallJumpSide);
+		field("Wall Jumping", PlayerSnapshot::isWallJumping);
+		blankLine(5);
+		field("Jump Released", PlayerSnapshot::isJumpReleased);
+
+		nextColumn(150);
+
+		field("At Wall", PlayerSnapshot::isAtWall);
+		field("Wall Side", PlayerSnapshot::getWallSide);
+		field("Wall pushing", PlayerSnapshot::isWallPushing);
+
+		nextColumn(150);
+
+		field("Steel Pushing", PlayerSnapshot::isSteelPushing);
+		field("Target Metal", p -> p.hasTargetMetal() ? p.getTargetMetalxPos() + ", " + p.getTargetMetalyPos() : null);
+
+		lines = new String[fields.size()];
+	}
+
+	// declaring fields
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Declares a field at the current position, and moves the position down a
+	 * line so that fields are not drawn on top of each other.
+	 *
+	 * @param label The label to print before the field's value
+	 * @param value Reads the value of the field from a snapshot
+	 */
+	private void field(String label, Function<PlayerSnapshot, Object> value) {
+		Column column = columns.get(columns.size() - 1);
+
+		fields.add(new Field(label + ": ", value, column, Y + yOffset));
+		column.lastField = fields.size();
+
+		yOffset += LINE_HEIGHT;
+	}
+
+	/**
+	 * Moves the position to the top of a new column, allowing for easy grouping
+	 * of fields by column.
+	 *
+	 * @param offset The x coordinate distance between the old and new columns
+	 */
+	private void nextColumn(int offset) {
+		xOffset += offset;
+		yOffset = 0;
+
+		columns.add(new Column(X + xOffset));
+		columns.get(columns.size() - 1).firstField = fields.size();
+	}
+
+	/**
+	 * Leaves a blank line, allowing for easy subdivision of fields in the same
+	 * column.
+	 *
+	 * @param offset The y coordinate size of the blank line
+	 */
+	private void blankLine(int offset) {
+		yOffset += offset;
+	}
+
+	// painting
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Paints the overlay for a snapshot, refreshing the text first if it is due.
+	 *
+	 * @param g        The graphics to paint with, in screen coordinates
+	 * @param snapshot The snapshot to show the player of
+	 */
+	public void paint(Graphics2D g, RenderSnapshot snapshot) {
+		GraphicsConfiguration gc = g.getDeviceConfiguration();
+		long now = System.nanoTime();
+
+		if (gc != config || !g.getFont().equals(font)) {
+			config = gc;
+			font = g.getFont();
+			metrics = g.getFontMetrics(font);
+			cached = gc.getImageCapabilities().isAccelerated();
+
+			for (Column column : columns) {
+				column.invalidate();
+			}
+
+			refresh(snapshot, now);
+		} else if (snapshot.getTick() != lastTick && now - lastRefreshTime >= refreshDelay) {
+			refresh(snapshot, now);
+		}
+
+		if (cached) {
+			for (Column column : columns) {
+				column.paint(g);
+			}
+		} else {
+			g.setColor(Color.black);
+
+			for (int i = 0; i < lines.length; i++) {
+				Field field = fields.get(i);
+
+				g.drawString(lines[i], field.column.x, field.y);
+			}
+		}
+	}
+
+	/**
+	 * Formats the text of every field, marking the columns whose text changed.
+	 */
+	private void refresh(RenderSnapshot snapshot, long now) {
+		lastRefreshTime = now;
+		lastTick = snapshot.getTick();
+
+		for (int i = 0; i < lines.length; i++) {
+			Field field = fields.get(i);
+			String line = field.label + field.value.apply(snapshot.getPlayer());
+
+			if (!line.equals(lines[i])) {
+				lines[i] = line;
+				field.column.dirty = true;
+			}
+		}
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	public long getRefreshDelay() {
+		return refreshDelay;
+	}
+
+	/**
+	 * Sets the minimum delay between successive refreshes of the text. A delay of
+	 * 0 refreshes it on every frame with a new tick.
+	 *
+	 * @param refreshDelay The new delay, in ns
+	 */
+	public void setRefreshDelay(long refreshDelay) {
+		this.refreshDelay = refreshDelay;
+	}
+
+	/**
+	 * Gets the text currently shown by the overlay, one line per field.
+	 *
+	 * @return A copy of the lines
+	 */
+	public String[] getLines() {
+		return Arrays.copyOf(lines, lines.length);
+	}
+
+	/**
+	 * A labelled value, and where it is drawn.
+	 */
+	private static class Field {
+		private final String label;
+		private final Function<PlayerSnapshot, Object> value;
+		private final Column column;
+		private final int y;
+
+		private Field(String label, Function<PlayerSnapshot, Object> value, Column column, int y) {
+			this.label = label;
+			this.value = value;
+			this.column = column;
+			this.y = y;
+		}
+	}
+
+	/**
+	 * A column of fields, and the image its text is cached in.
+	 *
+	 * @author gouldb
+	 */
+	private class Column {
+		private final int x;
+		private int firstField, lastField;
+
+		private BufferedImage image;
+		private boolean dirty = true;
+
+		// area of the image holding text, and where it goes on the screen
+		private int top, width, height;
+
+		private Column(int x) {
+			this.x = x;
+		}
+
+		private void invalidate() {
+			if (image != null) {
+				image.flush();
+				image = null;
+			}
+
+			dirty = true;
+		}
+
+		private void paint(Graphics2D g) {
+			if (dirty) {
+				redraw();
+				dirty = false;
+			}
+
+			if (image != null) {
+				g.drawImage(image, x, top, x + width, top + height, 0, 0, width, height, null);
+			}
+		}
+
+		/**
+		 * Draws the column's text into its image, replacing the image if the text no
+		 * longer fits.
+		 */
+		private void redraw() {
+			if (firstField == lastField) {
+				return;
+			}
+
+			top = fields.get(firstField).y - metrics.getAscent();
+			height = fields.get(lastField - 1).y + metrics.getDescent() - top;
+			width = 1;
+			for (int i = firstField; i < lastField; i++) {
+				width = Math.max(width, metrics.stringWidth(lines[i]));
+			}
+
+			Graphics2D ig;
+			if (image == null || image.getWidth() < width || image.getHeight() < height) {
+				if (image != null) {
+					image.flush();
+				}
+
+				// leave room for the values to grow without replacing the image
+				image = config.createCompatibleImage(width + width / 4, height, Transparency.TRANSLUCENT);
+				ig = image.createGraphics();
+			} else {
+				ig = image.createGraphics();
+				ig.setBackground(CLEAR);
+				ig.clearRect(0, 0, image.getWidth(), image.getHeight());
+			}
+
+			ig.setRenderingHints(Painter.RENDERING_HINTS);
+			ig.setFont(font);
+			ig.setColor(Color.black);
+
+			for (int i = firstField; i < lastField; i++) {
+				ig.drawString(lines[i], 0, fields.get(i).y - top);
+			}
+
+			ig.dispose();
+		}
+	}
+}
@@ -3,30 +3,79 @@ package com.pisoft.mistborn_game.display;
 //imports needed for swing
 import javax.swing.JFrame;
 
+import java.awt.Component;
+
 //imports to keep track of screen size
 import java.awt.Dimension;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameState;
 
 public class Display extends JFrame {
 
     private static final long serialVersionUID = 3129809478408754800L;
     
-    private Board board = new Board();
-    
-    private Dimension appSize = new Dimension();
-    private Dimension screenSize = new Dimension();
+    private Board board;
+    private GameSurface surface;
+
+    /**
+     * Creates a window with an active rendering surface ({@link GameCanvas}).
+     * 
+     * @param game The game to display
+     */
+    public Display(Game game) {
+        this(game, true);
+    }
 
-    public double scale;
+    /**
+     * Creates a window for a game.
+     * 
+     * @param game            The game to display
+     * @param activeRendering Whether to draw frames directly from the render
+     *                        thread on a {@link GameCanvas}, rather than have
+     *                        Swing repaint a {@link Board}
+     */
+    public Display(Game game, boolean activeRendering) {
+        if (activeRendering) {
+            surface = new GameCanvas(game);
+        } else {
+            board = new Board(game);
+            surface = board;
+        }
 
-    public Display() {
         initUI();
+
+        // stop simulating while minimized, so the game doesn't use any CPU in the background
+        this.addWindowListener(new WindowAdapter() {
+            // whether the game was paused by minimizing it, rather than by the player
+            private boolean pausedByIconify = false;
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                if (game.getState() == GameState.PLAYING) {
+                    game.setState(GameState.PAUSED);
+                    pausedByIconify = true;
+                }
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                // only resume if nothing else has changed the state since it was minimized
+                if (pausedByIconify && game.getState() == GameState.PAUSED) {
+                    game.setState(GameState.PLAYING);
+                }
+
+                pausedByIconify = false;
+            }
+        });
     }
 
     //initialization
     //---------------------------------------------------------------------------------------------------
     private void initUI() {
-        add(board);
+        add((Component) surface);
 
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setMinimumSize(new Dimension(800, 450));
@@ -36,37 +85,25 @@ public class Display extends JFrame {
         setLocationRelativeTo(null);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
-        this.appSize = getContentPane().getSize();
-        this.screenSize.setSize(this.appSize);
-
-        this.addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentResized(ComponentEvent e) {
-                Display c = (Display) e.getSource();
-
-                c.updateScale();
-            }
-        });
+        ((Component) surface).requestFocus();
     }
-    
 
-    // things to detect when app size changes
+    //getters and setters
     // -----------------------------------------------------------------------------------------------
-    private void updateScale() {
-        appSize = getContentPane().getSize();
-
-        // TODO: this feels sloppy
-        if (this.appSize.getHeight() > this.screenSize.getHeight()
-                && this.appSize.getWidth() > this.screenSize.getWidth()) {
-            this.screenSize = this.appSize;
-        }
-
-        // 1366, 713
-        this.scale = this.appSize.getHeight() / screenSize.getHeight();
+    /**
+     * Gets the surface the game is drawn on.
+     * 
+     * @return The surface
+     */
+    public GameSurface getSurface() {
+        return surface;
     }
 
-    //getters and setters
-    // -----------------------------------------------------------------------------------------------
+    /**
+     * Gets the passive rendering surface.
+     * 
+     * @return The board, or <code>null</code> if the display renders actively
+     */
     public Board getBoard() {
 		return board;
 	}
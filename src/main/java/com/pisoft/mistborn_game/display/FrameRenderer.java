@@ -0,0 +1,230 @@
+package com.pisoft.mistborn_game.display;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.geom.AffineTransform;
+
+import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameState;
+import com.pisoft.mistborn_game.controllers.KeyBinder;
+import com.pisoft.mistborn_game.player.Side;
+import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
+import com.pisoft.mistborn_game.player.intents.CrouchIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+import com.pisoft.mistborn_game.player.intents.PrepRunIntent;
+import com.pisoft.mistborn_game.player.intents.StopAccIntent;
+import com.pisoft.mistborn_game.player.intents.StopCrouchIntent;
+import com.pisoft.mistborn_game.player.intents.StopJumpIntent;
+import com.pisoft.mistborn_game.player.intents.StopPrepRunIntent;
+import com.pisoft.mistborn_game.profiling.FrameProfiler;
+import com.pisoft.mistborn_game.profiling.FrameProfiler.Phase;
+
+/**
+ * Everything a {@link GameSurface} does, apart from getting its pixels onto
+ * the screen: drawing a whole frame from the newest published snapshot, and
+ * binding the game's controls to a component.
+ * <p>
+ * The level is always shown at the same logical resolution,
+ * <code>LOGICAL_WIDTH</code> by <code>LOGICAL_HEIGHT</code>, whatever the
+ * size of the window, so every window shows the same amount of the level. It
+ * is drawn into an {@link OffscreenBuffer} at the game's render scale (see
+ * {@link Game#setRenderScale(double)}), which is then scaled to fit the window
+ * in one copy, keeping its aspect ratio and filling the rest of the window
+ * with black bars. How much drawing the level costs therefore only depends on
+ * the render scale, and not on the size of the window. The debug text, pause
+ * label and profiler graph are drawn straight onto the window afterwards,
+ * inside the level's area, so they stay sharp.
+ *
+ * @author gouldb
+ *
+ */
+public class FrameRenderer {
+	public static final int LOGICAL_WIDTH = 1280;
+	public static final int LOGICAL_HEIGHT = 720;
+
+	public static final double MIN_RENDER_SCALE = 0.25;
+	public static final double MAX_RENDER_SCALE = 2;
+
+	private final Game game;
+
+	private final Painter painter = new Painter();
+	private final OffscreenBuffer buffer = new OffscreenBuffer();
+	private final DebugOverlay debugOverlay = new DebugOverlay();
+	private final ProfilerOverlay profilerOverlay = new ProfilerOverlay();
+
+	private KeyBinder keyBinder;
+
+	// reused to check whether the key binder's view transform needs replacing
+	private final AffineTransform viewTransform = new AffineTransform();
+
+	public FrameRenderer(Game game) {
+		this.game = game;
+	}
+
+	/**
+	 * Gets the scale the logical resolution needs to be drawn at to fit in an
+	 * area as large as possible, without changing its aspect ratio.
+	 *
+	 * @param width  The width of the area
+	 * @param height The height of the area
+	 * @return The scale
+	 */
+	public static double fitScale(int width, int height) {
+		return Math.min((double) width / LOGICAL_WIDTH, (double) height / LOGICAL_HEIGHT);
+	}
+
+	/**
+	 * Draws a frame: the newest published state of the active level, scaled to
+	 * fit the frame, then the debug text, the pause label and the profiler graph,
+	 * if there is one.
+	 * <p>
+	 * The key binder's view transform is kept up to date with where the level
+	 * was drawn.
+	 *
+	 * @param g      The graphics to draw with. Not disposed.
+	 * @param width  Width of the area to draw
+	 * @param height Height of the area to draw
+	 */
+	public void paintFrame(Graphics g, int width, int height) {
+		Graphics2D g2d = (Graphics2D) g;
+		FrameProfiler profiler = game.getContext().getProfiler();
+
+		// area of the frame the level is scaled into, centred between the bars
+		double fitScale = fitScale(width, height);
+		int viewWidth = (int) Math.round(LOGICAL_WIDTH * fitScale);
+		int viewHeight = (int) Math.round(LOGICAL_HEIGHT * fitScale);
+		int viewLeft = (width - viewWidth) / 2;
+		int viewTop = (height - viewHeight) / 2;
+
+		g.setColor(Color.black);
+		g.fillRect(0, 0, width, viewTop);
+		g.fillRect(0, viewTop + viewHeight, width, height - viewTop - viewHeight);
+		g.fillRect(0, viewTop, viewLeft, viewHeight);
+		g.fillRect(viewLeft + viewWidth, viewTop, width - viewLeft - viewWidth, viewHeight);
+
+		RenderSnapshot snapshot = game.getSnapshots().acquire();
+
+		if (profiler != null) {
+			profiler.begin(Phase.PAINT);
+		}
+
+		double renderScale = game.getRenderScale();
+		int bufferWidth = (int) Math.round(LOGICAL_WIDTH * renderScale);
+		int bufferHeight = (int) Math.round(LOGICAL_HEIGHT * renderScale);
+
+		g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, game.isSmoothScaling()
+				? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+
+		do {
+			Graphics2D bg = buffer.createGraphics(g2d.getDeviceConfiguration(), bufferWidth, bufferHeight);
+
+			bg.setColor(Color.white);
+			bg.fillRect(0, 0, bufferWidth, bufferHeight);
+
+			if (!snapshot.isEmpty()) {
+				// disposes of the graphics when done
+				painter.paintLevel(bg, snapshot, renderScale);
+			} else {
+				bg.dispose();
+			}
+
+			g2d.drawImage(buffer.getImage(), viewLeft, viewTop, viewLeft + viewWidth, viewTop + viewHeight, 0, 0,
+					bufferWidth, bufferHeight, null);
+		} while (buffer.contentsLost());
+
+		if (profiler != null) {
+			profiler.end(Phase.PAINT);
+		}
+
+		if (!snapshot.isEmpty()) {
+			updateViewTransform(snapshot, renderScale, viewLeft, viewTop, (double) viewWidth / bufferWidth,
+					(double) viewHeight / bufferHeight);
+
+			g2d.translate(viewLeft, viewTop);
+			debugOverlay.setRefreshDelay(game.getDebugRefreshDelay());
+			debugOverlay.paint(g2d, snapshot);
+			g2d.translate(-viewLeft, -viewTop);
+		}
+
+		int viewBottom = viewTop + viewHeight;
+
+		GameState state = game.getState();
+		if (state == GameState.PAUSED || state == GameState.MENU) {
+			g.setColor(Color.black);
+			g.drawString(state == GameState.PAUSED ? "Paused - press P to resume" : "Menu", viewLeft + 10,
+					viewBottom - 10);
+		}
+
+		if (profiler != null) {
+			profilerOverlay.paint(g, profiler, viewLeft + 10, viewBottom - ProfilerOverlay.HEIGHT - 10);
+		}
+	}
+
+	/**
+	 * Gives the key binder the transform the level was just drawn with, if it
+	 * differs from the last one: from the level to the buffer (as in
+	 * {@link Painter#paintLevel(Graphics, RenderSnapshot, double)}), and from the
+	 * buffer to the frame.
+	 */
+	private void updateViewTransform(RenderSnapshot snapshot, double renderScale, int viewLeft, int viewTop,
+			double xScale, double yScale) {
+		if (keyBinder == null) {
+			return;
+		}
+
+		viewTransform.setToTranslation(viewLeft, viewTop);
+		viewTransform.scale(xScale, yScale);
+		viewTransform.translate(-Math.round(snapshot.getViewX() * renderScale),
+				-Math.round(snapshot.getViewY() * renderScale));
+		viewTransform.scale(renderScale, renderScale);
+
+		if (!viewTransform.equals(keyBinder.getViewTransform())) {
+			keyBinder.setViewTransform(new AffineTransform(viewTransform));
+		}
+	}
+
+	/**
+	 * Creates a key binder for a component, bound to the default controls, and
+	 * adds the pause key to the component. The key binder's view transform is
+	 * kept up to date by <code>paintFrame()</code>.
+	 *
+	 * @param component The component to take input from
+	 * @return The key binder
+	 */
+	public KeyBinder bindControls(Component component) {
+		keyBinder = new KeyBinder(component, game.getContext());
+
+		keyBinder.getKeyBindings().put(KeyEvent.VK_RIGHT, new AccelerateIntent(Side.RIGHT));
+		keyBinder.getKeyBindings().put(KeyEvent.VK_LEFT, new AccelerateIntent(Side.LEFT));
+		keyBinder.getKeyBindings().put(KeyEvent.VK_UP, new JumpIntent());
+		keyBinder.getKeyBindings().put(KeyEvent.VK_DOWN, new CrouchIntent());
+		keyBinder.getKeyBindings().put(KeyEvent.VK_SHIFT, new PrepRunIntent());
+
+		keyBinder.getKeyBindings().put(KeyEvent.VK_RIGHT + KeyBinder.RELEASED, new StopAccIntent(Side.RIGHT));
+		keyBinder.getKeyBindings().put(KeyEvent.VK_LEFT + KeyBinder.RELEASED, new StopAccIntent(Side.LEFT));
+		keyBinder.getKeyBindings().put(KeyEvent.VK_UP + KeyBinder.RELEASED, new StopJumpIntent());
+		keyBinder.getKeyBindings().put(KeyEvent.VK_DOWN + KeyBinder.RELEASED, new StopCrouchIntent());
+		keyBinder.getKeyBindings().put(KeyEvent.VK_SHIFT + KeyBinder.RELEASED, new StopPrepRunIntent());
+
+		// not a player intent, so handled here rather than by the key binder
+		component.addKeyListener(new KeyAdapter() {
+			@Override
+			public void keyPressed(KeyEvent e) {
+				if (e.getKeyCode() == KeyEvent.VK_P || e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+					game.togglePause();
+				}
+			}
+		});
+
+		return keyBinder;
+	}
+
+	public Game getGame() {
+		return game;
+	}
+}
@@ -0,0 +1,122 @@
+package com.pisoft.mistborn_game.display;
+
+import java.awt.Canvas;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.controllers.KeyBinder;
+import com.pisoft.mistborn_game.profiling.FrameProfiler;
+import com.pisoft.mistborn_game.profiling.FrameProfiler.Phase;
+
+/**
+ * Active rendering surface: a <code>Canvas</code> with a
+ * <code>BufferStrategy</code> of <code>PAGES</code> pages, that the render
+ * thread draws every frame into directly and then shows.
+ * <p>
+ * Unlike {@link Board}, nothing is left to the <code>RepaintManager</code>: a
+ * frame is on its way to the screen by the time <code>render()</code>
+ * returns, so frame latency can be measured and bounded. Repaint requests from
+ * the system are ignored, since the next frame follows shortly anyway.
+ * <p>
+ * Buffer contents can be lost at any time (e.g. when the display mode
+ * changes), so each frame is drawn again until the strategy reports that it
+ * was neither restored while drawing nor lost before being shown.
+ * 
+ * @author gouldb
+ */
+public class GameCanvas extends Canvas implements GameSurface {
+
+	private static final long serialVersionUID = 2468158211938404361L;
+
+	private static final int PAGES = 3;
+
+	private final FrameRenderer renderer;
+	private final KeyBinder keyBinder;
+
+	private volatile BufferStrategy strategy;
+
+	public GameCanvas(Game game) {
+		this.renderer = new FrameRenderer(game);
+		this.keyBinder = renderer.bindControls(this);
+
+		setIgnoreRepaint(true);
+		setPreferredSize(new Dimension(FrameRenderer.LOGICAL_WIDTH, FrameRenderer.LOGICAL_HEIGHT));
+		setFocusable(true);
+	}
+
+	// drawing
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Draws the newest published frame into the back buffer and shows it. Does
+	 * nothing until the canvas is displayable, since a buffer strategy can't be
+	 * created before then.
+	 */
+	@Override
+	public void render() {
+		if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) {
+			return;
+		}
+
+		BufferStrategy strategy = this.strategy;
+		if (strategy == null) {
+			createBufferStrategy(PAGES);
+			strategy = getBufferStrategy();
+			this.strategy = strategy;
+		}
+
+		FrameProfiler profiler = renderer.getGame().getContext().getProfiler();
+
+		try {
+			drawAndShow(strategy, profiler);
+		} catch (IllegalStateException e) {
+			// the canvas stopped being displayable while drawing, so its buffers are gone
+			this.strategy = null;
+		}
+	}
+
+	private void drawAndShow(BufferStrategy strategy, FrameProfiler profiler) {
+		do {
+			do {
+				Graphics g = strategy.getDrawGraphics();
+
+				try {
+					renderer.paintFrame(g, getWidth(), getHeight());
+				} finally {
+					g.dispose();
+				}
+			} while (strategy.contentsRestored());
+
+			if (profiler != null) {
+				profiler.begin(Phase.SYNC);
+			}
+
+			strategy.show();
+			Toolkit.getDefaultToolkit().sync();
+
+			if (profiler != null) {
+				profiler.end(Phase.SYNC);
+			}
+		} while (strategy.contentsLost());
+	}
+
+	/**
+	 * Drops the buffer strategy along with the native peer, so a new one is
+	 * created if the canvas is made displayable again.
+	 */
+	@Override
+	public void removeNotify() {
+		strategy = null;
+
+		super.removeNotify();
+	}
+
+	// getters
+	// ---------------------------------------------------------------------------------------------------
+	@Override
+	public KeyBinder getKeyBinder() {
+		return keyBinder;
+	}
+}
@@ -0,0 +1,28 @@
+package com.pisoft.mistborn_game.display;
+
+import com.pisoft.mistborn_game.controllers.KeyBinder;
+
+/**
+ * Component that the game is drawn on, and takes its input from.
+ * <p>
+ * There are two: {@link GameCanvas}, which draws frames itself from the
+ * render thread (active rendering), and {@link Board}, which asks Swing to
+ * repaint it (passive rendering), kept as a fallback.
+ *
+ * @author gouldb
+ *
+ */
+public interface GameSurface {
+	/**
+	 * Draws the newest published frame, or asks for it to be drawn. Called from
+	 * the game loop.
+	 */
+	void render();
+
+	/**
+	 * Gets the key binder that sends this surface's input to the game.
+	 *
+	 * @return The key binder
+	 */
+	KeyBinder getKeyBinder();
+}
@@ -0,0 +1,72 @@
+package com.pisoft.mistborn_game.display;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.VolatileImage;
+
+/**
+ * Offscreen image that frames are drawn into at a fixed resolution, before
+ * being scaled onto the screen.
+ * <p>
+ * The image is a <code>VolatileImage</code>, so drawing into it and copying it
+ * to the screen can be accelerated. Its contents can be lost at any time (e.g.
+ * when the display mode changes), so drawing should be done in a loop, as
+ * with a <code>BufferStrategy</code>:
+ *
+ * <pre>
+ * do {
+ * 	Graphics2D g = buffer.createGraphics(gc, width, height);
+ * 	// draw into g, dispose of it, and copy the image to the screen
+ * } while (buffer.contentsLost());
+ * </pre>
+ *
+ * Only used from the thread that draws frames.
+ *
+ * @author gouldb
+ */
+public class OffscreenBuffer {
+	private VolatileImage image;
+
+	/**
+	 * Creates graphics to draw a frame into the buffer with, replacing the buffer
+	 * first if it is the wrong size, was created for a different graphics device,
+	 * or has never been created.
+	 *
+	 * @param gc     The graphics device the buffer will be copied to
+	 * @param width  The width of the buffer, in pixels
+	 * @param height The height of the buffer, in pixels
+	 * @return The graphics, which the caller must dispose of
+	 */
+	public Graphics2D createGraphics(GraphicsConfiguration gc, int width, int height) {
+		if (image == null || image.getWidth() != width || image.getHeight() != height
+				|| image.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+			if (image != null) {
+				image.flush();
+			}
+
+			image = gc.createCompatibleVolatileImage(width, height);
+		}
+
+		return image.createGraphics();
+	}
+
+	/**
+	 * Checks whether the contents of the buffer were lost since
+	 * <code>createGraphics()</code> was last called, in which case the frame needs
+	 * to be drawn again.
+	 *
+	 * @return <code>true</code> if the contents were lost
+	 */
+	public boolean contentsLost() {
+		return image.contentsLost();
+	}
+
+	/**
+	 * Gets the image holding the buffer's contents.
+	 *
+	 * @return The image, or <code>null</code> if nothing has been drawn yet
+	 */
+	public VolatileImage getImage() {
+		return image;
+	}
+}
@@ -7,41 +7,82 @@ import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Draws levels. Everything is drawn from a {@link RenderSnapshot} rather than
+ * the live level, so painting never reads state the game thread is changing.
+ * <p>
+ * The level is drawn through the viewport of the {@link Camera} the snapshot
+ * was captured with, and only what is inside it is drawn: the snapshot only
+ * holds the visible metals, and platforms are looked up by position.
+ * Platforms are static, so they are drawn once into a {@link StaticLayerCache}
+ * and copied from there on every frame. Only dynamic objects (the player and
+ * metals) are drawn from scratch.
+ * 
+ * @author gouldb
+ */
+public class Painter {
+    static final Map<RenderingHints.Key, Object> RENDERING_HINTS = createRenderingHints();
+    static final BasicStroke OUTLINE_STROKE = new BasicStroke(2);
 
-import com.pisoft.mistborn_game.levels.*;
-import com.pisoft.mistborn_game.player.Player;
+    private final StaticLayerCache staticLayer = new StaticLayerCache();
 
-public class Painter {
+    // reused for every metal
+    private final Rectangle2D.Double metalRect = new Rectangle2D.Double(0, 0, 5, 5);
+
+    private static Map<RenderingHints.Key, Object> createRenderingHints() {
+        HashMap<RenderingHints.Key, Object> hints = new HashMap<>();
+        hints.put(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        hints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+
+        return Collections.unmodifiableMap(hints);
+    }
+
+    /**
+     * Paints the part of a level inside the snapshot's viewport. The viewport's
+     * top left corner is drawn at the origin of the graphics, and one unit of
+     * the level covers <code>scale</code> pixels.
+     * <p>
+     * The viewport's position is rounded to whole pixels at that scale, so that
+     * cached images line up with the pixels they are drawn onto.
+     * 
+     * @param g        The graphics to paint with. Disposed when done.
+     * @param snapshot The snapshot to paint
+     * @param scale    The number of pixels per unit of the level
+     */
+    public void paintLevel(Graphics g, RenderSnapshot snapshot, double scale) {
+        Graphics2D g2d = (Graphics2D) g;
+
+        g2d.setRenderingHints(RENDERING_HINTS);
+        g2d.setStroke(OUTLINE_STROKE);
+
+        g2d.clipRect(0, 0, (int) Math.round(snapshot.getViewWidth() * scale),
+                (int) Math.round(snapshot.getViewHeight() * scale));
+        g2d.translate(-Math.round(snapshot.getViewX() * scale), -Math.round(snapshot.getViewY() * scale));
+        g2d.scale(scale, scale);
 
-    public void paintLevel(Graphics g, Level level) {
         //paint player
-        paintPlayer(g, level.getPlayer());
+        paintPlayer(g2d, snapshot.getPlayer());
         
         //paint platforms
-        for (int i = 0; i < level.getPlatforms().size(); i++) {
-            paintPlatform(g, level.getPlatforms().get(i));
-        }
+        staticLayer.paint(g2d, snapshot);
 
         //paint metals
-        for (int i = 0; i < level.getMetals().size(); i++) {
-            paintMetal(g, level.getMetals().get(i));
+        g2d.setColor(Color.gray);
+        for (int i = 0; i < snapshot.getMetalCount(); i++) {
+            paintMetal(g2d, snapshot.getMetalxPos(i), snapshot.getMetalyPos(i));
         }
         
-        printDebug(g, level.getPlayer());
-        
         g.dispose();
     }
 
-    private void paintPlayer(Graphics g, Player player) {
+    private void paintPlayer(Graphics g, PlayerSnapshot player) {
 
         Graphics2D g2d = (Graphics2D) g;
 
-        RenderingHints rh = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        rh.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-
-        g2d.setRenderingHints(rh);
-
-        g2d.setStroke(new BasicStroke(2));
         g2d.setColor(Color.red);
 
         AffineTransform at = AffineTransform.getTranslateInstance(player.getxPos(), player.getyPos());
@@ -123,167 +164,10 @@ public class Painter {
         }
     }
 
-    private void paintPlatform(Graphics g, Platform platform) {
-        Graphics2D g2d = (Graphics2D) g;
-
-        RenderingHints rh = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        rh.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+    private void paintMetal(Graphics2D g2d, double xPos, double yPos) {
+        metalRect.x = xPos;
+        metalRect.y = yPos;
 
-        g2d.setRenderingHints(rh);
-
-        g2d.setStroke(new BasicStroke(2));
-        g2d.setColor(Color.black);
-
-        AffineTransform at = AffineTransform.getTranslateInstance(platform.getxPos(), platform.getyPos());
-
-        Rectangle2D rect = new Rectangle2D.Double(0, 0, platform.getWidth(), platform.getHeight());
-
-        g2d.draw(at.createTransformedShape(rect));
-    }
-
-    private void paintMetal(Graphics g, Metal metal) {
-        Graphics2D g2d = (Graphics2D) g;
-
-        RenderingHints rh = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        rh.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-
-        g2d.setRenderingHints(rh);
-
-        g2d.setStroke(new BasicStroke(2));
-        g2d.setColor(Color.gray);
-
-        AffineTransform at = AffineTransform.getTranslateInstance(metal.getxPos(), metal.getyPos());
-
-        Rectangle2D rect = new Rectangle2D.Double(0, 0, 5, 5);
-
-        g2d.draw(at.createTransformedShape(rect));
+        g2d.draw(metalRect);
     }
-    
-    // debug stuff
-    // ---------------------------------------------------------------------------------------------------
-    private void printDebug(Graphics g, Player player) {
-    	g.setColor(Color.black);
-
-		DebugPrinter dp = new DebugPrinter(g, 10, 10);
-
-		dp.printMessage("Player State: " + player.getState());
-		dp.printMessage("xPos: " + player.getxPos());
-		dp.printMessage("yPos: " + player.getyPos());
-		dp.printMessage("xSpeed: " + player.getxSpeed());
-		dp.printMessage("ySpeed: " + player.getySpeed());
-		dp.printMessage("xAcc: " + player.getxAcc());
-		dp.printMessage("yAcc: " + player.getyAcc());
-		dp.printMessage("xPushAmount: " + player.getxPushAmount());
-		dp.printMessage("yPushAmount: " + player.getyPushAmount());
-
-		dp.nextColumn(250);
-
-		dp.printMessage("Facing Side: " + player.getFacingSide());
-		dp.printMessage("Wants to Acc: " + player.wantsToAccelerate());
-		dp.printMessage("Accelerating: " + player.isAccelerating());
-		dp.printMessage("Walking: " + player.isWalking());
-		dp.printMessage("Running: " + player.isRunning());
-		dp.printMessage("Can Run: " + player.getCanRun());
-		dp.printMessage("Sliding: " + player.isSliding());
-		dp.printMessage("Crouching: " + player.isCrouching());
-
-		dp.nextColumn(150);
-
-		dp.printMessage("Grounded: " + player.isGrounded());
-		dp.printMessage("Falling: " + player.isFalling());
-		dp.printMessage("Landing: " + player.isLanding());
-		dp.blankLine(5);
-		dp.printMessage("Can Jump: " + player.canJump());
-		dp.printMessage("Jumping: " + player.isJumping());
-		dp.blankLine(5);
-		dp.printMessage("Can Double Jump: " + player.canDoubleJump());
-		dp.printMessage("Double Jumping: " + player.isDoubleJumping());
-		dp.blankLine(5);
-		dp.printMessage("Last Wall Jump Side: " + player.getLastWallJumpSide());
-		dp.printMessage("Wall Jumping: " + player.isWallJumping());
-		dp.blankLine(5);
-		dp.printMessage("Jump Released: " + player.isJumpReleased());
-
-		dp.nextColumn(150);
-
-		dp.printMessage("At Wall: " + player.isAtWall());
-		dp.printMessage("Wall Side: " + player.getWallSide());
-		dp.printMessage("Wall pushing: " + player.isWallPushing());
-
-		dp.nextColumn(150);
-
-		dp.printMessage("Steel Pushing: " + player.isSteelPushing());
-		try {
-			dp.printMessage(
-					"Target Metal: " + player.getTargetMetal().getxPos() + ", " + player.getTargetMetal().getyPos());
-		} catch (NullPointerException e) {
-			dp.printMessage("Target Metal: null");
-		}
-    }
-    
-    /**
-	 * A class to simplify the real time printing of debug messages to the screen.
-	 * <p>
-	 * Contains methods to easily format message placement on the screen.
-	 * 
-	 * @author gouldb
-	 */
-	private class DebugPrinter {
-
-		private Graphics g;
-
-		private int x, y, xOffset, yOffset;
-
-		/**
-		 * Simple constructor for the <code>DebugPrinter</code> class
-		 * 
-		 * 
-		 * @param g The <code>Graphics</code> object to be used to draw the messages
-		 * @param x Starting x coordinate for message location
-		 * @param y Starting y coordinate for message location
-		 */
-		private DebugPrinter(Graphics g, int x, int y) {
-			this.g = g;
-			this.x = x;
-			this.y = y;
-
-			xOffset = 0;
-			yOffset = 0;
-		}
-
-		/**
-		 * Prints a message to the screen at the current message location, and
-		 * increments the y coordinate of the message location to prevent messages from
-		 * being printed on top of each other.
-		 * 
-		 * @param message The message to print onto the screen
-		 */
-		private void printMessage(String message) {
-			g.drawString(message, x + xOffset, y + yOffset);
-
-			yOffset += 20;
-		}
-
-		/**
-		 * Moves message location to the top of a new column, allowing for easy grouping
-		 * of debug messages by column.
-		 * 
-		 * @param offset The x coordinate distance between the old and new columns
-		 */
-		private void nextColumn(int offset) {
-			xOffset += offset;
-			yOffset = 0;
-		}
-
-		/**
-		 * Prints a blank line, allowing for easy subdivision of messages in the same
-		 * column.
-		 * 
-		 * @param offset The y coordinate size of the blank line
-		 */
-		private void blankLine(int offset) {
-			yOffset += offset;
-		}
-	}
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,246 @@
+package com.pisoft.mistborn_game.display;
+
+import com.pisoft.mistborn_game.levels.Metal;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.Side;
+import com.pisoft.mistborn_game.player.state.State;
+
+/**
+ * Copy of the state of a <code>Player</code> that is needed to draw it, taken
+ * at the end of a tick. Part of a {@link RenderSnapshot}.
+ * 
+ * @author gouldb
+ *
+ */
+public class PlayerSnapshot {
+	private State state;
+	private double xPos;
+	private double yPos;
+	private double xSpeed;
+	private double ySpeed;
+	private double xAcc;
+	private double yAcc;
+	private double xPushAmount;
+	private double yPushAmount;
+	private double width;
+	private double height;
+	private Side facingSide;
+	private boolean wantsToAccelerate;
+	private boolean accelerating;
+	private boolean walking;
+	private boolean running;
+	private boolean canRun;
+	private boolean sliding;
+	private boolean crouching;
+	private boolean grounded;
+	private boolean falling;
+	private boolean landing;
+	private boolean canJump;
+	private boolean jumping;
+	private boolean canDoubleJump;
+	private boolean doubleJumping;
+	private Side lastWallJumpSide;
+	private boolean wallJumping;
+	private boolean jumpReleased;
+	private boolean atWall;
+	private Side wallSide;
+	private boolean wallPushing;
+	private boolean steelPushing;
+
+	private boolean hasTargetMetal;
+	private double targetMetalxPos;
+	private double targetMetalyPos;
+
+	/**
+	 * Copies the state of a player into this snapshot, replacing whatever it held
+	 * before.
+	 * 
+	 * @param player The player to copy
+	 */
+	void capture(Player player) {
+		state = player.getState();
+		xPos = player.getxPos();
+		yPos = player.getyPos();
+		xSpeed = player.getxSpeed();
+		ySpeed = player.getySpeed();
+		xAcc = player.getxAcc();
+		yAcc = player.getyAcc();
+		xPushAmount = player.getxPushAmount();
+		yPushAmount = player.getyPushAmount();
+		width = player.getWidth();
+		height = player.getHeight();
+		facingSide = player.getFacingSide();
+		wantsToAccelerate = player.wantsToAccelerate();
+		accelerating = player.isAccelerating();
+		walking = player.isWalking();
+		running = player.isRunning();
+		canRun = player.getCanRun();
+		sliding = player.isSliding();
+		crouching = player.isCrouching();
+		grounded = player.isGrounded();
+		falling = player.isFalling();
+		landing = player.isLanding();
+		canJump = player.canJump();
+		jumping = player.isJumping();
+		canDoubleJump = player.canDoubleJump();
+		doubleJumping = player.isDoubleJumping();
+		lastWallJumpSide = player.getLastWallJumpSide();
+		wallJumping = player.isWallJumping();
+		jumpReleased = player.isJumpReleased();
+		atWall = player.isAtWall();
+		wallSide = player.getWallSide();
+		wallPushing = player.isWallPushing();
+		steelPushing = player.isSteelPushing();
+
+		Metal targetMetal = player.getTargetMetal();
+		hasTargetMetal = targetMetal != null;
+		targetMetalxPos = hasTargetMetal ? targetMetal.getxPos() : 0;
+		targetMetalyPos = hasTargetMetal ? targetMetal.getyPos() : 0;
+	}
+
+	// getters
+	// ---------------------------------------------------------------------------------------------------
+	public State getState() {
+		return state;
+	}
+
+	public double getxPos() {
+		return xPos;
+	}
+
+	public double getyPos() {
+		return yPos;
+	}
+
+	public double getxSpeed() {
+		return xSpeed;
+	}
+
+	public double getySpeed() {
+		return ySpeed;
+	}
+
+	public double getxAcc() {
+		return xAcc;
+	}
+
+	public double getyAcc() {
+		return yAcc;
+	}
+
+	public double getxPushAmount() {
+		return xPushAmount;
+	}
+
+	public double getyPushAmount() {
+		return yPushAmount;
+	}
+
+	public double getWidth() {
+		return width;
+	}
+
+	public double getHeight() {
+		return height;
+	}
+
+	public Side getFacingSide() {
+		return facingSide;
+	}
+
+	public boolean wantsToAccelerate() {
+		return wantsToAccelerate;
+	}
+
+	public boolean isAccelerating() {
+		return accelerating;
+	}
+
+	public boolean isWalking() {
+		return walking;
+	}
+
+	public boolean isRunning() {
+		return running;
+	}
+
+	public boolean getCanRun() {
+		return canRun;
+	}
+
+	public boolean isSliding() {
+		return sliding;
+	}
+
+	public boolean isCrouching() {
+		return crouching;
+	}
+
+	public boolean isGrounded() {
+		return grounded;
+	}
+
+	public boolean isFalling() {
+		return falling;
+	}
+
+	public boolean isLanding() {
+		return landing;
+	}
+
+	public boolean canJump() {
+		return canJump;
+	}
+
+	public boolean isJumping() {
+		return jumping;
+	}
+
+	public boolean canDoubleJump() {
+		return canDoubleJump;
+	}
+
+	public boolean isDoubleJumping() {
+		return doubleJumping;
+	}
+
+	public Side getLastWallJumpSide() {
+		return lastWallJumpSide;
+	}
+
+	public boolean isWallJumping() {
+		return wallJumping;
+	}
+
+	public boolean isJumpReleased() {
+		return jumpReleased;
+	}
+
+	public boolean isAtWall() {
+		return atWall;
+	}
+
+	public Side getWallSide() {
+		return wallSide;
+	}
+
+	public boolean isWallPushing() {
+		return wallPushing;
+	}
+
+	public boolean isSteelPushing() {
+		return steelPushing;
+	}
+
+	public boolean hasTargetMetal() {
+		return hasTargetMetal;
+	}
+
+	public double getTargetMetalxPos() {
+		return targetMetalxPos;
+	}
+
+	public double getTargetMetalyPos() {
+		return targetMetalyPos;
+	}
+}
@@ -0,0 +1,75 @@
+package com.pisoft.mistborn_game.display;
+
+import java.awt.Color;
+import java.awt.Graphics;
+
+import com.pisoft.mistborn_game.profiling.FrameProfiler;
+import com.pisoft.mistborn_game.profiling.FrameProfiler.Phase;
+
+/**
+ * Draws the windows of a {@link FrameProfiler} as a graph, with one line per
+ * phase, newest samples on the right.
+ * <p>
+ * The graph is scaled so that <code>BUDGET_NANOS</code> (one tick at 60 Hz)
+ * fills its height, and longer samples are clipped to the top. Next to the
+ * graph, the average time and allocation of each phase over its window are
+ * printed.
+ *
+ * @author gouldb
+ */
+public class ProfilerOverlay {
+	public static final int WIDTH = FrameProfiler.WINDOW;
+	public static final int HEIGHT = 80;
+
+	private static final long BUDGET_NANOS = 1_000_000_000 / 60;
+
+	private static final Color BACKGROUND = new Color(255, 255, 255, 200);
+	private static final Color[] COLORS = { Color.blue, Color.red, Color.green.darker(), Color.magenta,
+			Color.orange.darker() };
+
+	// reused for every line, so painting the graph does not allocate
+	private final int[] xPoints = new int[FrameProfiler.WINDOW];
+	private final int[] yPoints = new int[FrameProfiler.WINDOW];
+
+	/**
+	 * Draws the graph with its top left corner at the given point.
+	 *
+	 * @param g        The <code>Graphics</code> object to draw with
+	 * @param profiler The profiler to draw
+	 * @param x        x coordinate of the graph
+	 * @param y        y coordinate of the graph
+	 */
+	public void paint(Graphics g, FrameProfiler profiler, int x, int y) {
+		g.setColor(BACKGROUND);
+		g.fillRect(x, y, WIDTH, HEIGHT);
+		g.setColor(Color.black);
+		g.drawRect(x, y, WIDTH, HEIGHT);
+
+		Phase[] phases = Phase.values();
+		for (int p = 0; p < phases.length; p++) {
+			Phase phase = phases[p];
+			int samples = profiler.getSampleCount(phase);
+
+			long totalNanos = 0, totalBytes = 0;
+			for (int age = 0; age < samples; age++) {
+				long nanos = profiler.getNanos(phase, age);
+
+				totalNanos += nanos;
+				totalBytes += profiler.getBytes(phase, age);
+
+				xPoints[age] = x + WIDTH - age;
+				yPoints[age] = y + HEIGHT - (int) (Math.min(nanos, BUDGET_NANOS) * HEIGHT / BUDGET_NANOS);
+			}
+
+			g.setColor(COLORS[p % COLORS.length]);
+			if (samples > 1) {
+				g.drawPolyline(xPoints, yPoints, samples);
+			}
+
+			long avgMicros = (samples == 0) ? 0 : totalNanos / samples / 1000;
+			long avgBytes = (samples == 0) ? 0 : totalBytes / samples;
+			g.drawString(phase.getLabel() + ": " + avgMicros + " us, " + avgBytes + " B", x + WIDTH + 5,
+					y + 12 + 16 * p);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package com.pisoft.mistborn_game.display;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.levels.Metal;
+import com.pisoft.mistborn_game.levels.Platform;
+import com.pisoft.mistborn_game.levels.PlatformGrid;
+
+/**
+ * Copy of a level's static geometry (its platforms and metals), indexed for
+ * drawing.
+ * <p>
+ * The game thread creates a new <code>RenderGeometry</code> whenever the
+ * geometry version of the active level changes (see
+ * {@link Level#getGeometryVersion()}), and the same one is shared by every
+ * snapshot captured until then. Its platforms and metals are copies that are
+ * never changed, so the render thread can use them without any locking. Both
+ * are indexed in a {@link PlatformGrid}, so that the platforms and metals
+ * inside the viewport can be found without looking at the rest of the level.
+ * Metals are indexed by the box they are drawn in, outline included.
+ * <p>
+ * Since the grids reuse scratch state between queries, each one may only be
+ * queried by one thread: platforms by the render thread, which draws them, and
+ * metals by the game thread, which copies the visible ones into each snapshot.
+ *
+ * @author gouldb
+ *
+ */
+public class RenderGeometry {
+	// metals are drawn as squares of this size, with outlines reaching METAL_OUTLINE past them
+	static final double METAL_SIZE = 5;
+	static final double METAL_OUTLINE = 2;
+
+	private final long version;
+
+	private final ArrayList<Platform> platforms;
+	private final PlatformGrid grid = new PlatformGrid(StaticLayerCache.TILE_SIZE / 2);
+
+	private final ArrayList<Platform> metalBoxes;
+	private final PlatformGrid metalGrid = new PlatformGrid(StaticLayerCache.TILE_SIZE / 2);
+	private final ArrayList<Platform> foundMetalBoxes = new ArrayList<>();
+
+	// bounds of the platforms, extended to include the origin
+	private final double minX, minY, maxX, maxY;
+
+	/**
+	 * Copies the platforms and metals of a level. Must be called from the thread
+	 * that changes the level's platforms and metals.
+	 *
+	 * @param level The level to copy
+	 */
+	public RenderGeometry(Level level) {
+		version = level.getGeometryVersion();
+
+		ArrayList<Platform> levelPlatforms = level.getPlatforms();
+		platforms = new ArrayList<>(levelPlatforms.size());
+
+		double minX = 0, minY = 0, maxX = 0, maxY = 0;
+		for (Platform platform : levelPlatforms) {
+			platforms.add(new Platform(platform.getxPos(), platform.getyPos(), platform.getWidth(),
+					platform.getHeight()));
+
+			minX = Math.min(minX, platform.getxPos());
+			minY = Math.min(minY, platform.getyPos());
+			maxX = Math.max(maxX, platform.getxPos() + platform.getWidth());
+			maxY = Math.max(maxY, platform.getyPos() + platform.getHeight());
+		}
+
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+
+		grid.rebuild(platforms);
+
+		ArrayList<Metal> levelMetals = level.getMetals();
+		metalBoxes = new ArrayList<>(levelMetals.size());
+
+		for (Metal metal : levelMetals) {
+			metalBoxes.add(new MetalBox(new Metal(metal.getxPos(), metal.getyPos())));
+		}
+
+		metalGrid.rebuild(metalBoxes);
+	}
+
+	/**
+	 * Finds every platform that overlaps a box, in the order they were added to
+	 * the level. Only called from the render thread.
+	 *
+	 * @param minX Left edge of the box
+	 * @param minY Top edge of the box
+	 * @param maxX Right edge of the box
+	 * @param maxY Bottom edge of the box
+	 * @param out  The collection to add the platforms to
+	 */
+	public void findPlatforms(double minX, double minY, double maxX, double maxY, Collection<? super Platform> out) {
+		grid.findOverlapping(minX, minY, maxX, maxY, out);
+	}
+
+	/**
+	 * Finds every metal that is drawn at least partly inside a box, in the order
+	 * they were added to the level. Only called from the game thread.
+	 *
+	 * @param minX Left edge of the box
+	 * @param minY Top edge of the box
+	 * @param maxX Right edge of the box
+	 * @param maxY Bottom edge of the box
+	 * @param out  The collection to add the metals to
+	 */
+	public void findMetals(double minX, double minY, double maxX, double maxY, Collection<? super Metal> out) {
+		metalGrid.findOverlapping(minX, minY, maxX, maxY, foundMetalBoxes);
+
+		for (int i = 0; i < foundMetalBoxes.size(); i++) {
+			out.add(((MetalBox) foundMetalBoxes.get(i)).metal);
+		}
+
+		foundMetalBoxes.clear();
+	}
+
+	// getters
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the geometry version of the level this was copied from.
+	 *
+	 * @return The geometry version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	public int getPlatformCount() {
+		return platforms.size();
+	}
+
+	public int getMetalCount() {
+		return metalBoxes.size();
+	}
+
+	public double getMinX() {
+		return minX;
+	}
+
+	public double getMinY() {
+		return minY;
+	}
+
+	public double getMaxX() {
+		return maxX;
+	}
+
+	public double getMaxY() {
+		return maxY;
+	}
+
+	/**
+	 * The box a metal is drawn in, so that metals can be indexed in a
+	 * <code>PlatformGrid</code>.
+	 */
+	private static class MetalBox extends Platform {
+		private final Metal metal;
+
+		private MetalBox(Metal metal) {
+			super(metal.getxPos() - METAL_OUTLINE, metal.getyPos() - METAL_OUTLINE, METAL_SIZE + 2 * METAL_OUTLINE,
+					METAL_SIZE + 2 * METAL_OUTLINE);
+
+			this.metal = metal;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.pisoft.mistborn_game.display;
+
+import java.util.ArrayList;
+
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.levels.Metal;
+
+/**
+ * Copy of everything the <code>Painter</code> needs to draw a level, taken by
+ * the game thread at the end of a tick.
+ * <p>
+ * Snapshots are reused rather than reallocated: <code>capture()</code>
+ * overwrites the previous contents, only growing its arrays when more metals
+ * are visible than in any snapshot captured before. Platforms are not copied
+ * at all, but shared between snapshots through a {@link RenderGeometry}, which
+ * only changes when the level's geometry does. Only the metals inside the
+ * camera's viewport are copied, and they are found through the geometry's
+ * index of metals, so the cost of a snapshot does not depend on the size of
+ * the level or on how many metals it has. Once a snapshot has been published through a
+ * {@link RenderSnapshotBuffer}, it is not changed until the render thread has
+ * moved on to a newer one, so the render thread can read it without any
+ * locking.
+ * 
+ * @author gouldb
+ *
+ */
+public class RenderSnapshot {
+	private boolean empty = true;
+	private long tick;
+
+	private final PlayerSnapshot player = new PlayerSnapshot();
+
+	private RenderGeometry geometry;
+
+	// viewport, in level coordinates
+	private int viewX, viewY;
+	private int viewWidth, viewHeight;
+
+	// visible metals, as x and y
+	private double[] metals = new double[0];
+	private int metalCount = 0;
+	private final ArrayList<Metal> visibleMetals = new ArrayList<>();
+
+	/**
+	 * Copies the render state of a level into this snapshot, replacing whatever it
+	 * held before.
+	 * 
+	 * @param level    The level to copy
+	 * @param geometry The current geometry of the level
+	 * @param camera   The camera the level is seen through
+	 * @param tick     The tick the level's state is from
+	 */
+	public void capture(Level level, RenderGeometry geometry, Camera camera, long tick) {
+		this.tick = tick;
+		this.geometry = geometry;
+
+		player.capture(level.getPlayer());
+
+		viewX = camera.getViewX();
+		viewY = camera.getViewY();
+		viewWidth = camera.getViewportWidth();
+		viewHeight = camera.getViewportHeight();
+
+		captureMetals();
+
+		empty = false;
+	}
+
+	private void captureMetals() {
+		geometry.findMetals(viewX, viewY, viewX + viewWidth, viewY + viewHeight, visibleMetals);
+		metalCount = visibleMetals.size();
+
+		if (metals.length < metalCount * 2) {
+			metals = new double[Math.max(8, metalCount * 4)];
+		}
+
+		for (int i = 0; i < metalCount; i++) {
+			Metal metal = visibleMetals.get(i);
+
+			metals[i * 2] = metal.getxPos();
+			metals[i * 2 + 1] = metal.getyPos();
+		}
+
+		visibleMetals.clear();
+	}
+
+	// getters
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Checks whether anything has been captured into this snapshot yet.
+	 * 
+	 * @return <code>true</code> if the snapshot has never been captured into
+	 */
+	public boolean isEmpty() {
+		return empty;
+	}
+
+	public long getTick() {
+		return tick;
+	}
+
+	public PlayerSnapshot getPlayer() {
+		return player;
+	}
+
+	/**
+	 * Gets the geometry of the level, shared with other snapshots of the same
+	 * geometry version.
+	 * 
+	 * @return The geometry
+	 */
+	public RenderGeometry getGeometry() {
+		return geometry;
+	}
+
+	public int getViewX() {
+		return viewX;
+	}
+
+	public int getViewY() {
+		return viewY;
+	}
+
+	public int getViewWidth() {
+		return viewWidth;
+	}
+
+	public int getViewHeight() {
+		return viewHeight;
+	}
+
+	/**
+	 * Gets the number of metals inside the viewport. Metals outside of it are not
+	 * copied into the snapshot.
+	 * 
+	 * @return The number of visible metals
+	 */
+	public int getMetalCount() {
+		return metalCount;
+	}
+
+	public double getMetalxPos(int index) {
+		return metals[index * 2];
+	}
+
+	public double getMetalyPos(int index) {
+		return metals[index * 2 + 1];
+	}
+}
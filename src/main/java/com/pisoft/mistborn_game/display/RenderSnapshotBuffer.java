@@ -0,0 +1,64 @@
+package com.pisoft.mistborn_game.display;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free triple buffer of <code>RenderSnapshot</code>s, used to hand render
+ * state from the game thread to the render thread.
+ * <p>
+ * The game thread always captures into the back snapshot, then calls
+ * <code>publish()</code> to swap it with the middle one. The render thread
+ * calls <code>acquire()</code>, which swaps the front snapshot with the middle
+ * one if a newer one has been published since, and draws from the front
+ * snapshot. Neither thread ever waits for the other: the game thread can
+ * publish many times between frames (only the newest snapshot is drawn), and
+ * the render thread can draw the same snapshot many times between ticks.
+ * <p>
+ * Only one thread may publish, and only one thread may acquire.
+ * 
+ * @author gouldb
+ *
+ */
+public class RenderSnapshotBuffer {
+	private static final int INDEX_MASK = 0b11;
+	private static final int FRESH = 0b100;
+
+	private final RenderSnapshot[] snapshots = { new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot() };
+
+	// index of the middle snapshot, and whether it is newer than the front one
+	private final AtomicInteger middle = new AtomicInteger(1);
+
+	private int back = 0;
+	private int front = 2;
+
+	/**
+	 * Gets the snapshot the game thread should capture into next.
+	 * 
+	 * @return The back snapshot
+	 */
+	public RenderSnapshot getBack() {
+		return snapshots[back];
+	}
+
+	/**
+	 * Makes the back snapshot available to the render thread, and takes the old
+	 * middle snapshot as the new back one.
+	 */
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Gets the newest published snapshot.
+	 * 
+	 * @return The front snapshot, which is not changed until the next call to
+	 *         <code>acquire()</code>
+	 */
+	public RenderSnapshot acquire() {
+		if ((middle.get() & FRESH) != 0) {
+			front = middle.getAndSet(front) & INDEX_MASK;
+		}
+
+		return snapshots[front];
+	}
+}
@@ -0,0 +1,197 @@
+package com.pisoft.mistborn_game.display;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.pisoft.mistborn_game.levels.Platform;
+
+/**
+ * Retained layer holding a level's static geometry (its platforms),
+ * rasterized once into images and then copied to the screen every frame.
+ * <p>
+ * Platforms never move while a level is being played, so there is no need to
+ * stroke their antialiased outlines again on every frame. Instead, the level is
+ * split into square tiles of <code>TILE_SIZE</code>, and each tile is drawn
+ * into a compatible image the first time it is visible. After that, painting
+ * the layer is one image copy per visible tile, which Java2D can usually
+ * accelerate.
+ * <p>
+ * Only the tiles under the clip of the graphics being painted on are looked
+ * at, and a tile is drawn by asking the snapshot's {@link RenderGeometry} for
+ * the platforms reaching into it, so the cost of painting depends on what is
+ * inside the viewport and not on the size of the level.
+ * <p>
+ * Tiles are rasterized at the scale of the graphics they are painted on, and
+ * copied without any further transform, so they stay sharp at any resolution
+ * the level is drawn at. The graphics may be translated and scaled, but not
+ * rotated or sheared.
+ * <p>
+ * The cache is keyed by the geometry version of the snapshot it was drawn
+ * from (see {@link RenderGeometry#getVersion()}), and is thrown away when that
+ * changes, when painting moves to a different graphics device, or when the
+ * scale changes. At most <code>MAX_TILES</code> tiles (or as many as fit on
+ * the screen) are kept; if more are needed, all are thrown away and only the
+ * visible ones drawn again, which bounds the memory used by large levels.
+ * <p>
+ * Only used from the render thread.
+ *
+ * @author gouldb
+ */
+public class StaticLayerCache {
+	public static final int TILE_SIZE = 512;
+	private static final int MAX_TILES = 64;
+
+	// how far outlines reach past the edges of a platform: half the stroke, plus antialiasing
+	private static final int OUTLINE = 2;
+
+	private static final AffineTransform IDENTITY = new AffineTransform();
+
+	private long geometryVersion = -1;
+	private GraphicsConfiguration config;
+	private double scale;
+
+	// cached tiles, keyed by their packed column and row. Tiles without any platforms in them are null.
+	private long[] keys = new long[MAX_TILES];
+	private BufferedImage[] tiles = new BufferedImage[MAX_TILES];
+	private int tileCount = 0;
+
+	private final ArrayList<Platform> found = new ArrayList<>();
+	private final Rectangle2D.Double rect = new Rectangle2D.Double();
+
+	/**
+	 * Paints the platforms of a snapshot that are inside the clip of the given
+	 * graphics, drawing any tiles that are visible but not cached yet.
+	 *
+	 * @param g        The graphics to paint with. Must have a clip.
+	 * @param snapshot The snapshot to paint the platforms of
+	 */
+	public void paint(Graphics2D g, RenderSnapshot snapshot) {
+		RenderGeometry geometry = snapshot.getGeometry();
+		GraphicsConfiguration gc = g.getDeviceConfiguration();
+		AffineTransform transform = g.getTransform();
+
+		if (geometry.getVersion() != geometryVersion || gc != config || transform.getScaleX() != scale) {
+			clearTiles();
+
+			geometryVersion = geometry.getVersion();
+			config = gc;
+			scale = transform.getScaleX();
+		}
+
+		if (geometry.getPlatformCount() == 0) {
+			return;
+		}
+
+		Rectangle clip = g.getClipBounds();
+		int minCol = Math.floorDiv(clip.x, TILE_SIZE);
+		int maxCol = Math.floorDiv(clip.x + clip.width, TILE_SIZE);
+		int minRow = Math.floorDiv(clip.y, TILE_SIZE);
+		int maxRow = Math.floorDiv(clip.y + clip.height, TILE_SIZE);
+
+		int visible = (maxCol - minCol + 1) * (maxRow - minRow + 1);
+		if (visible > tiles.length - tileCount) {
+			clearTiles();
+
+			// only happens on screens too large for MAX_TILES tiles to cover
+			if (visible > tiles.length) {
+				keys = new long[visible];
+				tiles = new BufferedImage[visible];
+			}
+		}
+
+		// tiles are copied pixel for pixel, at their position on the device
+		g.setTransform(IDENTITY);
+
+		try {
+			for (int row = minRow; row <= maxRow; row++) {
+				for (int col = minCol; col <= maxCol; col++) {
+					BufferedImage tile = getTile(geometry, col, row);
+
+					if (tile != null) {
+						g.drawImage(tile, (int) Math.round(transform.getTranslateX() + col * TILE_SIZE * scale),
+								(int) Math.round(transform.getTranslateY() + row * TILE_SIZE * scale), null);
+					}
+				}
+			}
+		} finally {
+			g.setTransform(transform);
+		}
+	}
+
+	/**
+	 * Gets a tile from the cache, drawing it first if it is not there.
+	 */
+	private BufferedImage getTile(RenderGeometry geometry, int col, int row) {
+		long key = ((long) col << 32) | (row & 0xffffffffL);
+
+		for (int i = 0; i < tileCount; i++) {
+			if (keys[i] == key) {
+				return tiles[i];
+			}
+		}
+
+		// there is always room, since the cache is cleared before painting if there might not be
+		BufferedImage tile = drawTile(geometry, col, row);
+		keys[tileCount] = key;
+		tiles[tileCount] = tile;
+		tileCount++;
+
+		return tile;
+	}
+
+	private void clearTiles() {
+		for (int i = 0; i < tileCount; i++) {
+			if (tiles[i] != null) {
+				tiles[i].flush();
+			}
+		}
+
+		Arrays.fill(tiles, null);
+		tileCount = 0;
+	}
+
+	/**
+	 * Draws every platform reaching into a tile into a new image.
+	 *
+	 * @return The image, or <code>null</code> if no platforms reach into the tile
+	 */
+	private BufferedImage drawTile(RenderGeometry geometry, int col, int row) {
+		int tileX = col * TILE_SIZE;
+		int tileY = row * TILE_SIZE;
+
+		geometry.findPlatforms(tileX - OUTLINE, tileY - OUTLINE, tileX + TILE_SIZE + OUTLINE, tileY + TILE_SIZE + OUTLINE,
+				found);
+		if (found.isEmpty()) {
+			return null;
+		}
+
+		// rounded up, so neighbouring tiles overlap rather than leave gaps
+		int size = (int) Math.ceil(TILE_SIZE * scale);
+		BufferedImage tile = config.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+
+		Graphics2D tg = tile.createGraphics();
+		tg.setRenderingHints(Painter.RENDERING_HINTS);
+		tg.setStroke(Painter.OUTLINE_STROKE);
+		tg.setColor(Color.black);
+		tg.scale(scale, scale);
+		tg.translate(-tileX, -tileY);
+
+		for (Platform platform : found) {
+			rect.setRect(platform.getxPos(), platform.getyPos(), platform.getWidth(), platform.getHeight());
+			tg.draw(rect);
+		}
+
+		tg.dispose();
+		found.clear();
+
+		return tile;
+	}
+}
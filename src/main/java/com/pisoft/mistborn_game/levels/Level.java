@@ -1,16 +1,37 @@
 package com.pisoft.mistborn_game.levels;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.pisoft.mistborn_game.player.Player;
 
+/**
+ * A level: its player, platforms and metals.
+ * <p>
+ * Platforms are indexed by a {@link PlatformGrid}, which collision checks go
+ * through to find nearby platforms. The grid is rebuilt whenever the list of
+ * platforms is set or changed through this class. Platforms that are moved or
+ * resized in place need a call to <code>platformsChanged()</code> afterwards.
+ * <p>
+ * Every change to the platforms or metals also gives the level a new geometry
+ * version, unique across all levels, so anything caching a level's geometry
+ * (e.g. the display) can tell when its cache is out of date. Metals that are
+ * moved in place need a call to <code>metalsChanged()</code> afterwards.
+ * 
+ * @author gouldb
+ */
 //TODO: add items, enemies, etc.
 public class Level {
+    private static final AtomicLong GEOMETRY_VERSIONS = new AtomicLong();
 
 	private Player player;
 	
     private ArrayList<Platform> platforms = new ArrayList<Platform>();
     private ArrayList<Metal> metals = new ArrayList<Metal>();
+
+    private final PlatformGrid platformGrid = new PlatformGrid();
+    private long geometryVersion;
     
     public Level(ArrayList<Platform> platforms, ArrayList<Metal> metals) {
         setPlayer(new Player());
@@ -18,6 +39,67 @@ public class Level {
         setMetals(metals);
     }
 
+    //platform methods
+    //---------------------------------------------------------------------------------------------------
+    /**
+     * Adds a platform to the level.
+     * 
+     * @param platform The platform to add
+     */
+    public void addPlatform(Platform platform) {
+        platforms.add(platform);
+        platformsChanged();
+    }
+
+    /**
+     * Removes a platform from the level.
+     * 
+     * @param platform The platform to remove
+     * @return <code>true</code> if the level contained the platform
+     */
+    public boolean removePlatform(Platform platform) {
+        boolean removed = platforms.remove(platform);
+
+        if (removed) {
+            platformsChanged();
+        }
+
+        return removed;
+    }
+
+    /**
+     * Rebuilds the platform index. Must be called after platforms have been moved
+     * or resized, or the list returned by <code>getPlatforms()</code> has been
+     * changed directly.
+     */
+    public void platformsChanged() {
+        platformGrid.rebuild(platforms);
+        geometryVersion = GEOMETRY_VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Gives the level a new geometry version. Must be called after metals have
+     * been moved, or the list returned by <code>getMetals()</code> has been
+     * changed directly.
+     */
+    public void metalsChanged() {
+        geometryVersion = GEOMETRY_VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Finds every platform that overlaps a box, in the order they were added to
+     * the level. Platforms that only touch the edge of the box do not overlap it.
+     * 
+     * @param minX Left edge of the box
+     * @param minY Top edge of the box
+     * @param maxX Right edge of the box
+     * @param maxY Bottom edge of the box
+     * @param out  The collection to add the platforms to
+     */
+    public void findPlatforms(double minX, double minY, double maxX, double maxY, Collection<? super Platform> out) {
+        platformGrid.findOverlapping(minX, minY, maxX, maxY, out);
+    }
+
     //getters and setters
     //---------------------------------------------------------------------------------------------------
     public Player getPlayer() {
@@ -34,6 +116,22 @@ public class Level {
 
     public void setPlatforms(ArrayList<Platform> platforms) {
         this.platforms = platforms;
+
+        platformsChanged();
+    }
+
+    public PlatformGrid getPlatformGrid() {
+        return platformGrid;
+    }
+
+    /**
+     * Gets the version of this level's platforms and metals. It changes whenever
+     * they do, and no two levels ever share a version.
+     * 
+     * @return The geometry version
+     */
+    public long getGeometryVersion() {
+        return geometryVersion;
     }
 
     public ArrayList<Metal> getMetals() {
@@ -42,5 +140,7 @@ public class Level {
 
     public void setMetals(ArrayList<Metal> metals) {
         this.metals = metals;
+
+        metalsChanged();
     }
 }
\ No newline at end of file
@@ -2,41 +2,41 @@ package com.pisoft.mistborn_game.levels;
 
 import java.util.ArrayList;
 
+/**
+ * Library of the game's levels.
+ * <p>
+ * Levels hold the state of the player playing them, so every call creates a
+ * new copy of the level, which can be given to its own
+ * <code>GameContext</code>.
+ * 
+ * @author gouldb
+ *
+ */
 public class LoadedLevels {
 	
-	private static ArrayList<Platform> platforms = new ArrayList<Platform>();
-    private static ArrayList<Metal> metals = new ArrayList<Metal>();
-    
-    private static Level level1;
-	
-	public static void initLevels() {
-		initPlatforms();
-		initMetals();
-		
-		setLevel1(new Level(platforms, metals));
+	public static Level createLevel1() {
+		return new Level(createLevel1Platforms(), createLevel1Metals());
 	}
 
-	private static void initPlatforms() {
+	private static ArrayList<Platform> createLevel1Platforms() {
+		ArrayList<Platform> platforms = new ArrayList<Platform>();
+		
         // new Platform(xPos, yPos, width, height);
         // new Platform(0, 300, 500, 50);
         platforms.add(new Platform(250, 100, 50, 500));
         // platforms.add(new Platform(450, 100, 50, 500));
         // new Platform(0, 100, 500, 50);
         platforms.add(new Platform(0, 500, 1500, 50));
+        
+        return platforms;
     }
 
-    private static void initMetals() {
+    private static ArrayList<Metal> createLevel1Metals() {
+    	ArrayList<Metal> metals = new ArrayList<Metal>();
+    	
         //new Metal(xPos, yPos);
         metals.add(new Metal(350, 525));
+        
+        return metals;
     }
-    
-    //getters and setters
-    //---------------------------------------------------------------------------------------------------
-	public static Level getLevel1() {
-		return level1;
-	}
-
-	public static void setLevel1(Level level1) {
-		LoadedLevels.level1 = level1;
-	}
 }
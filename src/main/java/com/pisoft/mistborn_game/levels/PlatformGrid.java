@@ -0,0 +1,284 @@
+package com.pisoft.mistborn_game.levels;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Uniform grid over the bounding boxes of a level's platforms, used to find
+ * the platforms near a given box without looking at every platform in the
+ * level.
+ * <p>
+ * The grid covers the bounds of all its platforms, split into square cells of
+ * <code>cellSize</code>. Each cell lists the indices of the platforms touching
+ * it, so a query only visits the cells under its box, and its cost depends on
+ * how many platforms are nearby rather than on the size of the level.
+ * Platforms spanning several cells are listed in each of them, but are only
+ * ever returned once per query.
+ * <p>
+ * Queries return platforms in the same order as the level's list of
+ * platforms, so they find the same platform first as a linear scan would.
+ * <p>
+ * The grid is not thread safe, since queries reuse internal scratch arrays. It
+ * must be rebuilt whenever platforms are added, removed or moved, and its
+ * version changes every time it is, so anything holding on to platforms found
+ * through it can tell when they may be out of date.
+ *
+ * @author gouldb
+ *
+ */
+public class PlatformGrid {
+	public static final double DEFAULT_CELL_SIZE = 128;
+
+	// cells are made larger if needed to stay under this, so far-flung platforms can't blow up the grid
+	private static final int MAX_CELLS = 1 << 20;
+
+	private final double preferredCellSize;
+	private double cellSize;
+
+	private List<Platform> platforms;
+	private int version = 0;
+
+	private double originX, originY;
+	private int cols, rows;
+
+	// platform indices of each cell, in ascending order
+	private int[][] cells;
+	private int[] cellCounts;
+
+	// query scratch state: platforms are stamped as they are visited to skip duplicates
+	private int[] stamps = new int[0];
+	private int stamp = 0;
+	private int[] candidates = new int[16];
+
+	/**
+	 * Constructs a new, empty <code>PlatformGrid</code> with the default cell
+	 * size.
+	 */
+	public PlatformGrid() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Constructs a new, empty <code>PlatformGrid</code>.
+	 *
+	 * @param cellSize The preferred width and height of each cell. Should be
+	 *                 around the size of the boxes that are queried.
+	 */
+	public PlatformGrid(double cellSize) {
+		this.preferredCellSize = cellSize;
+		this.cellSize = cellSize;
+
+		rebuild(Collections.emptyList());
+	}
+
+	// building
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Rebuilds the grid over a list of platforms. The grid keeps a reference to
+	 * the list, and must be rebuilt again if it changes.
+	 *
+	 * @param platforms The platforms to index
+	 */
+	public void rebuild(List<Platform> platforms) {
+		this.platforms = platforms;
+		version++;
+
+		if (platforms.isEmpty()) {
+			originX = originY = 0;
+			cols = rows = 0;
+			cells = new int[0][];
+			cellCounts = new int[0];
+			stamps = new int[0];
+			return;
+		}
+
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (Platform platform : platforms) {
+			minX = Math.min(minX, platform.getxPos());
+			minY = Math.min(minY, platform.getyPos());
+			maxX = Math.max(maxX, platform.getxPos() + platform.getWidth());
+			maxY = Math.max(maxY, platform.getyPos() + platform.getHeight());
+		}
+
+		originX = minX;
+		originY = minY;
+
+		cellSize = preferredCellSize;
+		while (true) {
+			cols = (int) Math.floor((maxX - minX) / cellSize) + 1;
+			rows = (int) Math.floor((maxY - minY) / cellSize) + 1;
+
+			if ((long) cols * rows <= MAX_CELLS) {
+				break;
+			}
+
+			cellSize *= 2;
+		}
+
+		cells = new int[cols * rows][];
+		cellCounts = new int[cols * rows];
+
+		for (int i = 0; i < platforms.size(); i++) {
+			Platform platform = platforms.get(i);
+
+			int minCol = col(platform.getxPos()), maxCol = col(platform.getxPos() + platform.getWidth());
+			int minRow = row(platform.getyPos()), maxRow = row(platform.getyPos() + platform.getHeight());
+
+			for (int row = minRow; row <= maxRow; row++) {
+				for (int col = minCol; col <= maxCol; col++) {
+					addToCell(row * cols + col, i);
+				}
+			}
+		}
+
+		stamps = new int[platforms.size()];
+		stamp = 0;
+	}
+
+	private void addToCell(int cell, int index) {
+		int[] list = cells[cell];
+
+		if (list == null) {
+			list = new int[4];
+			cells[cell] = list;
+		} else if (cellCounts[cell] == list.length) {
+			list = Arrays.copyOf(list, list.length * 2);
+			cells[cell] = list;
+		}
+
+		list[cellCounts[cell]++] = index;
+	}
+
+	private int col(double x) {
+		return clamp((int) Math.floor((x - originX) / cellSize), cols);
+	}
+
+	private int row(double y) {
+		return clamp((int) Math.floor((y - originY) / cellSize), rows);
+	}
+
+	private static int clamp(int value, int size) {
+		return Math.max(0, Math.min(size - 1, value));
+	}
+
+	// queries
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Finds the first platform, in level order, that is near a box and passes a
+	 * test. Only platforms in the cells under the box are tested, so the test
+	 * must only pass for platforms that overlap the box.
+	 *
+	 * @param minX Left edge of the box
+	 * @param minY Top edge of the box
+	 * @param maxX Right edge of the box
+	 * @param maxY Bottom edge of the box
+	 * @param test The exact test to check nearby platforms with
+	 * @return The first platform that passes the test, or <code>null</code> if
+	 *         there is none
+	 */
+	public Platform findFirst(double minX, double minY, double maxX, double maxY, Predicate<Platform> test) {
+		int count = collectCandidates(minX, minY, maxX, maxY);
+
+		for (int i = 0; i < count; i++) {
+			Platform platform = platforms.get(candidates[i]);
+
+			if (test.test(platform)) {
+				return platform;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Finds every platform that overlaps a box, in level order. Platforms that
+	 * only touch the edge of the box do not overlap it.
+	 *
+	 * @param minX Left edge of the box
+	 * @param minY Top edge of the box
+	 * @param maxX Right edge of the box
+	 * @param maxY Bottom edge of the box
+	 * @param out  The collection to add the platforms to
+	 */
+	public void findOverlapping(double minX, double minY, double maxX, double maxY, Collection<? super Platform> out) {
+		int count = collectCandidates(minX, minY, maxX, maxY);
+
+		for (int i = 0; i < count; i++) {
+			Platform platform = platforms.get(candidates[i]);
+
+			if (platform.getxPos() < maxX && platform.getxPos() + platform.getWidth() > minX
+					&& platform.getyPos() < maxY && platform.getyPos() + platform.getHeight() > minY) {
+				out.add(platform);
+			}
+		}
+	}
+
+	/**
+	 * Gathers the indices of all platforms in the cells under a box into
+	 * <code>candidates</code>, in ascending order.
+	 *
+	 * @return The number of candidates
+	 */
+	private int collectCandidates(double minX, double minY, double maxX, double maxY) {
+		if (cols == 0 || maxX < originX || maxY < originY || minX > originX + cols * cellSize
+				|| minY > originY + rows * cellSize) {
+			return 0;
+		}
+
+		if (++stamp == 0) {
+			// stamps wrapped around, so old stamps could be mistaken for this query's
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+
+		int count = 0;
+		int minCol = col(minX), maxCol = col(maxX);
+		int minRow = row(minY), maxRow = row(maxY);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int col = minCol; col <= maxCol; col++) {
+				int cell = row * cols + col;
+				int[] list = cells[cell];
+
+				for (int i = 0; i < cellCounts[cell]; i++) {
+					int index = list[i];
+
+					if (stamps[index] != stamp) {
+						stamps[index] = stamp;
+
+						if (count == candidates.length) {
+							candidates = Arrays.copyOf(candidates, count * 2);
+						}
+						candidates[count++] = index;
+					}
+				}
+			}
+		}
+
+		// a single cell is already in order, but platforms from several cells are not
+		if (minRow != maxRow || minCol != maxCol) {
+			Arrays.sort(candidates, 0, count);
+		}
+
+		return count;
+	}
+
+	// getters
+	// ---------------------------------------------------------------------------------------------------
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Gets the number of times the grid has been rebuilt.
+	 *
+	 * @return The version of the grid
+	 */
+	public int getVersion() {
+		return version;
+	}
+}
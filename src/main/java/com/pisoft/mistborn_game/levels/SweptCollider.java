@@ -0,0 +1,148 @@
+package com.pisoft.mistborn_game.levels;
+
+import java.util.ArrayList;
+
+/**
+ * Moves a box through a level one axis at a time, stopping it at the first
+ * platform in its way.
+ * <p>
+ * Instead of moving the box to the end of its move and then backing it out of
+ * whatever it overlaps, each sweep looks at every platform between the start
+ * and the end of the move, and finds the one the box would reach first (its
+ * time of impact). The box is stopped <code>margin</code> away from that
+ * platform, the same distance at which it counts as touching it. Since the
+ * whole path is checked, a fast box can never pass through a thin platform
+ * between two ticks.
+ * <p>
+ * A box already overlapping a platform at the start of a sweep is pushed back
+ * out against the direction it is moving in. Platforms are found through the
+ * level's {@link PlatformGrid}, so each sweep only looks at platforms near its
+ * path.
+ * <p>
+ * Not thread safe, since sweeps reuse a scratch list.
+ *
+ * @author gouldb
+ *
+ */
+public class SweptCollider {
+	private final double margin;
+
+	private final ArrayList<Platform> nearby = new ArrayList<>();
+	private Platform hit;
+
+	/**
+	 * Constructs a new <code>SweptCollider</code>.
+	 *
+	 * @param margin The distance at which a box counts as touching a platform
+	 */
+	public SweptCollider(double margin) {
+		this.margin = margin;
+	}
+
+	/**
+	 * Moves a box along the x axis.
+	 *
+	 * @param grid   The platforms to collide with
+	 * @param x      Left edge of the box
+	 * @param y      Top edge of the box
+	 * @param width  Width of the box
+	 * @param height Height of the box
+	 * @param dx     How far to move the box
+	 * @return The new left edge of the box. If a platform was hit, it can be
+	 *         found with <code>getHit()</code>.
+	 */
+	public double sweepX(PlatformGrid grid, double x, double y, double width, double height, double dx) {
+		return sweep(grid, true, x, y, width, height, dx);
+	}
+
+	/**
+	 * Moves a box along the y axis.
+	 *
+	 * @param grid   The platforms to collide with
+	 * @param x      Left edge of the box
+	 * @param y      Top edge of the box
+	 * @param width  Width of the box
+	 * @param height Height of the box
+	 * @param dy     How far to move the box
+	 * @return The new top edge of the box. If a platform was hit, it can be found
+	 *         with <code>getHit()</code>.
+	 */
+	public double sweepY(PlatformGrid grid, double x, double y, double width, double height, double dy) {
+		return sweep(grid, false, y, x, height, width, dy);
+	}
+
+	/**
+	 * Sweeps along one axis. <code>pos</code> and <code>size</code> are along the
+	 * axis of movement, and <code>cross</code> and <code>crossSize</code> across
+	 * it.
+	 */
+	private double sweep(PlatformGrid grid, boolean alongX, double pos, double cross, double size, double crossSize,
+			double delta) {
+		hit = null;
+
+		double end = pos + delta;
+		if (delta == 0) {
+			return end;
+		}
+
+		// one more than the margin, so rounding can never leave out a platform that is hit
+		double pad = margin + 1;
+		double min = Math.min(pos, end) - pad;
+		double max = Math.max(pos, end) + size + pad;
+
+		nearby.clear();
+		if (alongX) {
+			grid.findOverlapping(min, cross - pad, max, cross + crossSize + pad, nearby);
+		} else {
+			grid.findOverlapping(cross - pad, min, cross + crossSize + pad, max, nearby);
+		}
+
+		double stop = end;
+		for (int i = 0; i < nearby.size(); i++) {
+			Platform platform = nearby.get(i);
+
+			double pPos = alongX ? platform.getxPos() : platform.getyPos();
+			double pSize = alongX ? platform.getWidth() : platform.getHeight();
+			double pCross = alongX ? platform.getyPos() : platform.getxPos();
+			double pCrossSize = alongX ? platform.getHeight() : platform.getWidth();
+
+			// only platforms level with the box can be in its way
+			if (!(cross + crossSize + margin > pCross && pCross + pCrossSize + margin > cross)) {
+				continue;
+			}
+
+			if (delta > 0) {
+				// hit if the box ends up touching the platform, without having started past it
+				if (end + size + margin > pPos && pPos + pSize + margin > pos) {
+					double contact = pPos - size - margin;
+
+					if (hit == null || contact < stop) {
+						stop = contact;
+						hit = platform;
+					}
+				}
+			} else {
+				if (pPos + pSize + margin > end && pos + size + margin > pPos) {
+					double contact = pPos + pSize + margin;
+
+					if (hit == null || contact > stop) {
+						stop = contact;
+						hit = platform;
+					}
+				}
+			}
+		}
+
+		return stop;
+	}
+
+	/**
+	 * Gets the platform that stopped the last sweep.
+	 *
+	 * @return The platform, or <code>null</code> if the last sweep was not
+	 *         stopped
+	 */
+	public Platform getHit() {
+		return hit;
+	}
+}
@@ -1,14 +1,19 @@
 package com.pisoft.mistborn_game.player;
 
-import java.util.ArrayList;
+import java.util.function.Predicate;
 
-import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameContext;
 import com.pisoft.mistborn_game.levels.Metal;
 import com.pisoft.mistborn_game.levels.Platform;
+import com.pisoft.mistborn_game.levels.PlatformGrid;
+import com.pisoft.mistborn_game.levels.SweptCollider;
 import com.pisoft.mistborn_game.player.constants.MetalPushingConstants;
 import com.pisoft.mistborn_game.player.constants.PlatformingConstants;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
 import com.pisoft.mistborn_game.player.game_events.GameEventDispatcher;
 import com.pisoft.mistborn_game.player.game_events.GameEventListener;
+import com.pisoft.mistborn_game.player.game_events.GameEventListenerRegistry;
+import com.pisoft.mistborn_game.player.game_events.GameEventSubscriptions;
 import com.pisoft.mistborn_game.player.game_events.HitCeilingEvent;
 import com.pisoft.mistborn_game.player.game_events.HitFloorEvent;
 import com.pisoft.mistborn_game.player.game_events.HitWallEvent;
@@ -24,14 +29,17 @@ import com.pisoft.mistborn_game.player.state.State;
 import com.pisoft.mistborn_game.player.state.StateManager;
 
 public class Player implements GameEventDispatcher {
+	// distance at which the player counts as touching a platform
+	private static final double COLLISION_MARGIN = 2;
 
 	private double width = 50;
 	private double height = 100;
 
 	// used to communicate with other objects
 	// -----------------------------------------------------------------------------------------------
+	private GameContext context;
 	private StateManager stateManager;
-	private ArrayList<GameEventListener> listeners = new ArrayList<>();
+	private final GameEventListenerRegistry listeners = new GameEventListenerRegistry();
 
 	// describe player state
 	// -----------------------------------------------------------------------------------------------
@@ -53,6 +61,8 @@ public class Player implements GameEventDispatcher {
 	private boolean walking;
 	private boolean running;
 	private boolean canRun;
+	// max horiz airSpeed of player (set based on if player can run or not)
+	private double maxAirSpeed = PlatformingConstants.getMaxWalkSpeed();
 	private boolean sliding;
 	private boolean crouching;
 
@@ -75,6 +85,15 @@ public class Player implements GameEventDispatcher {
 	private boolean steelPushing;
 
 	private Platform collidedPlatform;
+	// kept as a field so collision queries don't allocate a new lambda each time
+	private final Predicate<Platform> collidesWithPlayer = this::collided;
+	private final SweptCollider collider = new SweptCollider(COLLISION_MARGIN);
+
+	// platforms the player was last found touching, valid for one version of one grid
+	private Platform floorContact;
+	private Platform wallContact;
+	private PlatformGrid contactGrid;
+	private int contactVersion;
 
 	// -----------------------------------------------------------------------------------------------
 	public Player() {
@@ -101,7 +120,7 @@ public class Player implements GameEventDispatcher {
 			this.ySpeed += PlatformingConstants.getGravity();
 
 			if (oldSpeed < 0 && getySpeed() >= 0) {
-				dispatchEvent(new JumpPeakedEvent());
+				dispatchEvent(context.obtain(JumpPeakedEvent.class));
 			}
 		}
 	}
@@ -113,20 +132,19 @@ public class Player implements GameEventDispatcher {
 		xSpeed += xPushAmount;
 		ySpeed -= yPushAmount;
 
-		xPos += xSpeed;
-		yPos += ySpeed;
-
 		handleCollision();
 		checkIfFalling();
 		checkIfAtWall();
 
 		if (isSliding()) {
-			dispatchEvent(new SlidingEvent());
+			dispatchEvent(context.obtain(SlidingEvent.class));
 		} else if (Math.abs(getxSpeed()) > PlatformingConstants.getMaxWalkSpeed() && !getCanRun() && isGrounded()) {
 			// moving faster than maxWalkSpeed, can't run, and grounded --> slow to walk
 			Side direction = (getxSpeed() > 0) ? Side.RIGHT : Side.LEFT;
 
-			dispatchEvent(new SlowToWalkEvent(direction));
+			SlowToWalkEvent slowToWalk = context.obtain(SlowToWalkEvent.class);
+			slowToWalk.setDirection(direction);
+			dispatchEvent(slowToWalk);
 		}
 	}
 	
@@ -136,20 +154,26 @@ public class Player implements GameEventDispatcher {
 				// ensure player does not exceed max walk speed
 				if (Math.abs(getxSpeed() + getxAcc()) > PlatformingConstants.getMaxWalkSpeed()
 						&& ((getxAcc() > 0 && getxSpeed() > 0) || (getxAcc() < 0 && getxSpeed() < 0))) {
-					dispatchEvent(new MaxWalkSpeedReachedEvent(getFacingSide()));
+					MaxWalkSpeedReachedEvent maxWalkSpeedReached = context.obtain(MaxWalkSpeedReachedEvent.class);
+					maxWalkSpeedReached.setDirection(getFacingSide());
+					dispatchEvent(maxWalkSpeedReached);
 				}
 			} else if (isRunning()) {
 				// ensure player does not exceed max run speed
 				if (Math.abs(getxSpeed() + getxAcc()) > PlatformingConstants.getMaxRunSpeed()
 						&& ((getxAcc() > 0 && getxSpeed() > 0) || (getxAcc() < 0 && getxSpeed() < 0))) {
-					dispatchEvent(new MaxRunSpeedReachedEvent(getFacingSide()));
+					MaxRunSpeedReachedEvent maxRunSpeedReached = context.obtain(MaxRunSpeedReachedEvent.class);
+					maxRunSpeedReached.setDirection(getFacingSide());
+					dispatchEvent(maxRunSpeedReached);
 				}
 			}
 		} else {
 			// ensure player does not exceed max air speed
-			if (Math.abs(getxSpeed() + getxAcc()) > PlatformingConstants.getMaxAirSpeed()
+			if (Math.abs(getxSpeed() + getxAcc()) > getMaxAirSpeed()
 					&& ((getxAcc() > 0 && getxSpeed() > 0) || (getxAcc() < 0 && getxSpeed() < 0))) {
-				dispatchEvent(new MaxAirSpeedReachedEvent(getFacingSide()));
+				MaxAirSpeedReachedEvent maxAirSpeedReached = context.obtain(MaxAirSpeedReachedEvent.class);
+				maxAirSpeedReached.setDirection(getFacingSide());
+				dispatchEvent(maxAirSpeedReached);
 			}
 		}
 
@@ -184,67 +208,50 @@ public class Player implements GameEventDispatcher {
 		}
 	}
 	
+	/**
+	 * Moves the player by its speed, one axis at a time, stopping it against the
+	 * first platform in its way on each axis (see {@link SweptCollider}). The x
+	 * axis is moved first, so the y axis is swept from the player's new x
+	 * position.
+	 */
 	private void handleCollision() {
-		// need while loop here in case player collides with more than one platform in
-		// the same frame
-		while (collided()) {
-
-			boolean causedByX = false;
-			boolean causedByY = false;
-
-			this.xPos -= this.xSpeed;
-			if (collided(getCollidedPlatform())) {
-				// collided without x movement --> collision caused by y movement
-				causedByY = true;
-			}
-			this.xPos += this.xSpeed;
-			this.yPos -= this.ySpeed;
-			if (collided(getCollidedPlatform())) {
-				// collided without y movement --> collision caused by x movement
-				causedByX = true;
-			}
-			this.yPos += this.ySpeed;
+		PlatformGrid grid = context.getActiveLevel().getPlatformGrid();
+		checkContactsCurrent(grid);
 
-			// collided because of combination of x + y movement, determine based on speed
-			if (!causedByX && !causedByY) {
-				causedByX = Math.abs(getySpeed()) > Math.abs(getxSpeed());
-				causedByY = !causedByX;
-			}
-
-			if (causedByX) {
-				// player hit a wall
-				if (getxSpeed() > 0) {
-					setxPos(getCollidedPlatform().getxPos() - getWidth() - 2);
-				} else {
-					setxPos(getCollidedPlatform().getxPos() + getCollidedPlatform().getWidth() + 2);
-				}
-
-				Side direction = (getxSpeed() > 0) ? Side.RIGHT : Side.LEFT;
-				dispatchEvent(new HitWallEvent(direction));
-			}
+		xPos = collider.sweepX(grid, xPos, yPos, width, height, xSpeed);
+		if (collider.getHit() != null) {
+			// player hit a wall
+			wallContact = collider.getHit();
 
-			if (causedByY) {
-				// player hit a floor or a ceiling
-				if (this.ySpeed > 0) {
-					setyPos(getCollidedPlatform().getyPos() - getHeight() - 2);
+			Side direction = (getxSpeed() > 0) ? Side.RIGHT : Side.LEFT;
+			HitWallEvent hitWall = context.obtain(HitWallEvent.class);
+			hitWall.setDirection(direction);
+			dispatchEvent(hitWall);
+		}
 
-					dispatchEvent(new HitFloorEvent());
-				} else {
-					setyPos(getCollidedPlatform().getyPos() + getCollidedPlatform().getHeight() + 2);
+		yPos = collider.sweepY(grid, xPos, yPos, width, height, ySpeed);
+		if (collider.getHit() != null) {
+			// player hit a floor or a ceiling
+			if (this.ySpeed > 0) {
+				floorContact = collider.getHit();
 
-					dispatchEvent(new HitCeilingEvent());
-				}
+				dispatchEvent(context.obtain(HitFloorEvent.class));
+			} else {
+				dispatchEvent(context.obtain(HitCeilingEvent.class));
 			}
-
-			setCollidedPlatform(null);
 		}
 	}
 
 	private void checkIfFalling() {
+		if (isFalling()) {
+			return;
+		}
+
 		yPos++;
 
-		if (!collided() && !isFalling()) {
-			dispatchEvent(new LeavingFloorEvent());
+		floorContact = findContact(floorContact);
+		if (floorContact == null) {
+			dispatchEvent(context.obtain(LeavingFloorEvent.class));
 		}
 
 		yPos--;
@@ -262,8 +269,11 @@ public class Player implements GameEventDispatcher {
 				sideChecked = Side.LEFT;
 			}
 
-			if (!collided()) {
-				dispatchEvent(new LeavingWallEvent(sideChecked));
+			wallContact = findContact(wallContact);
+			if (wallContact == null) {
+				LeavingWallEvent leavingWall = context.obtain(LeavingWallEvent.class);
+				leavingWall.setDirection(sideChecked);
+				dispatchEvent(leavingWall);
 			}
 
 			if (sideChecked == Side.RIGHT) {
@@ -274,9 +284,49 @@ public class Player implements GameEventDispatcher {
 		}
 	}
 
+	/**
+	 * Finds a platform the player is overlapping, starting with the platform it
+	 * was last found touching. As long as the player stays in contact with that
+	 * platform (e.g. standing or running on a floor), this is a single check, and
+	 * the platform grid is only queried once the contact is lost.
+	 * 
+	 * @param contact The platform last found touching, or <code>null</code>
+	 * @return The platform found, or <code>null</code> if the player is not
+	 *         overlapping any platform
+	 */
+	private Platform findContact(Platform contact) {
+		if (contact != null && checkContactsCurrent(context.getActiveLevel().getPlatformGrid()) && collided(contact)) {
+			return contact;
+		}
+
+		return collided() ? getCollidedPlatform() : null;
+	}
+
+	/**
+	 * Checks that the cached contacts were found in the current version of the
+	 * given grid, and forgets them if not, since their platforms may have moved
+	 * or been removed since.
+	 * 
+	 * @param grid The grid of the active level
+	 * @return <code>true</code> if the contacts are current
+	 */
+	private boolean checkContactsCurrent(PlatformGrid grid) {
+		if (grid == contactGrid && grid.getVersion() == contactVersion) {
+			return true;
+		}
+
+		floorContact = null;
+		wallContact = null;
+		contactGrid = grid;
+		contactVersion = grid.getVersion();
+
+		return false;
+	}
+
 	/**
 	 * Checks if the player is overlapping with any <code>Platform</code> in the
-	 * active level.
+	 * active level of its context. Only the platforms near the player are checked,
+	 * using the level's {@link com.pisoft.mistborn_game.levels.PlatformGrid}.
 	 * <p>
 	 * If and when the first collided <code>Platform</code> is found, the method
 	 * sets it as the current collided <code>Platform</code> and returns. Thus, it
@@ -287,16 +337,17 @@ public class Player implements GameEventDispatcher {
 	 *         <code>Platform</code>, <code>false</code> otherwise
 	 */
 	private boolean collided() {
-		// check every platform for collision
-		for (Platform platform : Game.getActiveLevel().getPlatforms()) {
-			// if player is in the same space as any platform, return true
-			if (collided(platform)) {
-				setCollidedPlatform(platform);
-				return true;
-			}
+		// one more than the collision margin, so rounding can never leave out a platform that collides
+		double margin = COLLISION_MARGIN + 1;
+
+		Platform platform = context.getActiveLevel().getPlatformGrid().findFirst(xPos - margin, yPos - margin,
+				xPos + width + margin, yPos + height + margin, collidesWithPlayer);
+
+		if (platform != null) {
+			setCollidedPlatform(platform);
+			return true;
 		}
-		// if it gets here, player is not in the same space as any platform, so return
-		// false
+
 		return false;
 	}
 
@@ -312,13 +363,13 @@ public class Player implements GameEventDispatcher {
 		boolean onSameX = false;
 		boolean onSameY = false;
 
-		if (this.xPos + this.width + 2 > platform.getxPos()
-				&& platform.getxPos() + platform.getWidth() + 2 > this.xPos) {
+		if (this.xPos + this.width + COLLISION_MARGIN > platform.getxPos()
+				&& platform.getxPos() + platform.getWidth() + COLLISION_MARGIN > this.xPos) {
 			onSameX = true;
 		}
 
-		if (this.yPos + this.height + 2 > platform.getyPos()
-				&& platform.getyPos() + platform.getHeight() + 2 > this.yPos) {
+		if (this.yPos + this.height + COLLISION_MARGIN > platform.getyPos()
+				&& platform.getyPos() + platform.getHeight() + COLLISION_MARGIN > this.yPos) {
 			onSameY = true;
 		}
 
@@ -339,6 +390,21 @@ public class Player implements GameEventDispatcher {
 
 	// getters / setters
 	// -----------------------------------------------------------------------------------------------
+	@Override
+	public GameContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Sets the context this player is simulated in. Called by
+	 * <code>GameContext.setActiveLevel()</code>.
+	 * 
+	 * @param context The context of this player
+	 */
+	public void setContext(GameContext context) {
+		this.context = context;
+	}
+
 	public int getLagFrames() {
 		return lagFrames;
 	}
@@ -467,6 +533,14 @@ public class Player implements GameEventDispatcher {
 		this.canRun = canRun;
 	}
 
+	public double getMaxAirSpeed() {
+		return maxAirSpeed;
+	}
+
+	public void setMaxAirSpeed(double maxAirSpeed) {
+		this.maxAirSpeed = maxAirSpeed;
+	}
+
 	public boolean isSliding() {
 		return sliding;
 	}
@@ -628,8 +702,23 @@ public class Player implements GameEventDispatcher {
 	}
 
 	@Override
-	public ArrayList<GameEventListener> getListeners() {
-		return listeners;
+	public GameEventSubscriptions getListeners() {
+		return listeners.snapshot();
+	}
+
+	@Override
+	public void addGameEventListener(GameEventListener listener, Class<? extends GameEvent> type) {
+		listeners.add(listener, type);
+	}
+
+	@Override
+	public void removeGameEventListener(GameEventListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void removeGameEventListener(int index) {
+		listeners.remove(index);
 	}
 
 	@Override
@@ -24,13 +24,13 @@ public abstract class PlayerAction extends GameEvent implements Comparable<Playe
 	@Override
 	public int compareTo(PlayerAction other) {
 		if (this.isSideEffect() && other.isSideEffect()) {
-			return Long.compare(this.getCreationTime(), other.getCreationTime());
+			return Long.compare(this.getCreationTick(), other.getCreationTick());
 		} else if (this.isSideEffect()) {
 			return -1;
 		} else if (other.isSideEffect()) {
 			return 1;
 		} else {
-			return Long.compare(this.getCreationTime(), other.getCreationTime());
+			return Long.compare(this.getCreationTick(), other.getCreationTick());
 		}
 	}
 
@@ -1,10 +1,15 @@
 package com.pisoft.mistborn_game.player.actions;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
+import com.pisoft.mistborn_game.GameContext;
 import com.pisoft.mistborn_game.player.game_events.ConditionalGameEventQueue;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
 import com.pisoft.mistborn_game.player.game_events.GameEventListener;
 import com.pisoft.mistborn_game.player.game_events.GameEventManager;
+import com.pisoft.mistborn_game.player.intents.PlayerIntent;
+import com.pisoft.mistborn_game.replay.InputRecorder;
 
 /**
  * Class to manage the resolution of a queue of <code>PlayerAction</code>s. It
@@ -12,7 +17,7 @@ import com.pisoft.mistborn_game.player.game_events.GameEventManager;
  * its own condition on which to add events.
  * <p>
  * By default, there are two buffers used. One ensures that the action's valid
- * execution time has already passed using the <code>Game</code>'s current time,
+ * execution tick has already been reached using the context's current tick,
  * and the other prevents any actions with target players that are lagging from
  * being executed.
  * <p>
@@ -21,6 +26,10 @@ import com.pisoft.mistborn_game.player.game_events.GameEventManager;
  * but instead moved into the buffer until it no longer meets that condition. If
  * no buffer's condition is met, the action is resolved and removed from the
  * main queue.
+ * <p>
+ * If a recorder is set, every intent received through the ingress queue is
+ * recorded along with the tick it was created in, so that the session can be
+ * replayed later.
  * 
  * @author gouldb
  */
@@ -28,13 +37,17 @@ public class PlayerActionManager extends GameEventManager<PlayerAction> implemen
 	
 	private static final int BUFFER_LENGTH = 5;
 
+	private volatile InputRecorder recorder;
+
 	/**
 	 * Constructs a new <code>PlayerActionManager</code> with the default set of
-	 * buffers: one for actions that have not reached their valid execution time
+	 * buffers: one for actions that have not reached their valid execution tick
 	 * yet, and one for actions with a target player that is lagging.
+	 * 
+	 * @param context The context whose actions this manager resolves
 	 */
-	public PlayerActionManager() {
-		super(PlayerAction.class);
+	public PlayerActionManager(GameContext context) {
+		super(context, PlayerAction.class);
 
 		queuedEvents.setComp((a1, a2) -> a1.compareTo(a2));
 
@@ -54,7 +67,15 @@ public class PlayerActionManager extends GameEventManager<PlayerAction> implemen
 	protected void cleanUp() {
 		super.cleanUp();
 
+		if (queuedEvents.size() == 0) {
+			return;
+		}
+
 		ArrayList<PlayerAction> lagged = queuedEvents.filter(e -> e.getTargetPlayer().getLagFrames() >= BUFFER_LENGTH);
+		if (lagged.isEmpty()) {
+			return;
+		}
+
 		ArrayList<PlayerAction> toRemove = new ArrayList<>();
 
 		for (PlayerAction action : lagged) {
@@ -63,19 +84,58 @@ public class PlayerActionManager extends GameEventManager<PlayerAction> implemen
 			for (PlayerAction end : lagged) {
 				if (end.getClass() == endAction) {
 					toRemove.add(action);
+					break;
 				}
 			}
 		}
 
 		lagged.removeAll(toRemove);
 		queuedEvents.addAll(lagged);
+
+		for (PlayerAction action : toRemove) {
+			metrics.discarded(action);
+			action.release();
+		}
+	}
+
+	@Override
+	protected void ingressReceived(GameEvent event) {
+		InputRecorder recorder = this.recorder;
+
+		if (recorder != null && event instanceof PlayerIntent) {
+			try {
+				recorder.record(event.getCreationTick(), (PlayerIntent) event);
+			} catch (IOException e) {
+				e.printStackTrace();
+				this.recorder = null;
+			}
+		}
 	}
 
 	@Override
 	protected void resolve(PlayerAction event) {
-		System.out.println("Resolving action: " + event.getClass().getSimpleName());
+		if (context.isPrintResolutions()) {
+			System.out.println("Resolving action: " + event.getClass().getSimpleName());
+		}
+
 		event.resolve();
 		// TODO: this should be part of actions resolve method
 		event.getTargetPlayer().setLagFrames(Math.max(event.getLagFrames(), event.getTargetPlayer().getLagFrames()));
 	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	public InputRecorder getRecorder() {
+		return recorder;
+	}
+
+	/**
+	 * Sets the recorder that intents received through the ingress queue are
+	 * recorded to.
+	 * 
+	 * @param recorder The recorder to use, or <code>null</code> to stop recording
+	 */
+	public void setRecorder(InputRecorder recorder) {
+		this.recorder = recorder;
+	}
 }
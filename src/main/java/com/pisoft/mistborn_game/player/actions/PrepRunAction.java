@@ -13,7 +13,7 @@ public class PrepRunAction extends PlayerAction {
 	@Override
 	public void resolve() {
 		targetPlayer.setCanRun(true);
-		PlatformingConstants.setMaxAirSpeed(PlatformingConstants.getMaxRunSpeed());
+		targetPlayer.setMaxAirSpeed(PlatformingConstants.getMaxRunSpeed());
 
 		// TODO: does not dispatch after wall jump
 		if (targetPlayer.isAccelerating()
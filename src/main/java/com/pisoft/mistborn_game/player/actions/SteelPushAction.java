@@ -1,24 +1,23 @@
 package com.pisoft.mistborn_game.player.actions;
 
-import java.awt.Point;
-
-import com.pisoft.mistborn_game.Game;
 import com.pisoft.mistborn_game.levels.Metal;
 
 public class SteelPushAction extends PlayerAction {
 	
-	private Point location;
+	private int x;
+	private int y;
 	
-	public SteelPushAction(Point location) {
+	public SteelPushAction(int x, int y) {
 		super();
 		
-		this.location = location;
+		this.x = x;
+		this.y = y;
 	}
 	
 	@Override
 	public void resolve() {
-		for (Metal metal : Game.getActiveLevel().getMetals()) {
-            if (Math.hypot(location.x - metal.getxPos(), location.y - metal.getyPos()) < 80) {
+		for (Metal metal : getContext().getActiveLevel().getMetals()) {
+            if (Math.hypot(x - metal.getxPos(), y - metal.getyPos()) < 80) {
                 targetPlayer.setTargetMetal(metal);
                 targetPlayer.setSteelPushing(true);
                 return;
@@ -33,7 +32,8 @@ public class SteelPushAction extends PlayerAction {
 	public Object clone() throws CloneNotSupportedException {
 		SteelPushAction clone = (SteelPushAction) super.clone();
 		
-		clone.location = this.location;
+		clone.x = this.x;
+		clone.y = this.y;
 		
 		return clone;
 	}
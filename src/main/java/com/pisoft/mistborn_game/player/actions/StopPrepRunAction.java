@@ -15,7 +15,7 @@ public class StopPrepRunAction extends PlayerAction {
 		if (targetPlayer.getxSpeed() != 0) {
 			targetPlayer.setWalking(true);
 		}
-		PlatformingConstants.setMaxAirSpeed(PlatformingConstants.getMaxWalkSpeed());
+		targetPlayer.setMaxAirSpeed(PlatformingConstants.getMaxWalkSpeed());
 
 		targetPlayer.setxAcc(0);
 	}
@@ -0,0 +1,74 @@
+package com.pisoft.mistborn_game.player.constants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import com.pisoft.mistborn_game.player.game_events.FinishLandingEvent;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
+import com.pisoft.mistborn_game.player.game_events.GameEventTypes;
+import com.pisoft.mistborn_game.player.game_events.LeavingFloorEvent;
+import com.pisoft.mistborn_game.player.intents.CrouchIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+
+/**
+ * This class serves as a library for constants that determine which
+ * <code>GameEvent</code> objects are incompatible with each other (i.e. should
+ * not be allowed to be queued at the same time).
+ * <p>
+ * These values are stored in a <code>Class</code> to <code>ArrayList</code>
+ * <code>HashMap</code>. An event whose class is (or extends) a key of the map
+ * is incompatible with any event whose class is (or extends) one of the classes
+ * in the mapped list. Note that this relationship is not automatically
+ * symmetric, both directions must be added if both are wanted.
+ * <p>
+ * Before any <code>get()</code> calls are made, the method
+ * <code>initConflicts()</code> must be called, as this method actually adds all
+ * the useful mappings. Before this method is called, the map is empty.
+ * 
+ * @author gouldb
+ *
+ */
+public class GameEventConflictConstants {
+	private static HashMap<Class<? extends GameEvent>, ArrayList<Class<? extends GameEvent>>> conflicts = new HashMap<>();
+
+	/**
+	 * Adds all mappings between class and conflicting classes to the map. Before
+	 * calling this function, the map is empty.
+	 * <p>
+	 * Must be called before any calls to <code>get()</code> are needed.
+	 * 
+	 */
+	public static void initConflicts() {
+		addConflict(LeavingFloorEvent.class, FinishLandingEvent.class);
+
+		addConflict(JumpIntent.class, CrouchIntent.class);
+		addConflict(CrouchIntent.class, JumpIntent.class);
+
+		GameEventTypes.invalidateConflicts();
+	}
+
+	private static void addConflict(Class<? extends GameEvent> cls, Class<? extends GameEvent> other) {
+		ArrayList<Class<? extends GameEvent>> list = conflicts.computeIfAbsent(cls, c -> new ArrayList<>());
+
+		if (!list.contains(other)) {
+			list.add(other);
+		}
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the map of conflicts.
+	 * 
+	 * @return The <code>HashMap</code> library of conflicts.
+	 */
+	public static HashMap<Class<? extends GameEvent>, ArrayList<Class<? extends GameEvent>>> getConflicts() {
+		return conflicts;
+	}
+
+	public static void setConflicts(HashMap<Class<? extends GameEvent>, ArrayList<Class<? extends GameEvent>>> conflicts) {
+		GameEventConflictConstants.conflicts = conflicts;
+
+		GameEventTypes.invalidateConflicts();
+	}
+}
@@ -15,8 +15,6 @@ public class PlatformingConstants {
 	private static final double RUN_ACC = 1; // amount that xSpeed is changed for every frame the player runs
 	private static final double MAX_WALK_SPEED = 8; // max speed the player can walk
 	private static final double MAX_RUN_SPEED = 15; // max speed the player can run
-	private static double maxAirSpeed = MAX_WALK_SPEED; // max horiz airSpeed of player (set based on if player can run
-														// or not)
 	private static final double FRICTION = 0.8; // proportion of speed that remains per frame while sliding
 	private static final double FULL_JUMP_SPEED = -17; // initial ySpeed when the player jumps
 	private static final double SHORT_JUMP_SPEED = -10; // ySpeed to set if the player releases jump early
@@ -45,14 +43,6 @@ public class PlatformingConstants {
 		return RUN_ACC;
 	}
 
-	public static double getMaxAirSpeed() {
-		return maxAirSpeed;
-	}
-
-	public static void setMaxAirSpeed(double maxAirSpeed) {
-		PlatformingConstants.maxAirSpeed = maxAirSpeed;
-	}
-
 	public static double getMaxWalkSpeed() {
 		return MAX_WALK_SPEED;
 	}
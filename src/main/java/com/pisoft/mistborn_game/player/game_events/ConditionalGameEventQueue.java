@@ -79,6 +79,17 @@ public class ConditionalGameEventQueue<T extends GameEvent> extends GameEventQue
 		return filter(condition.negate());
 	}
 
+	/**
+	 * Removes the set of all elements that no longer belong in this queue, and
+	 * adds them to another queue. Subclasses that can do this without building an
+	 * intermediate list should override this method.
+	 * 
+	 * @param target The queue to move the elements into
+	 */
+	public void harvestInto(GameEventQueue<T> target) {
+		target.addAll(harvest());
+	}
+
 	// getters / setters
 	// -----------------------------------------------------------------------------------------------
 	public Predicate<T> getCondition() {
@@ -1,8 +1,6 @@
 package com.pisoft.mistborn_game.player.game_events;
 
-import java.util.ArrayList;
-
-import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameContext;
 import com.pisoft.mistborn_game.player.Player;
 import com.pisoft.mistborn_game.player.constants.GameEventLagConstants;
 import com.pisoft.mistborn_game.player.constants.GameEventPriorityConstants;
@@ -10,21 +8,42 @@ import com.pisoft.mistborn_game.player.constants.GameEventPriorityConstants;
 public abstract class GameEvent implements GameEventDispatcher, Cloneable {
 	protected Player targetPlayer;
 
-	private ArrayList<GameEventListener> listeners = new ArrayList<>();
+	// context this event was dispatched in
+	private GameContext context;
+
+	// snapshot of the listeners this event was dispatched through, shared with its
+	// source
+	private GameEventSubscriptions listeners = GameEventSubscriptions.EMPTY;
 
 	private int lagFrames;
 	private int priority;
 
-	private long creationTime;
-	private long validExecutionTime;
+	private long creationTick;
+	private long validExecutionTick;
+
+	// whether the creation tick has been set since this event was constructed or reset
+	private boolean creationTickSet;
 
 	private boolean isSideEffect;
 
+	private final int typeId = GameEventTypes.idOf(getClass());
+
+	// pooling state, see GameEventPool
+	private GameEventPool<?> pool;
+	private int references;
+	private boolean released;
+	private Throwable releasedAt;
+
 	public GameEvent() {
-		long time = Game.getCurrentTime();
+		initState();
+	}
 
-		setCreationTime(time);
-		setValidExecutionTime(time);
+	private void initState() {
+		// the creation tick is stamped when the event is obtained or first dispatched,
+		// the valid execution tick when it is dispatched
+		creationTick = 0;
+		creationTickSet = false;
+		setValidExecutionTick(0);
 		setSideEffect(false);
 		
 		setPriority(GameEventPriorityConstants.getActionPriorities().getOrDefault(this.getClass(), 0));
@@ -33,6 +52,93 @@ public abstract class GameEvent implements GameEventDispatcher, Cloneable {
 
 	public abstract void resolve();
 
+	/**
+	 * Returns this event to the state it was in when it was constructed, so that
+	 * it can be reused by a <code>GameEventPool</code>.
+	 * <p>
+	 * Any subclass with its own state should override this method to clear it, and
+	 * call <code>super.reset()</code>.
+	 */
+	protected void reset() {
+		initState();
+
+		targetPlayer = null;
+		context = null;
+		listeners = GameEventSubscriptions.EMPTY;
+
+		references = 0;
+		released = false;
+		releasedAt = null;
+	}
+
+	// pooling methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Marks that some manager is holding onto this event. Every call must be
+	 * matched by a call to <code>release()</code>.
+	 */
+	public void retain() {
+		checkNotReleased();
+
+		references++;
+	}
+
+	/**
+	 * Releases one reference to this event. Once every reference has been
+	 * released, the event is returned to the pool it was acquired from (if any),
+	 * and must not be used again.
+	 */
+	public void release() {
+		checkNotReleased();
+
+		if (references > 0) {
+			references--;
+		}
+
+		if (references == 0 && pool != null) {
+			pool.recycle(this);
+		}
+	}
+
+	/**
+	 * Checks that this event has not been returned to its pool.
+	 * 
+	 * @throws IllegalStateException if the event has been released
+	 */
+	void checkNotReleased() {
+		if (released) {
+			throw new IllegalStateException(getClass().getSimpleName() + " used after being released to its pool",
+					releasedAt);
+		}
+	}
+
+	/**
+	 * Marks this event as dispatched in a context. Called by every dispatch method
+	 * of {@link GameEventDispatcher}.
+	 * <p>
+	 * Only the first dispatch counts: an event that is passed on again keeps the
+	 * context and creation tick it was first given, and an event whose creation
+	 * tick was already set (e.g. by <code>GameContext.obtain()</code>) keeps it.
+	 */
+	void stamp(GameContext context) {
+		if (this.context == null) {
+			this.context = context;
+		}
+
+		if (!creationTickSet) {
+			setCreationTick(context.getCurrentTick());
+		}
+	}
+
+	void setPool(GameEventPool<?> pool) {
+		this.pool = pool;
+	}
+
+	void markReleased(Throwable releasedAt) {
+		this.released = true;
+		this.releasedAt = releasedAt;
+	}
+
 	// NOTE: I should override all dispatch methods to be safe
 	@Override
 	public void dispatchEvent(GameEvent e) {
@@ -45,12 +151,20 @@ public abstract class GameEvent implements GameEventDispatcher, Cloneable {
 	public Object clone() throws CloneNotSupportedException {
 		GameEvent clone = (GameEvent) super.clone();
 
+		// clones are never pooled
+		clone.pool = null;
+		clone.references = 0;
+		clone.released = false;
+		clone.releasedAt = null;
+
 		clone.setLagFrames(this.getLagFrames());
 		clone.setPriority(this.getPriority());
 
-		// NOTE: figure out how we want to handle timestamps
-		clone.setCreationTime(Game.getCurrentTime());
-		clone.setValidExecutionTime(this.getValidExecutionTime());
+		// NOTE: figure out how we want to handle timestamps (for now, the creation tick
+		// is stamped when the clone is dispatched)
+		clone.context = null;
+		clone.creationTickSet = false;
+		clone.setValidExecutionTick(this.getValidExecutionTick());
 
 		return clone;
 	}
@@ -65,33 +179,87 @@ public abstract class GameEvent implements GameEventDispatcher, Cloneable {
 	 * lag, invalid execution times, etc.). Therefore, it is necessary to be able
 	 * check if two events are compatible after they have already been dispatched.
 	 * <p>
-	 * By default, this method signals that this event is compatible with any other
-	 * event. It should be overriden in any subclass where this is not true in order
-	 * to achieve the desired behavior.
+	 * By default, this method looks up the two events' classes in the conflicts
+	 * declared in <code>GameEventConflictConstants</code>, and signals that this
+	 * event is compatible with any event it is not declared to conflict with.
+	 * Conflicts that depend only on the classes of the two events should be
+	 * declared there.
+	 * <p>
+	 * This method should only be overriden in a subclass when compatibility depends
+	 * on the state of the events themselves. Managers will then fall back to
+	 * calling it against every other event, instead of only the ones of
+	 * conflicting types.
 	 * 
 	 * @param other The event to check against
 	 * @return <code>true</code> if the events are compatible, <code>false</code>
 	 *         otherwise
 	 */
 	public boolean isCompatible(GameEvent other) {
-		return true;
+		return GameEventTypes.isCompatible(typeId, other.typeId);
 	}
 
 	// getters and setters
 	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the dense id of this event's class, as assigned by
+	 * <code>GameEventTypes</code>.
+	 * 
+	 * @return The type id of this event
+	 */
+	public int getTypeId() {
+		return typeId;
+	}
+
 	public Player getTargetPlayer() {
 		return targetPlayer;
 	}
 
+	/**
+	 * Gets the context this event was dispatched in. Side effects dispatched
+	 * while resolving this event are dispatched in the same context.
+	 * 
+	 * @return The context of this event, or <code>null</code> if it has not been
+	 *         dispatched
+	 */
+	@Override
+	public GameContext getContext() {
+		return context;
+	}
+
 	public void setTargetPlayer(Player targetPlayer) {
 		this.targetPlayer = targetPlayer;
 	}
 
 	@Override
-	public ArrayList<GameEventListener> getListeners() {
+	public GameEventSubscriptions getListeners() {
 		return listeners;
 	}
 
+	/**
+	 * Sets the listeners this event was dispatched through. The subscriptions are
+	 * shared, not copied.
+	 * 
+	 * @param listeners The snapshot of listeners to use
+	 */
+	void setListeners(GameEventSubscriptions listeners) {
+		this.listeners = listeners;
+	}
+
+	@Override
+	public void addGameEventListener(GameEventListener listener, Class<? extends GameEvent> type) {
+		listeners = listeners.with(listener, type);
+	}
+
+	@Override
+	public void removeGameEventListener(GameEventListener listener) {
+		listeners = listeners.without(listener);
+	}
+
+	@Override
+	public void removeGameEventListener(int index) {
+		listeners = listeners.without(index);
+	}
+
 	public int getLagFrames() {
 		return lagFrames;
 	}
@@ -108,20 +276,35 @@ public abstract class GameEvent implements GameEventDispatcher, Cloneable {
 		this.priority = priority;
 	}
 
-	public long getCreationTime() {
-		return creationTime;
+	/**
+	 * Gets the tick this event was created in. Unless it is set explicitly, this is
+	 * the tick the event was obtained from its context's pool in, or else the tick
+	 * it was first dispatched in.
+	 * 
+	 * @return The creation tick of this event, as given by
+	 *         <code>GameContext.getCurrentTick()</code>
+	 */
+	public long getCreationTick() {
+		return creationTick;
 	}
 
-	public void setCreationTime(long creationTime) {
-		this.creationTime = creationTime;
+	public void setCreationTick(long creationTick) {
+		this.creationTick = creationTick;
+		this.creationTickSet = true;
 	}
 
-	public long getValidExecutionTime() {
-		return validExecutionTime;
+	/**
+	 * Gets the first tick this event may be resolved in.
+	 * 
+	 * @return The valid execution tick of this event, as given by
+	 *         <code>GameContext.getCurrentTick()</code>
+	 */
+	public long getValidExecutionTick() {
+		return validExecutionTick;
 	}
 
-	public void setValidExecutionTime(long validExecutionTime) {
-		this.validExecutionTime = validExecutionTime;
+	public void setValidExecutionTick(long validExecutionTick) {
+		this.validExecutionTick = validExecutionTick;
 	}
 
 	public boolean isSideEffect() {
@@ -1,38 +1,82 @@
 package com.pisoft.mistborn_game.player.game_events;
 
-import java.util.ArrayList;
-
-import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameContext;
 import com.pisoft.mistborn_game.player.Player;
 
+/**
+ * Interface for objects that send <code>GameEvent</code>s to a set of
+ * <code>GameEventListener</code>s.
+ * <p>
+ * Listeners are exposed as immutable {@link GameEventSubscriptions}, usually
+ * kept in a {@link GameEventListenerRegistry}. Every dispatched event stores
+ * the subscriptions it was sent through by reference, so dispatching does not
+ * copy the dispatcher's listeners. Each listener can be subscribed to a single
+ * class of events, and only receives events of that class or its subclasses.
+ * <p>
+ * Every dispatcher belongs to a {@link GameContext}. The first time an event is
+ * dispatched, it is stamped with the dispatcher's context and, unless it was
+ * obtained from the context's pool (which stamps it then), its current tick as
+ * the event's creation tick. This lets events reach the rest of their
+ * simulation without any static state, and passing an event on again does not
+ * change when it was created.
+ * 
+ * @author gouldb
+ *
+ */
 public interface GameEventDispatcher {
 	// listener management
 	// ---------------------------------------------------------------------------------------------------
-	public ArrayList<GameEventListener> getListeners();
+	/**
+	 * Gets the current snapshot of this dispatcher's listeners.
+	 * 
+	 * @return The listeners events are currently dispatched to
+	 */
+	public GameEventSubscriptions getListeners();
 
 	public Player getTargetPlayer();
 
+	/**
+	 * Gets the context events are dispatched in.
+	 * 
+	 * @return The context of this dispatcher
+	 */
+	public GameContext getContext();
+
+	/**
+	 * Adds a listener that will only receive events of the given class and its
+	 * subclasses.
+	 * 
+	 * @param listener The listener to add
+	 * @param type     The class of events the listener should receive
+	 */
+	public void addGameEventListener(GameEventListener listener, Class<? extends GameEvent> type);
+
+	/**
+	 * Adds a listener that will receive every event.
+	 * 
+	 * @param listener The listener to add
+	 */
 	default void addGameEventListener(GameEventListener listener) {
-		getListeners().add(listener);
+		addGameEventListener(listener, GameEvent.class);
 	}
 
-	default void removeGameEventListener(GameEventListener listener) {
-		getListeners().remove(listener);
-	}
+	public void removeGameEventListener(GameEventListener listener);
 
-	default void removeGameEventListener(int index) {
-		getListeners().remove(index);
-	}
+	public void removeGameEventListener(int index);
 
 	// object dispatch methods
 	// ---------------------------------------------------------------------------------------------------
 	default void dispatchEvent(GameEvent event) {
 		if (event != null) {
+			event.checkNotReleased();
+			event.stamp(getContext());
+
 			event.setTargetPlayer(getTargetPlayer());
-			event.getListeners().clear();
-			event.getListeners().addAll(this.getListeners());
 
-			for (GameEventListener listener : getListeners()) {
+			GameEventSubscriptions listeners = getListeners();
+			event.setListeners(listeners);
+
+			for (GameEventListener listener : listeners.route(event)) {
 				listener.receiveGameEvent(event);
 			}
 		}
@@ -40,11 +84,11 @@ public interface GameEventDispatcher {
 
 	default void dispatchEvent(GameEvent event, GameEventListener listener) {
 		if (event != null) {
-			event.setCreationTime(Game.getCurrentTime());
+			event.checkNotReleased();
+			event.stamp(getContext());
 
 			event.setTargetPlayer(getTargetPlayer());
-			event.getListeners().clear();
-			event.addGameEventListener(listener);
+			event.setListeners(listener.getSingletonSubscriptions());
 
 			listener.receiveGameEvent(event);
 		}
@@ -52,14 +96,16 @@ public interface GameEventDispatcher {
 
 	default void dispatchEvent(GameEvent event, int delayFrames) {
 		if (event != null) {
-			event.setCreationTime(Game.getCurrentTime());
-			event.setValidExecutionTime(event.getCreationTime() + Game.getTickDelay() * delayFrames);
+			event.checkNotReleased();
+			event.stamp(getContext());
+			event.setValidExecutionTick(event.getCreationTick() + delayFrames);
 
 			event.setTargetPlayer(getTargetPlayer());
-			event.getListeners().clear();
-			event.getListeners().addAll(this.getListeners());
 
-			for (GameEventListener listener : getListeners()) {
+			GameEventSubscriptions listeners = getListeners();
+			event.setListeners(listeners);
+
+			for (GameEventListener listener : listeners.route(event)) {
 				listener.receiveGameEvent(event);
 			}
 		}
@@ -0,0 +1,91 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free, multiple producer / single consumer queue used to hand events from
+ * other threads (e.g. the AWT Event Dispatch Thread) to the game thread.
+ * <p>
+ * Any number of threads may call <code>receiveGameEvent()</code> at the same
+ * time, which never blocks. Only the thread that owns the receiving manager may
+ * call <code>poll()</code>. Events are handed out in the order they were
+ * received, and everything a producer did to an event before adding it is
+ * visible to the consumer after polling it.
+ * <p>
+ * The queue is a linked list of nodes. Producers atomically swap themselves in
+ * as the newest node and then link the previous newest node to it. The consumer
+ * follows the links from the oldest node, so a producer that has swapped but
+ * not yet linked is simply picked up on the next poll.
+ * 
+ * @author gouldb
+ *
+ */
+public class GameEventIngressQueue implements GameEventListener {
+
+	// newest node, swapped by producers
+	private final AtomicReference<Node> head;
+
+	// oldest node, only touched by the consumer. Its event has already been polled
+	private Node tail;
+
+	/**
+	 * Constructs a new, empty <code>GameEventIngressQueue</code>.
+	 */
+	public GameEventIngressQueue() {
+		Node stub = new Node(null);
+
+		head = new AtomicReference<>(stub);
+		tail = stub;
+	}
+
+	/**
+	 * Adds an event to the queue. Safe to call from any thread.
+	 */
+	@Override
+	public void receiveGameEvent(GameEvent event) {
+		if (event != null) {
+			Node node = new Node(event);
+
+			head.getAndSet(node).next = node;
+		}
+	}
+
+	/**
+	 * Removes and returns the oldest event in the queue. Must only be called by the
+	 * consuming thread.
+	 * 
+	 * @return The oldest event, or <code>null</code> if the queue is empty
+	 */
+	public GameEvent poll() {
+		Node next = tail.next;
+
+		if (next == null) {
+			return null;
+		}
+
+		GameEvent event = next.event;
+		next.event = null;
+		tail = next;
+
+		return event;
+	}
+
+	/**
+	 * Checks if there is any event ready to be polled. Must only be called by the
+	 * consuming thread.
+	 * 
+	 * @return <code>true</code> if <code>poll()</code> would return an event
+	 */
+	public boolean isEmpty() {
+		return tail.next == null;
+	}
+
+	private static class Node {
+		private GameEvent event;
+		private volatile Node next;
+
+		private Node(GameEvent event) {
+			this.event = event;
+		}
+	}
+}
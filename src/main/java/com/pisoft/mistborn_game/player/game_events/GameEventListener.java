@@ -15,4 +15,18 @@ public interface GameEventListener {
 	 * @param event The event to receive.
 	 */
 	public void receiveGameEvent(GameEvent event);
+
+	/**
+	 * Gets the subscriptions that events dispatched directly to this listener are
+	 * sent through, holding only this listener, subscribed to every event.
+	 * <p>
+	 * By default, new subscriptions are created on every call. Listeners that are
+	 * dispatched to directly every tick should override this to return
+	 * subscriptions they created once.
+	 * 
+	 * @return Subscriptions containing only this listener
+	 */
+	default GameEventSubscriptions getSingletonSubscriptions() {
+		return GameEventSubscriptions.singleton(this);
+	}
 }
@@ -0,0 +1,92 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy-on-write set of <code>GameEventListener</code>s belonging to a
+ * <code>GameEventDispatcher</code>.
+ * <p>
+ * The registry hands out its listeners as immutable
+ * {@link GameEventSubscriptions}. Every event dispatched from the same source
+ * shares the same subscriptions by reference, so dispatching does not copy or
+ * allocate anything. Adding or removing a listener builds new subscriptions and
+ * swaps them in atomically, so listeners can be changed from any thread, and
+ * events that have already been dispatched keep the listeners they were
+ * dispatched with.
+ * 
+ * @author gouldb
+ *
+ */
+public class GameEventListenerRegistry {
+	private final AtomicReference<GameEventSubscriptions> snapshot = new AtomicReference<>(
+			GameEventSubscriptions.EMPTY);
+
+	/**
+	 * Gets the current set of listeners.
+	 * 
+	 * @return The current snapshot of listeners
+	 */
+	public GameEventSubscriptions snapshot() {
+		return snapshot.get();
+	}
+
+	/**
+	 * Adds a listener to the registry, which will receive every event.
+	 * 
+	 * @param listener The listener to add
+	 */
+	public void add(GameEventListener listener) {
+		add(listener, GameEvent.class);
+	}
+
+	/**
+	 * Adds a listener to the registry, which will only receive events of the given
+	 * class and its subclasses.
+	 * 
+	 * @param listener The listener to add
+	 * @param type     The class of events the listener should receive
+	 */
+	public void add(GameEventListener listener, Class<? extends GameEvent> type) {
+		GameEventSubscriptions current;
+
+		do {
+			current = snapshot.get();
+		} while (!snapshot.compareAndSet(current, current.with(listener, type)));
+	}
+
+	/**
+	 * Removes the first occurrence of a listener from the registry, if it is
+	 * present.
+	 * 
+	 * @param listener The listener to remove
+	 */
+	public void remove(GameEventListener listener) {
+		GameEventSubscriptions current;
+
+		do {
+			current = snapshot.get();
+		} while (!snapshot.compareAndSet(current, current.without(listener)));
+	}
+
+	/**
+	 * Removes the listener at the specified index of the current snapshot.
+	 * 
+	 * @param index Index to remove at
+	 */
+	public void remove(int index) {
+		GameEventSubscriptions current;
+
+		do {
+			current = snapshot.get();
+		} while (!snapshot.compareAndSet(current, current.without(index)));
+	}
+
+	/**
+	 * Gets the number of listeners currently registered.
+	 * 
+	 * @return The size of the current snapshot
+	 */
+	public int size() {
+		return snapshot.get().size();
+	}
+}
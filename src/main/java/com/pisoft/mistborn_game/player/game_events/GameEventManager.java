@@ -1,8 +1,14 @@
 package com.pisoft.mistborn_game.player.game_events;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.GameContext;
 
 /**
  * Class to manage the resolution of a queue of <code>GameEvent</code>s. It
@@ -10,38 +16,69 @@ import com.pisoft.mistborn_game.Game;
  * its own condition on which to add events.
  * <p>
  * By default, the only buffer used ensures that the event's valid execution
- * time has already passed using the <code>Game</code>'s current time.
+ * tick has already been reached using its <code>GameContext</code>'s current
+ * tick.
+ * This buffer is a {@link TimingWheelGameEventBuffer}, so events waiting on a
+ * delay are not looked at again until the tick they become valid in.
  * <p>
  * During event resolution, each event is checked against the condition of every
  * active buffer. If it meets any of those conditions, it is not resolved, but
  * instead moved into the buffer until it no longer meets that condition. If no
  * buffer's condition is met, the event is resolved and removed from the main
  * queue.
+ * <p>
+ * A manager, along with its queues, belongs to the game thread. Events sent
+ * from any other thread must go through the manager's ingress queue (see
+ * {@link #getIngress()}), which is drained at the start of every call to
+ * <code>resolveQueuedEvents()</code>.
+ * <p>
+ * Every manager keeps {@link GameEventMetrics} of how it has handled each
+ * class of event, which can be read with <code>getMetrics()</code>.
  * 
  * @author gouldb
  */
 public class GameEventManager<T extends GameEvent> implements GameEventListener {
-
 	protected GameEventQueue<T> queuedEvents = new GameEventQueue<>();
 	protected ArrayList<ConditionalGameEventQueue<T>> buffers = new ArrayList<>();
 
+	private final GameEventIngressQueue ingress = new GameEventIngressQueue();
+
+	// shared by every event dispatched directly to this manager
+	private final GameEventSubscriptions singleton = GameEventSubscriptions.singleton(this);
+
 	private Class<T> cls;
 
+	protected final GameContext context;
+
+	protected final GameEventMetrics metrics = new GameEventMetrics();
+
+	// reused by cleanUp() on every call
+	private final ArrayList<ArrayList<T>> buckets = new ArrayList<>();
+	private int[] usedTypes = new int[16];
+	private int usedTypeCount = 0;
+	private final ArrayList<T> conflicts = new ArrayList<>();
+	private final Set<T> discarded = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final ArrayList<T> ready = new ArrayList<>();
+	private final Consumer<T> bucketer = this::addToBucket;
+	private final Predicate<T> isDiscarded = discarded::contains;
+
 	/**
 	 * Constructs a new <code>GameEventManager</code> with the default buffer for
-	 * events whose valid execution time has not yet passed.
+	 * events whose valid execution tick has not yet been reached.
 	 * <p>
 	 * A class object of the type that this queue is meant to store must be passed
 	 * as an argument in order to allow runtime casting to a generic type. It should
 	 * be the same as the type declared in the generic parameter, otherwise,
 	 * undefined behavior may occur.
+	 * 
+	 * @param context The context whose events this manager resolves
+	 * @param cls     The class of events this manager stores
 	 */
-	public GameEventManager(Class<T> cls) {
-		getBuffers().add(new ConditionalGameEventQueue<T>(
-				(e1, e2) -> Long.compare(e1.getValidExecutionTime(), e2.getValidExecutionTime()),
-				e -> Game.getCurrentTime() < e.getValidExecutionTime()));
-
+	public GameEventManager(GameContext context, Class<T> cls) {
+		this.context = context;
 		this.cls = cls;
+
+		getBuffers().add(new TimingWheelGameEventBuffer<T>(context));
 	}
 
 	// event resolution methods
@@ -50,7 +87,8 @@ public class GameEventManager<T extends GameEvent> implements GameEventListener
 	 * Determines the appropriate way to handle each event in this manager's queues
 	 * and does so.
 	 * <p>
-	 * First, some clean up actions are performed. By default, this consists of
+	 * First, every event waiting in the ingress queue is moved into the main queue.
+	 * Then, some clean up actions are performed. By default, this consists of
 	 * removing the least important set of events for every conflict in the manager,
 	 * but can be overriden to include other things as well. Next, each event is
 	 * checked against every buffer's condition. If it meets any condition, it is
@@ -59,6 +97,7 @@ public class GameEventManager<T extends GameEvent> implements GameEventListener
 	 */
 	public void resolveQueuedEvents() {
 
+		drainIngress();
 		cleanUp();
 
 		// handle each event in the main queue
@@ -69,12 +108,19 @@ public class GameEventManager<T extends GameEvent> implements GameEventListener
 			for (ConditionalGameEventQueue<T> buffer : getBuffers()) {
 				if (buffer.test(event)) {
 					buffer.add(event);
+					metrics.buffered(event);
 					continue mainLoop;
 				}
 			}
 
 			// if it gets here, event can be resolved --> resolve it
+			event.checkNotReleased();
+
+			long startTime = System.nanoTime();
 			resolve(event);
+			metrics.resolved(event, System.nanoTime() - startTime, context.getCurrentTick() - event.getCreationTick());
+
+			event.release();
 		}
 	}
 
@@ -86,43 +132,111 @@ public class GameEventManager<T extends GameEvent> implements GameEventListener
 	 * By default, ensures that no event that is ready to be resolved has any
 	 * conflicts present in this manager.
 	 * <p>
-	 * For each event about to be resolved, the entire manager (including buffers)
-	 * is scanned, and every conflicting event is found. Then, the priority of the
-	 * event is compared to that of its conflicts. If any conflict has a strictly
-	 * higher priority than the event about to be resolved, the event is removed
-	 * from the manager. Otherwise, all conflicts are removed from the manager.
+	 * For each event about to be resolved, every conflicting event in the manager
+	 * (including buffers) is found. Then, the priority of the event is compared to
+	 * that of its conflicts. If any conflict has a strictly higher priority than
+	 * the event about to be resolved, the event is removed from the manager.
+	 * Otherwise, all conflicts are removed from the manager.
 	 * <p>
-	 * In order to efficiently scan across all buffers, buffered events are removed
-	 * from whatever buffer they were in and moved into a temporary list. The final
-	 * version of this list (with all conflicts removed) is then added back into the
-	 * main queue. This means that after calling this method, there will be events
-	 * in the main queue that actually belong in a buffer. In practice, this should
-	 * not be a problem, because events are always checked for buffer conditions
-	 * before resolution anyways.
+	 * To find conflicts, every event in the manager is sorted into a bucket by its
+	 * type id, and only the buckets of types that the event is declared to conflict
+	 * with (see {@link GameEventTypes}) are visited. Events whose class overrides
+	 * <code>isCompatible()</code> are instead checked against every event. If no
+	 * event about to be resolved could have any conflicts, the buffers are not
+	 * scanned at all.
+	 * <p>
+	 * Events that are still waiting in a buffer stay in their buffer unless they
+	 * are discarded.
 	 */
 	protected void cleanUp() {
-		// move all events into centralized location
-		ArrayList<T> events = new ArrayList<>();
-
+		// any buffered events that are ready to be resolved go to main queue
 		for (ConditionalGameEventQueue<T> buffer : getBuffers()) {
-			queuedEvents.addAll(buffer.harvest()); // any events ready to be resolved go to main queue
-			events.addAll(buffer.filter(e -> true)); // else go to general list
+			buffer.harvestInto(queuedEvents);
+		}
+
+		// nothing is about to be resolved --> nothing can conflict
+		if (queuedEvents.size() == 0) {
+			return;
 		}
 
-		events.addAll(queuedEvents.find(e -> true)); // keep list of events about to be resolved
+		// keep list of events about to be resolved
+		queuedEvents.drainTo(ready);
+
+		if (canConflict(ready)) {
+			findConflicts(ready);
+		}
+
+		// add all remaining ready events back into queue, drop discarded ones from
+		// buffers
+		for (T event : ready) {
+			if (!discarded.contains(event)) {
+				queuedEvents.add(event);
+			}
+		}
+
+		if (!discarded.isEmpty()) {
+			for (ConditionalGameEventQueue<T> buffer : getBuffers()) {
+				buffer.removeIf(isDiscarded);
+			}
+
+			for (T event : discarded) {
+				metrics.discarded(event);
+				event.release();
+			}
+		}
+
+		ready.clear();
+		discarded.clear();
+		clearBuckets();
+	}
+
+	/**
+	 * Checks whether any of the given events could possibly conflict with another
+	 * event, without looking at any other events.
+	 */
+	private boolean canConflict(ArrayList<T> events) {
+		for (T event : events) {
+			int type = event.getTypeId();
+
+			if (GameEventTypes.isInstanceDependent(type) || GameEventTypes.conflictsOf(type).length > 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Marks as discarded the least important set of events for every conflict
+	 * involving one of the ready events.
+	 */
+	private void findConflicts(ArrayList<T> ready) {
+		// sort every event in the manager into buckets by type
+		for (T event : ready) {
+			addToBucket(event);
+		}
+
+		for (ConditionalGameEventQueue<T> buffer : getBuffers()) {
+			buffer.forEach(bucketer);
+		}
 
 		// check conflicts for all events that are about to be resolved
 		// NOTE: I think this might be wrong for events that will go into a buffer but
 		// are on their first cycle in the manager.
-		while (queuedEvents.size() > 0) {
-			// get event to process
-			T event = queuedEvents.deque();
-			ArrayList<T> conflicts = new ArrayList<T>();
+		for (T event : ready) {
+			conflicts.clear();
 
 			// find all conflicts of processed event
-			for (T queued : events) {
-				if (!event.isCompatible(queued)) {
-					conflicts.add(queued);
+			int type = event.getTypeId();
+			if (GameEventTypes.isInstanceDependent(type)) {
+				for (int i = 0; i < usedTypeCount; i++) {
+					addConflicts(event, buckets.get(usedTypes[i]), true);
+				}
+			} else {
+				for (int conflictType : GameEventTypes.conflictsOf(type)) {
+					if (conflictType < buckets.size()) {
+						addConflicts(event, buckets.get(conflictType), false);
+					}
 				}
 			}
 
@@ -138,15 +252,49 @@ public class GameEventManager<T extends GameEvent> implements GameEventListener
 
 			if (eventImportant) {
 				// event is most important --> keep it, discard conflicts
-				events.removeAll(conflicts);
+				discarded.addAll(conflicts);
 			} else {
 				// event is not as important as conflicts --> discard it
-				events.remove(event);
+				discarded.add(event);
+			}
+		}
+
+		conflicts.clear();
+	}
+
+	private void addConflicts(T event, ArrayList<T> bucket, boolean checkEach) {
+		for (T queued : bucket) {
+			if (!discarded.contains(queued) && (!checkEach || !event.isCompatible(queued))) {
+				conflicts.add(queued);
 			}
 		}
+	}
+
+	private void addToBucket(T event) {
+		int type = event.getTypeId();
+
+		while (buckets.size() <= type) {
+			buckets.add(new ArrayList<>());
+		}
+
+		ArrayList<T> bucket = buckets.get(type);
+		if (bucket.isEmpty()) {
+			if (usedTypeCount == usedTypes.length) {
+				usedTypes = Arrays.copyOf(usedTypes, usedTypeCount * 2);
+			}
+
+			usedTypes[usedTypeCount++] = type;
+		}
+
+		bucket.add(event);
+	}
+
+	private void clearBuckets() {
+		for (int i = 0; i < usedTypeCount; i++) {
+			buckets.get(usedTypes[i]).clear();
+		}
 
-		// add all resulting processed events back into queue
-		queuedEvents.addAll(events);
+		usedTypeCount = 0;
 	}
 
 	/**
@@ -155,20 +303,106 @@ public class GameEventManager<T extends GameEvent> implements GameEventListener
 	 * @param event The event to resolve
 	 */
 	protected void resolve(T event) {
-		System.out.println("Resolving event: " + event.getClass().getSimpleName());
+		if (context.isPrintResolutions()) {
+			System.out.println("Resolving event: " + event.getClass().getSimpleName());
+		}
+
 		event.resolve();
 	}
 
 	/**
-	 * Adds an event to the main queue.
+	 * Moves every event waiting in the ingress queue into the main queue, in the
+	 * order they were received.
+	 * <p>
+	 * Each event's listeners are updated to point at this manager instead of the
+	 * ingress queue, since any side effects it dispatches will be dispatched from
+	 * the game thread, and should be resolved in the same pass as it is.
+	 * <p>
+	 * An event created after the current tick started (i.e. while this tick was
+	 * already running) is held until the next tick, as it would have been had it
+	 * been created a moment sooner. Every event from the ingress is therefore
+	 * applied in the tick after the one it was created in, however the threads
+	 * happen to interleave, which is what lets a recorded session be replayed
+	 * exactly.
+	 */
+	public void drainIngress() {
+		GameEvent event;
+
+		while ((event = ingress.poll()) != null) {
+			if (event.getCreationTick() >= context.getCurrentTick()) {
+				event.setValidExecutionTick(Math.max(event.getValidExecutionTick(), event.getCreationTick() + 1));
+			}
+
+			event.setListeners(event.getListeners().replace(ingress, this));
+			ingressReceived(event);
+			receiveGameEvent(event);
+		}
+	}
+
+	/**
+	 * Called on the game thread for every event drained from the ingress queue,
+	 * just before it is added to the main queue. Does nothing by default.
+	 * 
+	 * @param event The event that was drained
+	 */
+	protected void ingressReceived(GameEvent event) {
+	}
+
+	/**
+	 * Adds an event to the main queue. Must only be called from the game thread,
+	 * other threads should send events to the ingress queue instead. The event is
+	 * retained until it is resolved or discarded, at which point it is released.
 	 */
 	@Override
 	public void receiveGameEvent(GameEvent event) {
 		if (event != null) {
+			event.retain();
 			queuedEvents.add(cls.cast(event));
+			metrics.received(event);
 		}
 	}
 
+	/**
+	 * Gets the listener that any thread other than the game thread should send
+	 * events for this manager to. Events sent to it are added to this manager the
+	 * next time its queued events are resolved.
+	 * 
+	 * @return This manager's ingress queue
+	 */
+	public GameEventListener getIngress() {
+		return ingress;
+	}
+
+	@Override
+	public GameEventSubscriptions getSingletonSubscriptions() {
+		return singleton;
+	}
+
+	/**
+	 * Gets the metrics of every event this manager has handled. The returned
+	 * object keeps changing as more events are handled, use its
+	 * <code>snapshot()</code> method for a copy that does not.
+	 * 
+	 * @return This manager's metrics
+	 */
+	public GameEventMetrics getMetrics() {
+		return metrics;
+	}
+
+	public GameContext getContext() {
+		return context;
+	}
+
+	/**
+	 * Gets the class of events this manager stores. Dispatchers should subscribe
+	 * the manager to this class, so that it is never sent events it cannot store.
+	 * 
+	 * @return The class of events this manager stores
+	 */
+	public Class<T> getEventClass() {
+		return cls;
+	}
+
 	// buffer management methods
 	// ---------------------------------------------------------------------------------------------------
 	/**
@@ -0,0 +1,230 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Counters and histograms describing how a <code>GameEventManager</code> has
+ * handled each class of event.
+ * <p>
+ * For every event class, the number of events received, moved into a buffer,
+ * discarded (by conflicts or any other clean up) and resolved are counted.
+ * Each resolved event also records how long its <code>resolve()</code> call
+ * took (in ns) and how many ticks passed between its creation tick and its
+ * resolution, in a {@link LatencyHistogram}.
+ * <p>
+ * Metrics are indexed by the event class's id in {@link GameEventTypes}, so
+ * recording is a few array writes. They are updated on the game thread and
+ * are not thread safe, so snapshots taken from any other thread may be
+ * slightly out of date or inconsistent.
+ * 
+ * @author gouldb
+ *
+ */
+public class GameEventMetrics {
+	private TypeMetrics[] types = new TypeMetrics[0];
+
+	// recording methods
+	// ---------------------------------------------------------------------------------------------------
+	public void received(GameEvent event) {
+		of(event).received++;
+	}
+
+	public void buffered(GameEvent event) {
+		of(event).buffered++;
+	}
+
+	public void discarded(GameEvent event) {
+		of(event).discarded++;
+	}
+
+	/**
+	 * Records that an event has been resolved.
+	 * 
+	 * @param event        The event that was resolved
+	 * @param resolveNanos How long resolving it took, in ns
+	 * @param ticksQueued  Number of ticks between its creation and its resolution
+	 */
+	public void resolved(GameEvent event, long resolveNanos, long ticksQueued) {
+		TypeMetrics metrics = of(event);
+
+		metrics.resolved++;
+		metrics.resolveTime.record(resolveNanos);
+		metrics.residency.record(ticksQueued);
+	}
+
+	private TypeMetrics of(GameEvent event) {
+		int id = event.getTypeId();
+
+		if (id >= types.length) {
+			types = Arrays.copyOf(types, Math.max(id + 1, GameEventTypes.count()));
+		}
+
+		TypeMetrics metrics = types[id];
+		if (metrics == null) {
+			metrics = new TypeMetrics(event.getClass());
+			types[id] = metrics;
+		}
+
+		return metrics;
+	}
+
+	// reporting methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the metrics recorded for an event class.
+	 * 
+	 * @param type The class of events
+	 * @return The metrics for the class, or <code>null</code> if no events of it
+	 *         have been recorded
+	 */
+	public TypeMetrics get(Class<? extends GameEvent> type) {
+		int id = GameEventTypes.idOf(type);
+		TypeMetrics[] types = this.types;
+
+		return (id < types.length) ? types[id] : null;
+	}
+
+	/**
+	 * Gets the metrics of every event class with anything recorded, ordered by
+	 * the total time spent resolving them (highest first).
+	 * 
+	 * @return The metrics of every recorded event class
+	 */
+	public ArrayList<TypeMetrics> getAll() {
+		ArrayList<TypeMetrics> ret = new ArrayList<>();
+
+		for (TypeMetrics metrics : types) {
+			if (metrics != null) {
+				ret.add(metrics);
+			}
+		}
+
+		ret.sort((m1, m2) -> Long.compare(m2.resolveTime.getSum(), m1.resolveTime.getSum()));
+
+		return ret;
+	}
+
+	/**
+	 * Creates a copy of these metrics, which does not change as more events are
+	 * recorded.
+	 * 
+	 * @return A snapshot of these metrics
+	 */
+	public GameEventMetrics snapshot() {
+		GameEventMetrics snapshot = new GameEventMetrics();
+		TypeMetrics[] types = this.types;
+
+		snapshot.types = new TypeMetrics[types.length];
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] != null) {
+				snapshot.types[i] = types[i].copy();
+			}
+		}
+
+		return snapshot;
+	}
+
+	/**
+	 * Discards everything recorded so far.
+	 */
+	public void reset() {
+		types = new TypeMetrics[0];
+	}
+
+	/**
+	 * Prints a table of every recorded event class, ordered by the total time
+	 * spent resolving them.
+	 * 
+	 * @param out  The stream to print to
+	 * @param name A name for these metrics, printed as the table's title
+	 */
+	public void dump(PrintStream out, String name) {
+		out.println(name + ":");
+		out.println(String.format("%-28s %9s %9s %9s %9s %12s %10s %10s %10s %8s %8s", "event", "received",
+				"buffered", "discarded", "resolved", "total ns", "mean ns", "p99 ns", "max ns", "p50 tk", "p99 tk"));
+
+		for (TypeMetrics metrics : getAll()) {
+			LatencyHistogram time = metrics.resolveTime;
+			LatencyHistogram residency = metrics.residency;
+
+			out.println(String.format("%-28s %9d %9d %9d %9d %12d %10.0f %10d %10d %8d %8d",
+					metrics.type.getSimpleName(), metrics.received, metrics.buffered, metrics.discarded,
+					metrics.resolved, time.getSum(), time.getMean(), time.getPercentile(0.99), time.getMax(),
+					residency.getPercentile(0.5), residency.getPercentile(0.99)));
+		}
+	}
+
+	/**
+	 * Metrics recorded for a single event class.
+	 */
+	public static class TypeMetrics {
+		private final Class<? extends GameEvent> type;
+
+		private long received;
+		private long buffered;
+		private long discarded;
+		private long resolved;
+
+		private final LatencyHistogram resolveTime;
+		private final LatencyHistogram residency;
+
+		private TypeMetrics(Class<? extends GameEvent> type) {
+			this(type, new LatencyHistogram(), new LatencyHistogram());
+		}
+
+		private TypeMetrics(Class<? extends GameEvent> type, LatencyHistogram resolveTime,
+				LatencyHistogram residency) {
+			this.type = type;
+			this.resolveTime = resolveTime;
+			this.residency = residency;
+		}
+
+		private TypeMetrics copy() {
+			TypeMetrics copy = new TypeMetrics(type, resolveTime.copy(), residency.copy());
+
+			copy.received = received;
+			copy.buffered = buffered;
+			copy.discarded = discarded;
+			copy.resolved = resolved;
+
+			return copy;
+		}
+
+		public Class<? extends GameEvent> getType() {
+			return type;
+		}
+
+		public long getReceived() {
+			return received;
+		}
+
+		public long getBuffered() {
+			return buffered;
+		}
+
+		public long getDiscarded() {
+			return discarded;
+		}
+
+		public long getResolved() {
+			return resolved;
+		}
+
+		/**
+		 * Gets the histogram of how long each <code>resolve()</code> call took, in ns.
+		 */
+		public LatencyHistogram getResolveTime() {
+			return resolveTime;
+		}
+
+		/**
+		 * Gets the histogram of how many ticks passed between each event's creation
+		 * and its resolution.
+		 */
+		public LatencyHistogram getResidency() {
+			return residency;
+		}
+	}
+}
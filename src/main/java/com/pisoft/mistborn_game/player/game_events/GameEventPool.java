@@ -0,0 +1,157 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Pool of recyclable <code>GameEvent</code> objects of a single type.
+ * <p>
+ * Events that are dispatched every tick (e.g. by <code>Player.tick()</code>)
+ * should be acquired from a pool rather than constructed, so that steady state
+ * play does not allocate new events. An acquired event is reset with
+ * {@link GameEvent#reset()} before it is handed out, so it looks exactly like a
+ * newly constructed one.
+ * <p>
+ * Events are not released directly. Every <code>GameEventManager</code> that
+ * receives an event retains it, and releases it once it has been resolved or
+ * discarded. When the last manager releases it, the event is returned to the
+ * pool it came from. Any code that keeps a reference to a pooled event after it
+ * has been resolved must therefore not use that reference again.
+ * <p>
+ * Only events that reach a manager are recycled. An event that is only ever
+ * dispatched to other kinds of listeners is never retained, so it is never
+ * returned to its pool, and is simply left to the garbage collector. This is
+ * what lets such listeners keep the events they receive for as long as they
+ * like.
+ * <p>
+ * In debug mode (see <code>GameContext.setPoolDebug()</code>), released events are never reused, and remember where they were
+ * released. Any later attempt to dispatch, retain, release or resolve them
+ * throws an <code>IllegalStateException</code>, instead of silently affecting
+ * whatever event the object was recycled into.
+ * <p>
+ * Pools are not thread safe. Each <code>GameContext</code> keeps its own
+ * pools (see {@link com.pisoft.mistborn_game.GameContext#obtain}), which
+ * should only be used by the thread running that context.
+ * 
+ * @author gouldb
+ *
+ * @param <T> The type of <code>GameEvent</code> to pool
+ */
+public class GameEventPool<T extends GameEvent> {
+	private boolean debug = false;
+
+	private final Supplier<T> factory;
+
+	private GameEvent[] free = new GameEvent[8];
+	private int freeCount = 0;
+
+	/**
+	 * Constructs a new, empty <code>GameEventPool</code>.
+	 * 
+	 * @param factory Used to create new events when the pool is empty
+	 */
+	public GameEventPool(Supplier<T> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Constructs a new, empty <code>GameEventPool</code> that creates new events
+	 * with their class's no argument constructor.
+	 * 
+	 * @param type The class of events to pool
+	 * @throws IllegalArgumentException if the class has no accessible no argument
+	 *                                  constructor
+	 */
+	public GameEventPool(Class<T> type) {
+		this(factoryOf(type));
+	}
+
+	private static <T> Supplier<T> factoryOf(Class<T> type) {
+		Constructor<T> constructor;
+
+		try {
+			constructor = type.getConstructor();
+		} catch (NoSuchMethodException e) {
+			throw new IllegalArgumentException(
+					type.getSimpleName() + " cannot be pooled without a public no argument constructor", e);
+		}
+
+		return () -> {
+			try {
+				return constructor.newInstance();
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Could not create a " + type.getSimpleName(), e);
+			}
+		};
+	}
+
+	/**
+	 * Gets an event from the pool, or creates a new one if the pool is empty.
+	 * 
+	 * @return A reset event, ready to be set up and dispatched
+	 */
+	@SuppressWarnings("unchecked")
+	public T acquire() {
+		T event;
+
+		if (freeCount > 0) {
+			event = (T) free[--freeCount];
+			free[freeCount] = null;
+
+			event.reset();
+		} else {
+			event = factory.get();
+		}
+
+		event.setPool(this);
+
+		return event;
+	}
+
+	/**
+	 * Returns an event to the pool. Called by {@link GameEvent#release()} once the
+	 * last reference to the event has been released.
+	 */
+	void recycle(GameEvent event) {
+		event.markReleased(debug ? new Throwable("Released here") : null);
+
+		// in debug mode, keep released events out of circulation so stale references
+		// to them can always be detected
+		if (debug) {
+			return;
+		}
+
+		if (freeCount == free.length) {
+			free = Arrays.copyOf(free, freeCount * 2);
+		}
+
+		free[freeCount++] = event;
+	}
+
+	/**
+	 * Gets the number of events currently waiting in the pool.
+	 * 
+	 * @return The number of free events
+	 */
+	public int getFreeCount() {
+		return freeCount;
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	public boolean isDebug() {
+		return debug;
+	}
+
+	/**
+	 * Turns debug mode on or off for this pool. See the class documentation for
+	 * what debug mode does. Events released while debug mode was on are never
+	 * reused, even after it is turned off.
+	 * 
+	 * @param debug Whether to use debug mode
+	 */
+	public void setDebug(boolean debug) {
+		this.debug = debug;
+	}
+}
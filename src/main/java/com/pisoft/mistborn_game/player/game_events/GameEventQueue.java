@@ -1,31 +1,59 @@
 package com.pisoft.mistborn_game.player.game_events;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
- * Thread safe class to manage a queue of <code>GameEvent</code> objects.
+ * Class to manage a queue of <code>GameEvent</code> objects.
  * <p>
  * Each queue uses a <code>Comparator</code> in order to sort its elements, and
- * the queue will remain sorted in whatever order is specified.
+ * elements will always be dequeued in whatever order is specified. Elements
+ * that the <code>Comparator</code> considers equal are dequeued in the order
+ * they were added (FIFO).
+ * <p>
+ * Internally, the queue is stored as a binary heap, so <code>add()</code> and
+ * <code>deque()</code> both run in O(log n) time. Each element is wrapped in a
+ * node that also stores its insertion order, which is used to break ties
+ * between equal elements. Nodes are recycled, so a queue that stays around the
+ * same size does not allocate when elements are added.
+ * <p>
+ * Queues are not thread safe. They are owned by the game thread, and other
+ * threads should hand events over through a {@link GameEventIngressQueue}.
  * 
  * @author gouldb
  *
  * @param <T> The type of <code>GameEvent</code>s to store
  */
 public class GameEventQueue<T extends GameEvent> {
-	protected ArrayList<T> queue = new ArrayList<>();
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private Node<T>[] heap = newNodeArray(DEFAULT_CAPACITY);
+	private int size = 0;
+
+	// recycled nodes, reused by add() before any new node is allocated
+	private Node<T>[] freeNodes = newNodeArray(DEFAULT_CAPACITY);
+	private int freeCount = 0;
+
+	private long nextOrder = 0;
+
 	private Comparator<T> comp;
+	private final Comparator<Node<T>> nodeComp = (n1, n2) -> compare(n1, n2);
 
 	/**
 	 * Constructs a new <code>GameEventQueue</code> with the default
 	 * <code>Comparator</code>. Elements will be sorted in ascending order by their
-	 * valid execution times.
+	 * valid execution ticks.
 	 */
 	public GameEventQueue() {
-		this.comp = (e1, e2) -> Long.compare(e1.getValidExecutionTime(), e2.getValidExecutionTime());
+		this.comp = (e1, e2) -> Long.compare(e1.getValidExecutionTick(), e2.getValidExecutionTick());
 	}
 
 	/**
@@ -42,95 +70,177 @@ public class GameEventQueue<T extends GameEvent> {
 	/**
 	 * Adds an element to the queue.
 	 * <p>
-	 * Whenever an element is added, it is inserted at the necessary position to
-	 * ensure the queue remains sorted by whatever order this queue's
-	 * <code>Comparator</code> specifies.
+	 * The element is placed after every element already in the queue that the
+	 * <code>Comparator</code> considers less than or equal to it.
 	 * 
 	 * @param event The event to insert
 	 */
 	public void add(T event) {
-		boolean indexFound = false;
-		int index = 0;
-
-		synchronized (queue) {
-			for (int i = 0; i < queue.size(); i++) {
-				if (!indexFound && comp.compare(event, queue.get(i)) < 0) {
-					// mark index to insert, stop searching
-					index = i;
-					indexFound = true;
-				}
-			}
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
 
-			// no element in queue is "greater" than this one --> insert at last index
-			if (!indexFound) {
-				index = queue.size();
-			}
+		Node<T> node = obtainNode();
+		node.event = event;
+		node.order = nextOrder++;
 
-			// if it gets here, event needs to be added
-			queue.add(index, event);
-		}
+		heap[size] = node;
+		siftUp(size++);
 	}
 
 	/**
 	 * Removes and returns the first element in the queue
 	 * 
 	 * @return The first element in the queue
+	 * @throws NoSuchElementException if the queue is empty
 	 */
 	public T deque() {
-		synchronized (queue) {
-			return queue.remove(0);
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+
+		Node<T> first = heap[0];
+
+		heap[0] = heap[--size];
+		heap[size] = null;
+		if (size > 0) {
+			siftDown(0);
 		}
+
+		T event = first.event;
+		recycleNode(first);
+
+		return event;
 	}
 
 	/**
 	 * Returns as an <code>ArrayList</code> the set of all elements in the queue
-	 * that meet some condition.
+	 * that meet some condition. The returned elements are in the order they would
+	 * be dequeued.
 	 * 
 	 * @param cond The condition to check elements by
 	 * @return The set of all elements that meet the condition
 	 */
 	public ArrayList<T> find(Predicate<T> cond) {
-		ArrayList<T> ret = new ArrayList<>();
+		Node<T>[] found = newNodeArray(size);
+		int count = 0;
 
-		synchronized (queue) {
-			for (T event : queue) {
-				if (cond.test(event)) {
-					ret.add(event);
-				}
+		for (int i = 0; i < size; i++) {
+			if (cond.test(heap[i].event)) {
+				found[count++] = heap[i];
 			}
 		}
 
-		return ret;
+		return sortedEvents(found, count);
+	}
+
+	/**
+	 * Performs an action on every element in the queue, in no particular order.
+	 * Unlike <code>find()</code>, this does not allocate or sort anything. The
+	 * action must not modify the queue.
+	 * 
+	 * @param action The action to perform on each element
+	 */
+	public void forEach(Consumer<? super T> action) {
+		for (int i = 0; i < size; i++) {
+			action.accept(heap[i].event);
+		}
 	}
 
 	/**
 	 * Removes and returns as an <code>ArrayList</code> the set of all elements in
-	 * the queue that meet some condition.
+	 * the queue that meet some condition. The returned elements are in the order
+	 * they would have been dequeued.
 	 * 
 	 * @param cond The condition on which to remove elements
 	 * @return The set of all elements that meet the condition
 	 */
 	public ArrayList<T> filter(Predicate<T> cond) {
-		ArrayList<T> ret = find(cond);
+		Node<T>[] found = newNodeArray(size);
+		int count = 0;
+		int kept = 0;
+
+		// compact the remaining nodes to the front of the heap
+		for (int i = 0; i < size; i++) {
+			Node<T> node = heap[i];
+
+			if (cond.test(node.event)) {
+				found[count++] = node;
+			} else {
+				heap[kept++] = node;
+			}
+		}
+
+		if (count == 0) {
+			return new ArrayList<>();
+		}
+
+		Arrays.fill(heap, kept, size, null);
+		size = kept;
+		heapify();
 
-		synchronized (queue) {
-			queue.removeAll(ret);
+		ArrayList<T> ret = sortedEvents(found, count);
+		for (int i = 0; i < count; i++) {
+			recycleNode(found[i]);
 		}
 
 		return ret;
 	}
 
+	/**
+	 * Removes every element in the queue, adding them to the given collection in
+	 * the order they would have been dequeued. Unlike <code>filter()</code>, this
+	 * does not allocate anything beyond what the collection needs.
+	 * 
+	 * @param c The collection to add the elements to
+	 */
+	public void drainTo(Collection<? super T> c) {
+		while (size > 0) {
+			c.add(deque());
+		}
+	}
+
 	/**
 	 * Adds all elements in the given collection to the queue.
 	 * 
 	 * @param c The collection of elements to add
 	 */
 	public void addAll(Collection<? extends T> c) {
-		synchronized (queue) {
-			for (T event : c) {
-				add(event);
+		for (T event : c) {
+			add(event);
+		}
+	}
+
+	/**
+	 * Removes every element in the queue that meets some condition. Unlike
+	 * <code>filter()</code>, the removed elements are not returned, so the
+	 * remaining elements are compacted in place and nothing is allocated.
+	 * 
+	 * @param cond The condition on which to remove elements
+	 * @return <code>true</code> if any elements were removed
+	 */
+	public boolean removeIf(Predicate<? super T> cond) {
+		int kept = 0;
+
+		for (int i = 0; i < size; i++) {
+			Node<T> node = heap[i];
+
+			if (cond.test(node.event)) {
+				recycleNode(node);
+			} else {
+				heap[kept++] = node;
 			}
 		}
+
+		if (kept == size) {
+			return false;
+		}
+
+		Arrays.fill(heap, kept, size, null);
+		size = kept;
+		heapify();
+
+		return true;
 	}
 
 	/**
@@ -139,11 +249,14 @@ public class GameEventQueue<T extends GameEvent> {
 	 * @param c The collection of elements to remove
 	 */
 	public void removeAll(Collection<? extends T> c) {
-		synchronized (queue) {
-			for (T event : c) {
-				queue.remove(event);
-			}
+		if (c.isEmpty()) {
+			return;
 		}
+
+		Set<T> toRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+		toRemove.addAll(c);
+
+		removeIf(toRemove::contains);
 	}
 
 	/**
@@ -152,11 +265,104 @@ public class GameEventQueue<T extends GameEvent> {
 	 * @return The size of the queue
 	 */
 	public int size() {
-		synchronized (queue) {
-			return queue.size();
+		return size;
+	}
+
+	// heap methods
+	// -----------------------------------------------------------------------------------------------
+	/**
+	 * Orders two nodes by this queue's <code>Comparator</code>, falling back to
+	 * insertion order for elements that compare as equal.
+	 */
+	private int compare(Node<T> n1, Node<T> n2) {
+		int result = comp.compare(n1.event, n2.event);
+
+		return (result != 0) ? result : Long.compare(n1.order, n2.order);
+	}
+
+	private void siftUp(int index) {
+		Node<T> node = heap[index];
+
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+
+			if (compare(node, heap[parent]) >= 0) {
+				break;
+			}
+
+			heap[index] = heap[parent];
+			index = parent;
+		}
+
+		heap[index] = node;
+	}
+
+	private void siftDown(int index) {
+		Node<T> node = heap[index];
+		int half = size >>> 1;
+
+		while (index < half) {
+			int child = 2 * index + 1;
+			int right = child + 1;
+
+			if (right < size && compare(heap[right], heap[child]) < 0) {
+				child = right;
+			}
+
+			if (compare(node, heap[child]) <= 0) {
+				break;
+			}
+
+			heap[index] = heap[child];
+			index = child;
+		}
+
+		heap[index] = node;
+	}
+
+	private void heapify() {
+		for (int i = (size >>> 1) - 1; i >= 0; i--) {
+			siftDown(i);
 		}
 	}
 
+	private ArrayList<T> sortedEvents(Node<T>[] nodes, int count) {
+		Arrays.sort(nodes, 0, count, nodeComp);
+
+		ArrayList<T> ret = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ret.add(nodes[i].event);
+		}
+
+		return ret;
+	}
+
+	private Node<T> obtainNode() {
+		if (freeCount == 0) {
+			return new Node<>();
+		}
+
+		Node<T> node = freeNodes[--freeCount];
+		freeNodes[freeCount] = null;
+
+		return node;
+	}
+
+	private void recycleNode(Node<T> node) {
+		node.event = null;
+
+		if (freeCount == freeNodes.length) {
+			freeNodes = Arrays.copyOf(freeNodes, freeCount * 2);
+		}
+
+		freeNodes[freeCount++] = node;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T extends GameEvent> Node<T>[] newNodeArray(int length) {
+		return (Node<T>[]) new Node<?>[Math.max(length, 1)];
+	}
+
 	// getters / setters
 	// -----------------------------------------------------------------------------------------------
 	/**
@@ -169,16 +375,23 @@ public class GameEventQueue<T extends GameEvent> {
 	}
 
 	/**
-	 * Gets the current <code>Comparator</code> used to sort this queue. Also sorts
-	 * the queue using this new comparator.
+	 * Sets the <code>Comparator</code> used to sort this queue. Also re-sorts the
+	 * queue using this new comparator. Elements that compare as equal keep their
+	 * original insertion order.
 	 * 
 	 * @param comp The new <code>Comparator</code> to use in this queue
 	 */
 	public void setComp(Comparator<T> comp) {
 		this.comp = comp;
 
-		synchronized (queue) {
-			queue.sort(comp);
-		}
+		heapify();
+	}
+
+	/**
+	 * Heap entry pairing an event with the order it was added to the queue in.
+	 */
+	private static class Node<T> {
+		private T event;
+		private long order;
 	}
 }
@@ -0,0 +1,238 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of <code>GameEventListener</code>s, each subscribed to a
+ * single <code>GameEvent</code> class and all of its subclasses.
+ * <p>
+ * Subscriptions are what a <code>GameEventDispatcher</code> hands out as its
+ * listeners (see {@link GameEventListenerRegistry}). Every event dispatched
+ * from the same source shares the same subscriptions by reference, and uses
+ * <code>route()</code> to find the listeners it should actually be sent to.
+ * <p>
+ * The listeners for each event class are worked out the first time an event
+ * of that class is routed, and stored in a table indexed by the class's id in
+ * {@link GameEventTypes}. After that, routing an event is a single array
+ * lookup. The table may be filled in by more than one thread at once, which at
+ * worst causes a class's route to be worked out more than once.
+ * 
+ * @author gouldb
+ *
+ */
+public final class GameEventSubscriptions {
+	/**
+	 * Subscriptions with no listeners in them.
+	 */
+	public static final GameEventSubscriptions EMPTY = new GameEventSubscriptions(new GameEventListener[0],
+			new Class<?>[0]);
+
+	private final GameEventListener[] listeners;
+	private final Class<?>[] types;
+
+	// listeners for each event type id, filled in as types are routed
+	private volatile GameEventListener[][] routes = new GameEventListener[0][];
+
+	private GameEventSubscriptions(GameEventListener[] listeners, Class<?>[] types) {
+		this.listeners = listeners;
+		this.types = types;
+	}
+
+	/**
+	 * Gets the listeners that an event should be sent to. The returned array must
+	 * not be modified.
+	 * 
+	 * @param event The event to route
+	 * @return Every listener subscribed to the event's class or one of its
+	 *         superclasses, in the order they were subscribed
+	 */
+	public GameEventListener[] route(GameEvent event) {
+		int id = event.getTypeId();
+		GameEventListener[][] routes = this.routes;
+
+		if (id < routes.length && routes[id] != null) {
+			return routes[id];
+		}
+
+		return computeRoute(id, event.getClass());
+	}
+
+	private GameEventListener[] computeRoute(int id, Class<?> type) {
+		GameEventListener[] route;
+
+		if (listeners.length == 0 || allSubscribedTo(type)) {
+			route = listeners;
+		} else {
+			route = new GameEventListener[listeners.length];
+			int count = 0;
+
+			for (int i = 0; i < listeners.length; i++) {
+				if (types[i].isAssignableFrom(type)) {
+					route[count++] = listeners[i];
+				}
+			}
+
+			route = Arrays.copyOf(route, count);
+		}
+
+		GameEventListener[][] routes = this.routes;
+		if (id >= routes.length) {
+			routes = Arrays.copyOf(routes, Math.max(id + 1, GameEventTypes.count()));
+		} else {
+			routes = routes.clone();
+		}
+
+		routes[id] = route;
+		this.routes = routes;
+
+		return route;
+	}
+
+	private boolean allSubscribedTo(Class<?> type) {
+		for (Class<?> subscribed : types) {
+			if (!subscribed.isAssignableFrom(type)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Gets every listener, whatever class it is subscribed to. The returned array
+	 * must not be modified.
+	 * 
+	 * @return All subscribed listeners
+	 */
+	public GameEventListener[] getListeners() {
+		return listeners;
+	}
+
+	/**
+	 * Gets the class a listener is subscribed to.
+	 * 
+	 * @param index Index of the listener in <code>getListeners()</code>
+	 * @return The class of events the listener receives
+	 */
+	@SuppressWarnings("unchecked")
+	public Class<? extends GameEvent> getType(int index) {
+		return (Class<? extends GameEvent>) types[index];
+	}
+
+	/**
+	 * Gets the number of subscribed listeners.
+	 * 
+	 * @return The number of listeners
+	 */
+	public int size() {
+		return listeners.length;
+	}
+
+	// copy methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Creates new subscriptions holding only the given listener, subscribed to
+	 * every event.
+	 * <p>
+	 * Listeners that are dispatched to directly should create these once and
+	 * share them (see {@link GameEventListener#getSingletonSubscriptions()}).
+	 * 
+	 * @param listener The listener to subscribe
+	 * @return Subscriptions containing only <code>listener</code>
+	 */
+	public static GameEventSubscriptions singleton(GameEventListener listener) {
+		return new GameEventSubscriptions(new GameEventListener[] { listener }, new Class<?>[] { GameEvent.class });
+	}
+
+	/**
+	 * Creates new subscriptions with a listener added to the end of these ones.
+	 * 
+	 * @param listener The listener to add
+	 * @param type     The class of events the listener should receive
+	 * @return The new subscriptions
+	 */
+	public GameEventSubscriptions with(GameEventListener listener, Class<? extends GameEvent> type) {
+		GameEventListener[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+		Class<?>[] newTypes = Arrays.copyOf(types, types.length + 1);
+
+		newListeners[listeners.length] = listener;
+		newTypes[types.length] = type;
+
+		return new GameEventSubscriptions(newListeners, newTypes);
+	}
+
+	/**
+	 * Creates new subscriptions with the first occurrence of a listener removed
+	 * from these ones. Listeners are compared by identity, as in
+	 * <code>replace()</code>.
+	 * 
+	 * @param listener The listener to remove
+	 * @return The new subscriptions, or these ones if they do not contain the
+	 *         listener
+	 */
+	public GameEventSubscriptions without(GameEventListener listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				return without(i);
+			}
+		}
+
+		return this;
+	}
+
+	/**
+	 * Creates new subscriptions with the listener at an index removed from these
+	 * ones.
+	 * 
+	 * @param index Index to remove at
+	 * @return The new subscriptions
+	 * @throws IndexOutOfBoundsException if the index is out of range
+	 */
+	public GameEventSubscriptions without(int index) {
+		if (index < 0 || index >= listeners.length) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + listeners.length);
+		}
+
+		if (listeners.length == 1) {
+			return EMPTY;
+		}
+
+		return new GameEventSubscriptions(removeAt(listeners, index), removeAt(types, index));
+	}
+
+	/**
+	 * Creates new subscriptions with every occurrence of a listener replaced by
+	 * another listener, subscribed to the same classes.
+	 * 
+	 * @param listener    The listener to replace
+	 * @param replacement The listener to replace it with
+	 * @return The new subscriptions, or these ones if they do not contain the
+	 *         listener
+	 */
+	public GameEventSubscriptions replace(GameEventListener listener, GameEventListener replacement) {
+		if (listeners.length == 1 && listeners[0] == listener && types[0] == GameEvent.class) {
+			return replacement.getSingletonSubscriptions();
+		}
+
+		GameEventListener[] newListeners = listeners;
+
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i] == listener) {
+				if (newListeners == listeners) {
+					newListeners = listeners.clone();
+				}
+
+				newListeners[i] = replacement;
+			}
+		}
+
+		return (newListeners == listeners) ? this : new GameEventSubscriptions(newListeners, types);
+	}
+
+	private static <E> E[] removeAt(E[] array, int index) {
+		E[] ret = Arrays.copyOf(array, array.length - 1);
+		System.arraycopy(array, index + 1, ret, index, ret.length - index);
+
+		return ret;
+	}
+}
@@ -0,0 +1,223 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import com.pisoft.mistborn_game.player.constants.GameEventConflictConstants;
+
+/**
+ * Registry giving every concrete <code>GameEvent</code> class a dense integer
+ * id, along with a precomputed compatibility matrix between those ids.
+ * <p>
+ * Ids are handed out in the order classes are first seen, starting at 0, and
+ * never change while the game is running. They are only meant to be used as
+ * array indices, and should not be stored anywhere that outlives the process.
+ * <p>
+ * The compatibility matrix is built from {@link GameEventConflictConstants},
+ * and answers whether the default implementation of
+ * {@link GameEvent#isCompatible(GameEvent)} would accept an event of one type
+ * given an event of another. Any class that overrides
+ * <code>isCompatible()</code> is marked as instance dependent, since its
+ * answer may depend on more than just the two classes, and should always be
+ * checked by calling <code>isCompatible()</code> directly.
+ * 
+ * @author gouldb
+ *
+ */
+public final class GameEventTypes {
+	private static final Object LOCK = new Object();
+
+	private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return register(type);
+		}
+	};
+
+	private static final ArrayList<Class<?>> types = new ArrayList<>();
+	private static volatile boolean[] instanceDependent = new boolean[0];
+
+	// one row per type id, rebuilt lazily whenever types or conflicts change
+	private static volatile ConflictRow[] rows = new ConflictRow[0];
+
+	private GameEventTypes() {
+	}
+
+	/**
+	 * Gets the dense id of an event class, registering it if it has not been seen
+	 * before.
+	 * 
+	 * @param type The class of the event
+	 * @return The id of the class
+	 */
+	public static int idOf(Class<? extends GameEvent> type) {
+		return IDS.get(type);
+	}
+
+	/**
+	 * Gets the number of event classes registered so far. Every id is strictly
+	 * less than this number.
+	 * 
+	 * @return The number of registered event classes
+	 */
+	public static int count() {
+		synchronized (LOCK) {
+			return types.size();
+		}
+	}
+
+	/**
+	 * Checks whether events of the given type decide compatibility based on more
+	 * than just their class.
+	 * 
+	 * @param id The id of the type to check
+	 * @return <code>true</code> if the type overrides <code>isCompatible()</code>
+	 */
+	public static boolean isInstanceDependent(int id) {
+		return instanceDependent[id];
+	}
+
+	/**
+	 * Looks up whether an event of the first type is compatible with an event of
+	 * the second type, according to the declared conflicts.
+	 * 
+	 * @param id    The id of the type doing the check
+	 * @param other The id of the type being checked against
+	 * @return <code>false</code> if the two types are declared to conflict,
+	 *         <code>true</code> otherwise
+	 */
+	public static boolean isCompatible(int id, int other) {
+		return !rowOf(id).conflictsWith(other);
+	}
+
+	/**
+	 * Gets the ids of every registered type that the given type is declared to
+	 * conflict with. The returned array is shared, and must not be modified.
+	 * 
+	 * @param id The id of the type
+	 * @return The ids of all conflicting types
+	 */
+	public static int[] conflictsOf(int id) {
+		return rowOf(id).ids;
+	}
+
+	/**
+	 * Discards the compatibility matrix, so that it is rebuilt from
+	 * {@link GameEventConflictConstants} the next time it is needed. Must be called
+	 * whenever those constants change.
+	 */
+	public static void invalidateConflicts() {
+		synchronized (LOCK) {
+			rows = new ConflictRow[types.size()];
+		}
+	}
+
+	// registration
+	// ---------------------------------------------------------------------------------------------------
+	private static int register(Class<?> type) {
+		boolean overridesCompatible;
+		try {
+			overridesCompatible = type.getMethod("isCompatible", GameEvent.class).getDeclaringClass() != GameEvent.class;
+		} catch (NoSuchMethodException e) {
+			overridesCompatible = false;
+		}
+
+		synchronized (LOCK) {
+			// another thread may have registered this class first
+			int existing = types.indexOf(type);
+			if (existing >= 0) {
+				return existing;
+			}
+
+			int id = types.size();
+			types.add(type);
+
+			boolean[] dependent = Arrays.copyOf(instanceDependent, id + 1);
+			dependent[id] = overridesCompatible;
+			instanceDependent = dependent;
+
+			// every existing row may need to include the new type
+			rows = new ConflictRow[id + 1];
+
+			return id;
+		}
+	}
+
+	private static ConflictRow rowOf(int id) {
+		ConflictRow[] current = rows;
+		ConflictRow row = (id < current.length) ? current[id] : null;
+
+		if (row == null) {
+			synchronized (LOCK) {
+				if (id >= rows.length) {
+					rows = Arrays.copyOf(rows, types.size());
+				}
+
+				row = rows[id];
+				if (row == null) {
+					row = buildRow(types.get(id));
+
+					// publish a new array, so readers never see a partially filled one
+					ConflictRow[] updated = rows.clone();
+					updated[id] = row;
+					rows = updated;
+				}
+			}
+		}
+
+		return row;
+	}
+
+	private static ConflictRow buildRow(Class<?> type) {
+		int[] ids = new int[types.size()];
+		int count = 0;
+
+		for (int other = 0; other < types.size(); other++) {
+			if (declaredConflict(type, types.get(other))) {
+				ids[count++] = other;
+			}
+		}
+
+		return new ConflictRow(Arrays.copyOf(ids, count), types.size());
+	}
+
+	private static boolean declaredConflict(Class<?> type, Class<?> other) {
+		for (Map.Entry<Class<? extends GameEvent>, ArrayList<Class<? extends GameEvent>>> entry : GameEventConflictConstants
+				.getConflicts().entrySet()) {
+			if (entry.getKey().isAssignableFrom(type)) {
+				for (Class<? extends GameEvent> conflict : entry.getValue()) {
+					if (conflict.isAssignableFrom(other)) {
+						return true;
+					}
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * A single row of the compatibility matrix, stored both as a list of ids (for
+	 * iteration) and a bit set (for lookups).
+	 */
+	private static final class ConflictRow {
+		private final int[] ids;
+		private final long[] bits;
+
+		private ConflictRow(int[] ids, int typeCount) {
+			this.ids = ids;
+			this.bits = new long[(typeCount + 63) >>> 6];
+
+			for (int id : ids) {
+				bits[id >>> 6] |= 1L << id;
+			}
+		}
+
+		private boolean conflictsWith(int id) {
+			int word = id >>> 6;
+
+			return word < bits.length && (bits[word] & (1L << id)) != 0;
+		}
+	}
+}
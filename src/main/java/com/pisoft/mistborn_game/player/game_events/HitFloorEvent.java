@@ -1,6 +1,5 @@
 package com.pisoft.mistborn_game.player.game_events;
 
-import com.pisoft.mistborn_game.Game;
 import com.pisoft.mistborn_game.player.Side;
 import com.pisoft.mistborn_game.player.constants.PlatformingConstants;
 import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
@@ -24,12 +23,12 @@ public class HitFloorEvent extends GameEvent {
 				// not accelerating, speed > 0 --> sliding
 				targetPlayer.setSliding(true);
 			} else {
-				dispatchEvent(new AccelerateIntent(targetPlayer.getFacingSide()), Game.getPlayerActionManager());
+				dispatchEvent(new AccelerateIntent(targetPlayer.getFacingSide()), getContext().getPlayerActionManager());
 			}
 		}
 
 		targetPlayer.setySpeed(0);
 		
-		dispatchEvent(new FinishLandingEvent(), PlatformingConstants.getLandingDelay());
+		dispatchEvent(getContext().obtain(FinishLandingEvent.class), PlatformingConstants.getLandingDelay());
 	}
 }
@@ -1,12 +1,15 @@
 package com.pisoft.mistborn_game.player.game_events;
 
-import com.pisoft.mistborn_game.Game;
 import com.pisoft.mistborn_game.player.Side;
 import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
 
 public class HitWallEvent extends GameEvent {
 	private Side direction;
 	
+	public HitWallEvent() {
+		this(Side.NONE);
+	}
+	
 	public HitWallEvent(Side direction) {
 		this.direction = direction;
 	}
@@ -27,10 +30,17 @@ public class HitWallEvent extends GameEvent {
 		targetPlayer.setxSpeed(0);
 		
 		if (targetPlayer.wantsToAccelerate() && targetPlayer.getFacingSide() != direction) {
-			dispatchEvent(new AccelerateIntent(targetPlayer.getFacingSide()), Game.getPlayerActionManager());
+			dispatchEvent(new AccelerateIntent(targetPlayer.getFacingSide()), getContext().getPlayerActionManager());
 		}
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		
+		direction = Side.NONE;
+	}
+	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		HitWallEvent clone = (HitWallEvent) super.clone();
@@ -39,4 +49,8 @@ public class HitWallEvent extends GameEvent {
 		
 		return clone;
 	}
+	
+	public void setDirection(Side direction) {
+		this.direction = direction;
+	}
 }
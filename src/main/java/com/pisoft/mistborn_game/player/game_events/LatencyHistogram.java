@@ -0,0 +1,129 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+/**
+ * Histogram of non-negative values, bucketed by powers of two.
+ * <p>
+ * Bucket 0 counts values of 0, and bucket <code>i</code> counts values from
+ * <code>2^(i-1)</code> up to <code>2^i - 1</code>. Recording a value is a
+ * couple of array writes and never allocates, so histograms can be kept on hot
+ * paths. Percentiles are only accurate to within a factor of two, and are
+ * reported as the upper bound of the bucket they fall in.
+ * <p>
+ * Histograms are not thread safe.
+ * 
+ * @author gouldb
+ *
+ */
+public class LatencyHistogram {
+	private static final int BUCKETS = 64;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count = 0;
+	private long sum = 0;
+	private long max = 0;
+
+	/**
+	 * Adds a value to the histogram. Negative values are counted as 0.
+	 * 
+	 * @param value The value to record
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+
+		counts[BUCKETS - Long.numberOfLeadingZeros(value)]++;
+		count++;
+		sum += value;
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds every value recorded in another histogram to this one.
+	 * 
+	 * @param other The histogram to add
+	 */
+	public void add(LatencyHistogram other) {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] += other.counts[i];
+		}
+
+		count += other.count;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Creates a copy of this histogram, which does not change when this one does.
+	 * 
+	 * @return A copy of this histogram
+	 */
+	public LatencyHistogram copy() {
+		LatencyHistogram copy = new LatencyHistogram();
+		copy.add(this);
+
+		return copy;
+	}
+
+	/**
+	 * Gets an upper bound for the value that the given fraction of recorded values
+	 * are less than or equal to.
+	 * 
+	 * @param fraction The fraction of values, between 0 and 1
+	 * @return The upper bound of the bucket the percentile falls in, capped at the
+	 *         largest recorded value, or 0 if nothing has been recorded
+	 */
+	public long getPercentile(double fraction) {
+		if (count == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+
+			if (seen >= target) {
+				return Math.min(upperBound(i), max);
+			}
+		}
+
+		return max;
+	}
+
+	private static long upperBound(int bucket) {
+		return (bucket == BUCKETS - 1) ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+
+	/**
+	 * Gets the number of values recorded in a bucket.
+	 * 
+	 * @param bucket Index of the bucket, from 0 to 63
+	 * @return The number of values in the bucket
+	 */
+	public long getBucketCount(int bucket) {
+		return counts[bucket];
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getSum() {
+		return sum;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the mean of all recorded values.
+	 * 
+	 * @return The mean, or 0 if nothing has been recorded
+	 */
+	public double getMean() {
+		return (count == 0) ? 0 : (double) sum / count;
+	}
+}
@@ -20,13 +20,4 @@ public class LeavingFloorEvent extends GameEvent {
 			dispatchEvent(new AirAccAction(targetPlayer.getFacingSide()));
 		}
 	}
-	
-	@Override
-	public boolean isCompatible(GameEvent other) {
-		if (other instanceof FinishLandingEvent) {
-			return false;
-		}
-		
-		return true;
-	}
 }
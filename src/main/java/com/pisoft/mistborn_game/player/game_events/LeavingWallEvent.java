@@ -1,12 +1,15 @@
 package com.pisoft.mistborn_game.player.game_events;
 
-import com.pisoft.mistborn_game.Game;
 import com.pisoft.mistborn_game.player.Side;
 import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
 
 public class LeavingWallEvent extends GameEvent {
 	private Side direction;
 	
+	public LeavingWallEvent() {
+		this(Side.NONE);
+	}
+	
 	public LeavingWallEvent(Side direction) {
 		this.direction = direction;
 	}
@@ -18,10 +21,17 @@ public class LeavingWallEvent extends GameEvent {
 		targetPlayer.setWallSide(Side.NONE);
 
 		if (targetPlayer.wantsToAccelerate() && targetPlayer.getFacingSide() == direction) {
-			dispatchEvent(new AccelerateIntent(direction), Game.getPlayerActionManager());
+			dispatchEvent(new AccelerateIntent(direction), getContext().getPlayerActionManager());
 		}
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		
+		direction = Side.NONE;
+	}
+	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		LeavingWallEvent clone = (LeavingWallEvent) super.clone();
@@ -30,4 +40,8 @@ public class LeavingWallEvent extends GameEvent {
 		
 		return clone;
 	}
+	
+	public void setDirection(Side direction) {
+		this.direction = direction;
+	}
 }
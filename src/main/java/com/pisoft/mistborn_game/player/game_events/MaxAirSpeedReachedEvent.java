@@ -1,11 +1,14 @@
 package com.pisoft.mistborn_game.player.game_events;
 
 import com.pisoft.mistborn_game.player.Side;
-import com.pisoft.mistborn_game.player.constants.PlatformingConstants;
 
 public class MaxAirSpeedReachedEvent extends GameEvent {
 	private Side direction;
 	
+	public MaxAirSpeedReachedEvent() {
+		this(Side.NONE);
+	}
+	
 	public MaxAirSpeedReachedEvent(Side direction) {
 		this.direction = direction;
 	}
@@ -15,7 +18,14 @@ public class MaxAirSpeedReachedEvent extends GameEvent {
 		int directionMultiplyer = (direction == Side.RIGHT) ? 1 : -1;
 
 		targetPlayer.setxAcc(0);
-		targetPlayer.setxSpeed(PlatformingConstants.getMaxAirSpeed() * directionMultiplyer);
+		targetPlayer.setxSpeed(targetPlayer.getMaxAirSpeed() * directionMultiplyer);
+	}
+	
+	@Override
+	protected void reset() {
+		super.reset();
+		
+		direction = Side.NONE;
 	}
 	
 	@Override
@@ -26,4 +36,8 @@ public class MaxAirSpeedReachedEvent extends GameEvent {
 		
 		return clone;
 	}
+	
+	public void setDirection(Side direction) {
+		this.direction = direction;
+	}
 }
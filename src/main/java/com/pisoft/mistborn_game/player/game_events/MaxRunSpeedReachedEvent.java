@@ -6,6 +6,10 @@ import com.pisoft.mistborn_game.player.constants.PlatformingConstants;
 public class MaxRunSpeedReachedEvent extends GameEvent {
 	private Side direction;
 	
+	public MaxRunSpeedReachedEvent() {
+		this(Side.NONE);
+	}
+	
 	public MaxRunSpeedReachedEvent(Side direction) {
 		this.direction = direction;
 	}
@@ -18,6 +22,13 @@ public class MaxRunSpeedReachedEvent extends GameEvent {
 		targetPlayer.setxSpeed(PlatformingConstants.getMaxRunSpeed() * directionMultiplyer);
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		
+		direction = Side.NONE;
+	}
+	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		MaxRunSpeedReachedEvent clone = (MaxRunSpeedReachedEvent) super.clone();
@@ -26,4 +37,8 @@ public class MaxRunSpeedReachedEvent extends GameEvent {
 		
 		return clone;
 	}
+	
+	public void setDirection(Side direction) {
+		this.direction = direction;
+	}
 }
@@ -6,6 +6,10 @@ import com.pisoft.mistborn_game.player.constants.PlatformingConstants;
 public class MaxWalkSpeedReachedEvent extends GameEvent {
 	private Side direction;
 	
+	public MaxWalkSpeedReachedEvent() {
+		this(Side.NONE);
+	}
+	
 	public MaxWalkSpeedReachedEvent(Side direction) {
 		this.direction = direction;
 	}
@@ -24,6 +28,13 @@ public class MaxWalkSpeedReachedEvent extends GameEvent {
 		}
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		
+		direction = Side.NONE;
+	}
+	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		MaxWalkSpeedReachedEvent clone = (MaxWalkSpeedReachedEvent) super.clone();
@@ -32,4 +43,8 @@ public class MaxWalkSpeedReachedEvent extends GameEvent {
 		
 		return clone;
 	}
+	
+	public void setDirection(Side direction) {
+		this.direction = direction;
+	}
 }
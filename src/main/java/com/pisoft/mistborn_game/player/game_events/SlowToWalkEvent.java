@@ -6,6 +6,10 @@ import com.pisoft.mistborn_game.player.constants.PlatformingConstants;
 public class SlowToWalkEvent extends GameEvent {
 	private Side direction;
 	
+	public SlowToWalkEvent() {
+		this(Side.NONE);
+	}
+	
 	public SlowToWalkEvent(Side direction) {
 		this.direction = direction;
 	}
@@ -22,6 +26,13 @@ public class SlowToWalkEvent extends GameEvent {
 		targetPlayer.setxSpeed(targetPlayer.getxSpeed() - (slowDownAmount * directionMultiplyer));
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		
+		direction = Side.NONE;
+	}
+	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		SlowToWalkEvent clone = (SlowToWalkEvent) super.clone();
@@ -30,4 +41,8 @@ public class SlowToWalkEvent extends GameEvent {
 		
 		return clone;
 	}
+	
+	public void setDirection(Side direction) {
+		this.direction = direction;
+	}
 }
@@ -0,0 +1,369 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.pisoft.mistborn_game.GameContext;
+
+/**
+ * Buffer for events whose valid execution tick has not yet been reached.
+ * <p>
+ * Rather than testing every buffered event on every call to
+ * <code>harvest()</code>, events are stored in a hierarchical timing wheel
+ * keyed by the tick they become valid in. Each level of the wheel has
+ * <code>SLOTS</code> buckets, and each bucket of a level covers as many ticks
+ * as a full rotation of the level below it. When the current tick advances,
+ * the matching bucket of the lowest level is released, and buckets of higher
+ * levels are cascaded down into lower levels whenever the level below them
+ * completes a rotation. This means that only the events that become valid in
+ * the current tick are ever looked at, and events waiting further in the future
+ * cost nothing until their tick comes around.
+ * <p>
+ * Events that have reached their slot are kept in a small list and checked
+ * against the exact current tick before being released, so an event is never
+ * released early, even if the context's tick is set backwards.
+ *
+ * @author gouldb
+ *
+ * @param <T> The type of <code>GameEvent</code>s to store
+ */
+public class TimingWheelGameEventBuffer<T extends GameEvent> extends ConditionalGameEventQueue<T> {
+	private static final int LEVELS = 4;
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+
+	private final ArrayList<T>[][] wheel;
+	private ArrayList<T> spare = new ArrayList<>();
+
+	// events whose slot has been reached, but that may not be valid yet
+	private ArrayList<T> current = new ArrayList<>();
+	private final ArrayList<T> scratch = new ArrayList<>();
+
+	private final GameContext context;
+
+	private long currentSlot;
+	private int size = 0;
+
+	/**
+	 * Constructs a new <code>TimingWheelGameEventBuffer</code> that holds events
+	 * until a context's current tick reaches their valid execution tick.
+	 * 
+	 * @param context The context whose ticks to follow
+	 */
+	public TimingWheelGameEventBuffer(GameContext context) {
+		super((e1, e2) -> Long.compare(e1.getValidExecutionTick(), e2.getValidExecutionTick()),
+				e -> context.getCurrentTick() < e.getValidExecutionTick());
+
+		this.context = context;
+		this.currentSlot = context.getCurrentTick();
+
+		wheel = newWheel();
+		for (int level = 0; level < LEVELS; level++) {
+			for (int slot = 0; slot < SLOTS; slot++) {
+				wheel[level][slot] = new ArrayList<>();
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> ArrayList<T>[][] newWheel() {
+		return (ArrayList<T>[][]) new ArrayList<?>[LEVELS][SLOTS];
+	}
+
+	/**
+	 * Adds an event to the wheel, in the bucket of the tick it becomes valid in.
+	 */
+	@Override
+	public void add(T event) {
+		place(event);
+		size++;
+	}
+
+	/**
+	 * Removes and returns the set of all events whose valid execution tick has
+	 * been reached, in order of valid execution tick.
+	 * <p>
+	 * Runs in time proportional to the number of ticks passed since the last call
+	 * and the number of events released, not the number of events buffered.
+	 */
+	@Override
+	public ArrayList<T> harvest() {
+		ArrayList<T> ready = new ArrayList<>();
+
+		collectReady(ready);
+
+		return ready;
+	}
+
+	/**
+	 * Moves every event whose valid execution tick has been reached into another
+	 * queue, without allocating.
+	 */
+	@Override
+	public void harvestInto(GameEventQueue<T> target) {
+		if (collectReady(scratch)) {
+			for (T event : scratch) {
+				target.add(event);
+			}
+
+			scratch.clear();
+		}
+	}
+
+	private boolean collectReady(ArrayList<T> ready) {
+		long currentTick = context.getCurrentTick();
+
+		advanceTo(currentTick);
+
+		if (current.isEmpty()) {
+			return false;
+		}
+
+		// check events in place, compacting the ones that are still waiting
+		int kept = 0;
+		for (int i = 0; i < current.size(); i++) {
+			T event = current.get(i);
+
+			if (currentTick >= event.getValidExecutionTick()) {
+				ready.add(event);
+			} else {
+				current.set(kept++, event);
+			}
+		}
+
+		int released = current.size() - kept;
+		if (released == 0) {
+			return false;
+		}
+
+		while (current.size() > kept) {
+			current.remove(current.size() - 1);
+		}
+
+		size -= released;
+		ready.sort(getComp());
+
+		return true;
+	}
+
+	/**
+	 * Removes and returns the event with the earliest valid execution tick.
+	 * <p>
+	 * Unlike <code>harvest()</code>, this has to scan the whole wheel.
+	 */
+	@Override
+	public T deque() {
+		ArrayList<T> all = find(e -> true);
+
+		if (all.isEmpty()) {
+			throw new NoSuchElementException();
+		}
+
+		T first = all.get(0);
+		filter(e -> e == first);
+
+		return first;
+	}
+
+	@Override
+	public ArrayList<T> find(Predicate<T> cond) {
+		ArrayList<T> ret = new ArrayList<>();
+
+		if (size == 0) {
+			return ret;
+		}
+
+		for (T event : current) {
+			if (cond.test(event)) {
+				ret.add(event);
+			}
+		}
+
+		for (ArrayList<T>[] level : wheel) {
+			for (ArrayList<T> bucket : level) {
+				for (T event : bucket) {
+					if (cond.test(event)) {
+						ret.add(event);
+					}
+				}
+			}
+		}
+
+		ret.sort(getComp());
+
+		return ret;
+	}
+
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		if (size == 0) {
+			return;
+		}
+
+		current.forEach(action);
+		for (ArrayList<T>[] level : wheel) {
+			for (ArrayList<T> bucket : level) {
+				if (!bucket.isEmpty()) {
+					bucket.forEach(action);
+				}
+			}
+		}
+	}
+
+	@Override
+	public ArrayList<T> filter(Predicate<T> cond) {
+		ArrayList<T> ret = new ArrayList<>();
+
+		if (size == 0) {
+			return ret;
+		}
+
+		Predicate<T> remove = e -> {
+			if (cond.test(e)) {
+				ret.add(e);
+				return true;
+			}
+
+			return false;
+		};
+
+		current.removeIf(remove);
+		for (ArrayList<T>[] level : wheel) {
+			for (ArrayList<T> bucket : level) {
+				if (!bucket.isEmpty()) {
+					bucket.removeIf(remove);
+				}
+			}
+		}
+
+		size -= ret.size();
+		ret.sort(getComp());
+
+		return ret;
+	}
+
+	/**
+	 * Removes every event that meets some condition, compacting each bucket in
+	 * place.
+	 */
+	@Override
+	public boolean removeIf(Predicate<? super T> cond) {
+		if (size == 0) {
+			return false;
+		}
+
+		int removed = removeFrom(current, cond);
+		for (ArrayList<T>[] level : wheel) {
+			for (ArrayList<T> bucket : level) {
+				if (!bucket.isEmpty()) {
+					removed += removeFrom(bucket, cond);
+				}
+			}
+		}
+
+		size -= removed;
+
+		return removed > 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	// wheel methods
+	// -----------------------------------------------------------------------------------------------
+	/**
+	 * Puts an event into the lowest level whose range covers the distance between
+	 * the current slot and the event's slot. Events past the range of the highest
+	 * level go into it anyway, and are placed again when their bucket cascades.
+	 */
+	private void place(T event) {
+		long slot = event.getValidExecutionTick();
+		long delta = slot - currentSlot;
+
+		if (delta <= 0) {
+			current.add(event);
+			return;
+		}
+
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+			level++;
+		}
+
+		wheel[level][(int) (slot >>> (SLOT_BITS * level)) & SLOT_MASK].add(event);
+	}
+
+	/**
+	 * Removes every event in a list that meets some condition, shifting the ones
+	 * that are kept down over them.
+	 */
+	private static <T> int removeFrom(ArrayList<T> list, Predicate<? super T> cond) {
+		int kept = 0;
+		for (int i = 0; i < list.size(); i++) {
+			T event = list.get(i);
+
+			if (!cond.test(event)) {
+				list.set(kept++, event);
+			}
+		}
+
+		int removed = list.size() - kept;
+		while (list.size() > kept) {
+			list.remove(list.size() - 1);
+		}
+
+		return removed;
+	}
+
+	/**
+	 * Advances the current slot one slot at a time, cascading higher levels down
+	 * as lower levels complete rotations, and releasing the lowest level bucket
+	 * for each slot into the current list.
+	 */
+	private void advanceTo(long targetSlot) {
+		while (currentSlot < targetSlot) {
+			if (size == current.size()) {
+				// nothing left in the wheel, skip straight to the target
+				currentSlot = targetSlot;
+				return;
+			}
+
+			currentSlot++;
+
+			for (int level = LEVELS - 1; level > 0; level--) {
+				if ((currentSlot & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+					cascade(level, (int) (currentSlot >>> (SLOT_BITS * level)) & SLOT_MASK);
+				}
+			}
+
+			ArrayList<T> bucket = wheel[0][(int) currentSlot & SLOT_MASK];
+			if (!bucket.isEmpty()) {
+				current.addAll(bucket);
+				bucket.clear();
+			}
+		}
+	}
+
+	private void cascade(int level, int index) {
+		ArrayList<T> bucket = wheel[level][index];
+
+		if (bucket.isEmpty()) {
+			return;
+		}
+
+		// swap in an empty list, since events may be placed back into this bucket
+		wheel[level][index] = spare;
+		spare = bucket;
+
+		for (T event : bucket) {
+			place(event);
+		}
+
+		bucket.clear();
+	}
+}
@@ -49,7 +49,7 @@ public class AccelerateIntent extends PlayerIntent {
 					dispatchEvent(new CantAccAction(direction));
 				}
 			} else {
-				if (Math.abs(targetPlayer.getxSpeed()) < PlatformingConstants.getMaxAirSpeed()
+				if (Math.abs(targetPlayer.getxSpeed()) < targetPlayer.getMaxAirSpeed()
 						|| direction != movingDirection) {
 					// no wall in the way, not grounded, speed < max air speed --> air acc
 					dispatchEvent(new AirAccAction(direction));
@@ -74,4 +74,8 @@ public class AccelerateIntent extends PlayerIntent {
 	public Class<? extends PlayerAction> isEndedBy() {
 		return StopAccIntent.class;
 	}
+
+	public Side getDirection() {
+		return direction;
+	}
 }
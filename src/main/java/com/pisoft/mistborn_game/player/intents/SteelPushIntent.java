@@ -1,30 +1,31 @@
 package com.pisoft.mistborn_game.player.intents;
 
-import java.awt.Point;
-
 import com.pisoft.mistborn_game.player.actions.PlayerAction;
 import com.pisoft.mistborn_game.player.actions.SteelPushAction;
 
 public class SteelPushIntent extends PlayerIntent {
 	
-	private Point location;
+	private int x;
+	private int y;
 	
-	public SteelPushIntent(Point location) {
+	public SteelPushIntent(int x, int y) {
 		super();
 		
-		this.location = location;
+		this.x = x;
+		this.y = y;
 	}
 	
 	@Override
 	public void resolve() {		
-		dispatchEvent(new SteelPushAction(location));
+		dispatchEvent(new SteelPushAction(x, y));
 	}
 	
 	@Override
 	public Object clone() throws CloneNotSupportedException {
 		SteelPushIntent clone = (SteelPushIntent) super.clone();
 		
-		clone.location = this.location;
+		clone.x = this.x;
+		clone.y = this.y;
 		
 		return clone;
 	}
@@ -33,4 +34,12 @@ public class SteelPushIntent extends PlayerIntent {
 	public Class<? extends PlayerAction> isEndedBy() {
 		return StopSteelPushIntent.class;
 	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
 }
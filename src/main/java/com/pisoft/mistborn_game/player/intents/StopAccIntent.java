@@ -37,4 +37,8 @@ public class StopAccIntent extends PlayerIntent {
 		
 		return clone;
 	}
+
+	public Side getDirection() {
+		return direction;
+	}
 }
@@ -0,0 +1,237 @@
+package com.pisoft.mistborn_game.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Times each phase of the game loop, keeping a rolling window of the most
+ * recent samples of each.
+ * <p>
+ * Every sample records how long the phase took (in ns), and how many bytes the
+ * thread running it allocated in that time, where the JVM supports measuring
+ * this (otherwise 0). A phase is sampled by calling <code>begin()</code> and
+ * <code>end()</code> around it. Each phase must only ever be run by one thread
+ * (the simulation phases by the game thread, the paint phases by the render
+ * thread), but the window may be read from any thread, e.g. to draw it.
+ * <p>
+ * Optionally, a row is written to a {@link ProfileCsvWriter} at the end of
+ * every tick, holding the samples taken for each phase since the last row.
+ *
+ * @author gouldb
+ *
+ */
+public class FrameProfiler {
+	/**
+	 * The parts of the game loop that are profiled.
+	 */
+	public enum Phase {
+		ACTIONS("Actions"),
+		PLAYER("Player"),
+		EVENTS("Events"),
+		PAINT("Paint"),
+		SYNC("Sync");
+
+		private final String label;
+
+		private Phase(String label) {
+			this.label = label;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+	}
+
+	public static final int WINDOW = 256;
+	private static final int WINDOW_MASK = WINDOW - 1;
+
+	private static final Phase[] PHASES = Phase.values();
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+	// rolling windows, WINDOW samples per phase
+	private final AtomicLongArray nanos = new AtomicLongArray(PHASES.length * WINDOW);
+	private final AtomicLongArray bytes = new AtomicLongArray(PHASES.length * WINDOW);
+	private final AtomicLongArray counts = new AtomicLongArray(PHASES.length);
+
+	// only touched by the thread running each phase
+	private final long[] startNanos = new long[PHASES.length];
+	private final long[] startBytes = new long[PHASES.length];
+
+	// only touched by the game thread
+	private final long[] rowCounts = new long[PHASES.length];
+
+	private volatile ProfileCsvWriter writer;
+
+	// sampling methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Starts timing a phase.
+	 *
+	 * @param phase The phase about to be run
+	 */
+	public void begin(Phase phase) {
+		int p = phase.ordinal();
+
+		startBytes[p] = allocatedBytes();
+		startNanos[p] = System.nanoTime();
+	}
+
+	/**
+	 * Stops timing a phase, and adds the sample to its window.
+	 *
+	 * @param phase The phase that has just been run
+	 */
+	public void end(Phase phase) {
+		long elapsed = System.nanoTime();
+		int p = phase.ordinal();
+
+		elapsed -= startNanos[p];
+		long allocated = allocatedBytes() - startBytes[p];
+
+		long count = counts.get(p);
+		int index = p * WINDOW + (int) (count & WINDOW_MASK);
+
+		nanos.lazySet(index, elapsed);
+		bytes.lazySet(index, allocated);
+		// publish the sample only once it has been written
+		counts.lazySet(p, count + 1);
+	}
+
+	/**
+	 * Marks the end of a tick. If a writer is set, writes a row holding the
+	 * latest sample of each phase, leaving out phases that have not been sampled
+	 * since the last row (e.g. when there was no paint since the last tick).
+	 * Must be called from the game thread.
+	 *
+	 * @param tick The tick that has just been run
+	 */
+	public void endFrame(long tick) {
+		ProfileCsvWriter writer = this.writer;
+		if (writer == null) {
+			return;
+		}
+
+		long[] row = writer.obtainRow();
+		if (row == null) {
+			// writer has fallen behind, so the row is dropped
+			return;
+		}
+
+		row[0] = tick;
+		for (int p = 0; p < PHASES.length; p++) {
+			long count = counts.get(p);
+
+			if (count == rowCounts[p]) {
+				row[1 + 2 * p] = -1;
+				row[2 + 2 * p] = -1;
+			} else {
+				int index = p * WINDOW + (int) ((count - 1) & WINDOW_MASK);
+
+				row[1 + 2 * p] = nanos.get(index);
+				row[2 + 2 * p] = bytes.get(index);
+				rowCounts[p] = count;
+			}
+		}
+
+		writer.submit(row);
+	}
+
+	private static long allocatedBytes() {
+		if (!ALLOCATION_SUPPORTED) {
+			return 0;
+		}
+
+		return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static boolean isAllocationSupported() {
+		return THREADS instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+	}
+
+	// reading methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Gets the number of samples in a phase's window, which is at most
+	 * <code>WINDOW</code>.
+	 *
+	 * @param phase The phase
+	 * @return The number of samples that can be read
+	 */
+	public int getSampleCount(Phase phase) {
+		return (int) Math.min(counts.get(phase.ordinal()), WINDOW);
+	}
+
+	/**
+	 * Gets how long a phase took in one of its recent samples.
+	 *
+	 * @param phase The phase
+	 * @param age   How many samples back to look (0 is the latest). Must be less
+	 *              than the sample count.
+	 * @return The time taken, in ns
+	 */
+	public long getNanos(Phase phase, int age) {
+		return nanos.get(indexOf(phase, age));
+	}
+
+	/**
+	 * Gets how many bytes were allocated by a phase in one of its recent samples.
+	 *
+	 * @param phase The phase
+	 * @param age   How many samples back to look (0 is the latest). Must be less
+	 *              than the sample count.
+	 * @return The number of bytes allocated, or 0 if this can't be measured
+	 */
+	public long getBytes(Phase phase, int age) {
+		return bytes.get(indexOf(phase, age));
+	}
+
+	private int indexOf(Phase phase, int age) {
+		int p = phase.ordinal();
+
+		return p * WINDOW + (int) ((counts.get(p) - 1 - age) & WINDOW_MASK);
+	}
+
+	/**
+	 * Gets the CSV header matching the rows written by <code>endFrame()</code>.
+	 *
+	 * @return The header, without a line break
+	 */
+	public static String getCsvHeader() {
+		StringBuilder header = new StringBuilder("tick");
+
+		for (Phase phase : PHASES) {
+			String name = phase.name().toLowerCase();
+			header.append(',').append(name).append("_ns,").append(name).append("_bytes");
+		}
+
+		return header.toString();
+	}
+
+	/**
+	 * Gets the number of values in each row written by <code>endFrame()</code>.
+	 *
+	 * @return The number of columns
+	 */
+	public static int getCsvColumns() {
+		return 1 + 2 * PHASES.length;
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	public ProfileCsvWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Sets the writer that a row is written to at the end of every tick.
+	 *
+	 * @param writer The writer to use, or <code>null</code> to stop writing
+	 */
+	public void setWriter(ProfileCsvWriter writer) {
+		this.writer = writer;
+	}
+}
@@ -0,0 +1,158 @@
+package com.pisoft.mistborn_game.profiling;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes rows of numbers to a CSV file on a background thread, so that the game
+ * thread never waits on the disk.
+ * <p>
+ * Rows are <code>long</code> arrays recycled through a fixed set of
+ * <code>QUEUE_SIZE</code> rows: the game thread takes a free row with
+ * <code>obtainRow()</code>, fills it and hands it over with
+ * <code>submit()</code>, and the writer thread returns it once written. If the
+ * writer falls so far behind that no rows are free, new rows are dropped
+ * rather than blocking, and counted. Negative values are written as empty
+ * cells.
+ *
+ * @author gouldb
+ *
+ */
+public class ProfileCsvWriter implements Closeable {
+	private static final int QUEUE_SIZE = 1024;
+
+	private final Writer out;
+	private final ArrayBlockingQueue<long[]> free = new ArrayBlockingQueue<>(QUEUE_SIZE);
+	private final ArrayBlockingQueue<long[]> filled = new ArrayBlockingQueue<>(QUEUE_SIZE);
+
+	private final Thread thread;
+	private volatile boolean running = true;
+	private volatile long dropped = 0;
+
+	/**
+	 * Constructs a new <code>ProfileCsvWriter</code> that writes to a file,
+	 * replacing it if it already exists, and starts its thread.
+	 *
+	 * @param fileName The file to write to
+	 * @param header   The first line of the file
+	 * @param columns  The number of values in each row
+	 * @throws IOException if the file cannot be opened
+	 */
+	public ProfileCsvWriter(String fileName, String header, int columns) throws IOException {
+		this(new FileWriter(fileName), header, columns);
+	}
+
+	/**
+	 * Constructs a new <code>ProfileCsvWriter</code> that writes to a
+	 * <code>Writer</code>, and starts its thread.
+	 *
+	 * @param out     The writer to write to
+	 * @param header  The first line of the output
+	 * @param columns The number of values in each row
+	 * @throws IOException if the header cannot be written
+	 */
+	public ProfileCsvWriter(Writer out, String header, int columns) throws IOException {
+		this.out = new BufferedWriter(out);
+
+		this.out.write(header);
+		this.out.write('\n');
+
+		for (int i = 0; i < QUEUE_SIZE; i++) {
+			free.add(new long[columns]);
+		}
+
+		thread = new Thread(this::run, "Profile CSV writer");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Takes a free row to fill in.
+	 *
+	 * @return The row, or <code>null</code> if the writer has fallen behind and
+	 *         the row should be dropped
+	 */
+	public long[] obtainRow() {
+		long[] row = free.poll();
+
+		if (row == null) {
+			dropped++;
+		}
+
+		return row;
+	}
+
+	/**
+	 * Hands a filled row over to be written.
+	 *
+	 * @param row A row from <code>obtainRow()</code>
+	 */
+	public void submit(long[] row) {
+		filled.offer(row);
+	}
+
+	private void run() {
+		try {
+			while (running || !filled.isEmpty()) {
+				long[] row = filled.poll(100, TimeUnit.MILLISECONDS);
+				if (row == null) {
+					continue;
+				}
+
+				writeRow(row);
+				free.offer(row);
+			}
+
+			out.flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void writeRow(long[] row) throws IOException {
+		for (int i = 0; i < row.length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+
+			if (row[i] >= 0) {
+				out.write(Long.toString(row[i]));
+			}
+		}
+
+		out.write('\n');
+	}
+
+	/**
+	 * Gets the number of rows dropped because the writer fell behind.
+	 *
+	 * @return The number of dropped rows
+	 */
+	public long getDropped() {
+		return dropped;
+	}
+
+	/**
+	 * Writes every row submitted so far, then stops the writer thread and closes
+	 * the output.
+	 */
+	@Override
+	public void close() throws IOException {
+		running = false;
+
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		out.close();
+	}
+}
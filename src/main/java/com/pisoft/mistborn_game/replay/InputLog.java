@@ -0,0 +1,244 @@
+package com.pisoft.mistborn_game.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+
+import com.pisoft.mistborn_game.player.Side;
+import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
+import com.pisoft.mistborn_game.player.intents.CrouchIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+import com.pisoft.mistborn_game.player.intents.PlayerIntent;
+import com.pisoft.mistborn_game.player.intents.PrepRunIntent;
+import com.pisoft.mistborn_game.player.intents.SteelPushIntent;
+import com.pisoft.mistborn_game.player.intents.StopAccIntent;
+import com.pisoft.mistborn_game.player.intents.StopCrouchIntent;
+import com.pisoft.mistborn_game.player.intents.StopJumpIntent;
+import com.pisoft.mistborn_game.player.intents.StopPrepRunIntent;
+import com.pisoft.mistborn_game.player.intents.StopSteelPushIntent;
+
+/**
+ * Binary format used to record the <code>PlayerIntent</code>s entering the
+ * <code>PlayerActionManager</code>, so that a session can be replayed exactly.
+ * <p>
+ * A log starts with a header of <code>MAGIC</code> (4 bytes) and
+ * <code>VERSION</code> (1 byte), followed by one record per intent, in the
+ * order they were received, until the end of the file. Each record is:
+ * <ul>
+ * <li>The number of ticks between the tick the intent was created in and the
+ * previous record's (or tick 0, for the first one), as an unsigned varint</li>
+ * <li>The intent's type code (1 byte), from the table below</li>
+ * <li>The intent's payload, which depends on its type: the ordinal of its
+ * direction (1 byte) for <code>AccelerateIntent</code> and
+ * <code>StopAccIntent</code>, the x and y of its location as zigzag varints for
+ * <code>SteelPushIntent</code>, and nothing for any other intent</li>
+ * </ul>
+ * Type codes are fixed here rather than taken from <code>GameEventTypes</code>,
+ * whose ids depend on the order classes are first seen and are not stable
+ * between runs. New intents must be given a new code, and existing codes must
+ * never be reused.
+ * 
+ * @author gouldb
+ *
+ */
+public final class InputLog {
+	/**
+	 * First 4 bytes of every log ("MBRP").
+	 */
+	public static final int MAGIC = 0x4D425250;
+
+	/**
+	 * Version of the format written by <code>InputRecorder</code>.
+	 */
+	public static final int VERSION = 1;
+
+	private static final int ACCELERATE = 1;
+	private static final int STOP_ACC = 2;
+	private static final int JUMP = 3;
+	private static final int STOP_JUMP = 4;
+	private static final int CROUCH = 5;
+	private static final int STOP_CROUCH = 6;
+	private static final int PREP_RUN = 7;
+	private static final int STOP_PREP_RUN = 8;
+	private static final int STEEL_PUSH = 9;
+	private static final int STOP_STEEL_PUSH = 10;
+
+	private static final HashMap<Class<? extends PlayerIntent>, Integer> codes = new HashMap<>();
+
+	static {
+		codes.put(AccelerateIntent.class, ACCELERATE);
+		codes.put(StopAccIntent.class, STOP_ACC);
+		codes.put(JumpIntent.class, JUMP);
+		codes.put(StopJumpIntent.class, STOP_JUMP);
+		codes.put(CrouchIntent.class, CROUCH);
+		codes.put(StopCrouchIntent.class, STOP_CROUCH);
+		codes.put(PrepRunIntent.class, PREP_RUN);
+		codes.put(StopPrepRunIntent.class, STOP_PREP_RUN);
+		codes.put(SteelPushIntent.class, STEEL_PUSH);
+		codes.put(StopSteelPushIntent.class, STOP_STEEL_PUSH);
+	}
+
+	private static final Side[] SIDES = Side.values();
+
+	private InputLog() {
+	}
+
+	// header methods
+	// ---------------------------------------------------------------------------------------------------
+	public static void writeHeader(DataOutput out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+	}
+
+	/**
+	 * Reads and checks the header of a log.
+	 * 
+	 * @param in The log to read from
+	 * @throws IOException if the input is not a log, or is from an unsupported
+	 *                     version
+	 */
+	public static void readHeader(DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not an input log");
+		}
+
+		int version = in.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported input log version: " + version);
+		}
+	}
+
+	// intent methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Checks whether an intent can be written to a log.
+	 * 
+	 * @param intent The intent to check
+	 * @return <code>true</code> if the intent's class has a type code
+	 */
+	public static boolean canWrite(PlayerIntent intent) {
+		return codes.containsKey(intent.getClass());
+	}
+
+	/**
+	 * Writes an intent's type code and payload.
+	 * 
+	 * @param out    The log to write to
+	 * @param intent The intent to write
+	 * @throws IllegalArgumentException if the intent's class has no type code
+	 */
+	public static void writeIntent(DataOutput out, PlayerIntent intent) throws IOException {
+		Integer code = codes.get(intent.getClass());
+
+		if (code == null) {
+			throw new IllegalArgumentException("No input log code for " + intent.getClass().getSimpleName());
+		}
+
+		out.writeByte(code);
+
+		switch (code) {
+		case ACCELERATE:
+			out.writeByte(((AccelerateIntent) intent).getDirection().ordinal());
+			break;
+		case STOP_ACC:
+			out.writeByte(((StopAccIntent) intent).getDirection().ordinal());
+			break;
+		case STEEL_PUSH:
+			SteelPushIntent steelPush = (SteelPushIntent) intent;
+			writeVarLong(out, zigzag(steelPush.getX()));
+			writeVarLong(out, zigzag(steelPush.getY()));
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Reads an intent's type code and payload, and creates a matching intent.
+	 * 
+	 * @param in The log to read from
+	 * @return A new intent, equivalent to the one that was written
+	 * @throws IOException if the type code is unknown
+	 */
+	public static PlayerIntent readIntent(DataInput in) throws IOException {
+		int code = in.readUnsignedByte();
+
+		switch (code) {
+		case ACCELERATE:
+			return new AccelerateIntent(readSide(in));
+		case STOP_ACC:
+			return new StopAccIntent(readSide(in));
+		case JUMP:
+			return new JumpIntent();
+		case STOP_JUMP:
+			return new StopJumpIntent();
+		case CROUCH:
+			return new CrouchIntent();
+		case STOP_CROUCH:
+			return new StopCrouchIntent();
+		case PREP_RUN:
+			return new PrepRunIntent();
+		case STOP_PREP_RUN:
+			return new StopPrepRunIntent();
+		case STEEL_PUSH:
+			int x = unzigzag(readVarLong(in));
+			int y = unzigzag(readVarLong(in));
+			return new SteelPushIntent(x, y);
+		case STOP_STEEL_PUSH:
+			return new StopSteelPushIntent();
+		default:
+			throw new IOException("Unknown intent code in input log: " + code);
+		}
+	}
+
+	private static Side readSide(DataInput in) throws IOException {
+		int ordinal = in.readUnsignedByte();
+
+		if (ordinal >= SIDES.length) {
+			throw new IOException("Unknown side in input log: " + ordinal);
+		}
+
+		return SIDES[ordinal];
+	}
+
+	// varint methods
+	// ---------------------------------------------------------------------------------------------------
+	/**
+	 * Writes a non-negative number 7 bits at a time, lowest bits first, with the
+	 * high bit of each byte set if more bytes follow.
+	 */
+	public static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		out.writeByte((int) value);
+	}
+
+	public static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+
+		throw new IOException("Malformed varint in input log");
+	}
+
+	private static long zigzag(int value) {
+		return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+	}
+
+	private static int unzigzag(long value) {
+		int n = (int) value;
+
+		return (n >>> 1) ^ -(n & 1);
+	}
+}
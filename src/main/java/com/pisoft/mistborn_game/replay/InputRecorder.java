@@ -0,0 +1,91 @@
+package com.pisoft.mistborn_game.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.pisoft.mistborn_game.player.intents.PlayerIntent;
+
+/**
+ * Writes <code>PlayerIntent</code>s to an input log (see {@link InputLog}),
+ * along with the tick they were created in.
+ * <p>
+ * A recorder is normally attached to the <code>PlayerActionManager</code>
+ * with <code>setRecorder()</code>, which records every intent as it is drained
+ * from the manager's ingress queue, on the game thread. Intents must be
+ * recorded in order of tick.
+ * <p>
+ * The creation tick is recorded rather than the tick an intent was drained in,
+ * since it is what actions are ordered by, and the ingress always applies an
+ * intent in the tick after the one it was created in.
+ * 
+ * @author gouldb
+ *
+ */
+public class InputRecorder implements Closeable {
+	private final DataOutputStream out;
+	private long lastTick = 0;
+
+	/**
+	 * Constructs a new <code>InputRecorder</code> that writes to a file,
+	 * replacing it if it already exists.
+	 * 
+	 * @param fileName The file to write the log to
+	 * @throws IOException if the file cannot be opened
+	 */
+	public InputRecorder(String fileName) throws IOException {
+		this(new FileOutputStream(fileName));
+	}
+
+	/**
+	 * Constructs a new <code>InputRecorder</code> that writes to a stream.
+	 * 
+	 * @param out The stream to write the log to
+	 * @throws IOException if the header cannot be written
+	 */
+	public InputRecorder(OutputStream out) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(out));
+
+		InputLog.writeHeader(this.out);
+	}
+
+	/**
+	 * Records an intent. Intents without a type code in the log format are
+	 * skipped.
+	 * 
+	 * @param tick   The tick the intent was created in
+	 * @param intent The intent to record
+	 * @throws IOException              if the log cannot be written to
+	 * @throws IllegalArgumentException if the tick is before the last recorded
+	 *                                  tick
+	 */
+	public synchronized void record(long tick, PlayerIntent intent) throws IOException {
+		if (tick < lastTick) {
+			throw new IllegalArgumentException("Intent recorded out of order at tick " + tick);
+		}
+
+		if (!InputLog.canWrite(intent)) {
+			return;
+		}
+
+		InputLog.writeVarLong(out, tick - lastTick);
+		InputLog.writeIntent(out, intent);
+
+		lastTick = tick;
+	}
+
+	/**
+	 * Writes any buffered records to the log.
+	 */
+	public synchronized void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+}
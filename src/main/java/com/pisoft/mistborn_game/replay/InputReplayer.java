@@ -0,0 +1,189 @@
+package com.pisoft.mistborn_game.replay;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.actions.PlayerActionManager;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
+import com.pisoft.mistborn_game.player.game_events.GameEventDispatcher;
+import com.pisoft.mistborn_game.player.game_events.GameEventListener;
+import com.pisoft.mistborn_game.player.game_events.GameEventListenerRegistry;
+import com.pisoft.mistborn_game.player.game_events.GameEventSubscriptions;
+import com.pisoft.mistborn_game.player.intents.PlayerIntent;
+
+/**
+ * Feeds the intents in an input log (see {@link InputLog}) back into the game,
+ * running ticks as fast as possible without any display or input devices.
+ * <p>
+ * Every intent is sent to the <code>PlayerActionManager</code>'s ingress queue
+ * between the tick it was recorded as created in and the next one, exactly as
+ * if it had come from the <code>KeyBinder</code> during that tick. Since the
+ * ingress applies every intent in the tick after the one it was created in, as
+ * long as the game starts in the same state it was recorded in, the replay
+ * resolves the same events in the same ticks and in the same order.
+ * 
+ * @author gouldb
+ *
+ */
+public class InputReplayer implements GameEventDispatcher, Closeable {
+	private final DataInputStream in;
+	private final GameEventListenerRegistry listeners = new GameEventListenerRegistry();
+
+	private GameContext context;
+	private Player targetPlayer;
+
+	// next intent to be sent, read ahead of time
+	private PlayerIntent next;
+	private long nextTick = 0;
+
+	/**
+	 * Constructs a new <code>InputReplayer</code> that reads from a file.
+	 * 
+	 * @param fileName The file to read the log from
+	 * @throws IOException if the file cannot be opened, or is not a valid log
+	 */
+	public InputReplayer(String fileName) throws IOException {
+		this(new FileInputStream(fileName));
+	}
+
+	/**
+	 * Constructs a new <code>InputReplayer</code> that reads from a stream.
+	 * 
+	 * @param in The stream to read the log from
+	 * @throws IOException if the stream is not a valid log
+	 */
+	public InputReplayer(InputStream in) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(in));
+
+		InputLog.readHeader(this.in);
+		readNext();
+	}
+
+	/**
+	 * Runs a context until every intent in the log has been resolved, followed by
+	 * some number of extra ticks. The context's active level must already be set.
+	 * 
+	 * @param context    The context to replay the log in
+	 * @param extraTicks Number of ticks to run after the last recorded intent
+	 * @return The number of ticks run
+	 * @throws IOException if the log cannot be read
+	 */
+	public long replay(GameContext context, int extraTicks) throws IOException {
+		attach(context);
+
+		long ticks = 0;
+		int extraTicksLeft = extraTicks;
+
+		while (!isFinished() || extraTicksLeft-- > 0) {
+			tick();
+			ticks++;
+		}
+
+		return ticks;
+	}
+
+	/**
+	 * Prepares to replay the log in a context, one tick at a time with
+	 * <code>tick()</code>. The context's active level must already be set.
+	 * 
+	 * @param context The context to replay the log in
+	 */
+	public void attach(GameContext context) {
+		this.context = context;
+
+		PlayerActionManager manager = context.getPlayerActionManager();
+		addGameEventListener(manager.getIngress(), manager.getEventClass());
+		setTargetPlayer(context.getActiveLevel().getPlayer());
+	}
+
+	/**
+	 * Sends every intent recorded as created in the context's current tick, and
+	 * runs the next tick.
+	 * 
+	 * @throws IOException if the log cannot be read
+	 */
+	public void tick() throws IOException {
+		long tick = context.getCurrentTick();
+
+		while (next != null && nextTick <= tick) {
+			next.setCreationTick(nextTick);
+			next.setValidExecutionTick(nextTick);
+
+			dispatchEvent(next);
+			readNext();
+		}
+
+		context.tick();
+	}
+
+	/**
+	 * Checks if every intent in the log has been sent.
+	 * 
+	 * @return <code>true</code> if there are no intents left to send
+	 */
+	public boolean isFinished() {
+		return next == null;
+	}
+
+	private void readNext() throws IOException {
+		long delta;
+
+		try {
+			delta = InputLog.readVarLong(in);
+		} catch (EOFException e) {
+			next = null;
+			return;
+		}
+
+		nextTick += delta;
+		next = InputLog.readIntent(in);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	// getters and setters
+	// ---------------------------------------------------------------------------------------------------
+	@Override
+	public GameEventSubscriptions getListeners() {
+		return listeners.snapshot();
+	}
+
+	@Override
+	public void addGameEventListener(GameEventListener listener, Class<? extends GameEvent> type) {
+		listeners.add(listener, type);
+	}
+
+	@Override
+	public void removeGameEventListener(GameEventListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void removeGameEventListener(int index) {
+		listeners.remove(index);
+	}
+
+	@Override
+	public GameContext getContext() {
+		return context;
+	}
+
+	@Override
+	public Player getTargetPlayer() {
+		return targetPlayer;
+	}
+
+	public void setTargetPlayer(Player targetPlayer) {
+		this.targetPlayer = targetPlayer;
+	}
+}
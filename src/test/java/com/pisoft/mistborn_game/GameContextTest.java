@@ -0,0 +1,73 @@
+package com.pisoft.mistborn_game;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.levels.LoadedLevels;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.game_events.GameEvent;
+import com.pisoft.mistborn_game.player.game_events.GameEventManager;
+import com.pisoft.mistborn_game.player.game_events.SlidingEvent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+
+public class GameContextTest {
+
+	@Test
+	public void testContextsRunIndependently() {
+		GameContext first = new GameContext();
+		first.setActiveLevel(LoadedLevels.createLevel1());
+		GameContext second = new GameContext();
+		second.setActiveLevel(LoadedLevels.createLevel1());
+		GameContext control = new GameContext();
+		control.setActiveLevel(LoadedLevels.createLevel1());
+
+		for (int i = 0; i < 30; i++) {
+			first.tick();
+		}
+		second.tick();
+		control.tick();
+
+		assertEquals(30, first.getCurrentTick());
+		assertEquals(1, second.getCurrentTick());
+
+		// running the first context must not have moved the second one along
+		Player firstPlayer = first.getActiveLevel().getPlayer();
+		Player secondPlayer = second.getActiveLevel().getPlayer();
+		Player controlPlayer = control.getActiveLevel().getPlayer();
+		assertEquals(controlPlayer.getyPos(), secondPlayer.getyPos(), 0);
+		assertTrue(firstPlayer.getyPos() != secondPlayer.getyPos());
+	}
+
+	@Test
+	public void testContextsHaveSeparatePools() {
+		GameContext first = new GameContext();
+		GameContext second = new GameContext();
+
+		assertNotSame(first.getPool(SlidingEvent.class), second.getPool(SlidingEvent.class));
+	}
+
+	@Test
+	public void testEventsStampedOnlyOnce() {
+		GameContext context = new GameContext();
+		Player player = new Player();
+		player.setContext(context);
+
+		context.setCurrentTick(3);
+		SlidingEvent obtained = context.obtain(SlidingEvent.class);
+		JumpIntent constructed = new JumpIntent();
+		player.dispatchEvent(constructed, new GameEventManager<>(context, GameEvent.class));
+
+		// dispatching later, or passing an event on again, must not move its creation tick
+		context.setCurrentTick(5);
+		player.dispatchEvent(obtained, new GameEventManager<>(context, GameEvent.class));
+		player.dispatchEvent(constructed, new GameEventManager<>(context, GameEvent.class));
+
+		assertEquals(3, obtained.getCreationTick());
+		assertEquals(3, constructed.getCreationTick());
+		assertSame(context, constructed.getContext());
+	}
+}
@@ -0,0 +1,53 @@
+package com.pisoft.mistborn_game.clock;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class ScaledClockTest {
+
+	@Test
+	public void testScalesSourceTime() {
+		VirtualClock source = new VirtualClock(1_000);
+		ScaledClock clock = new ScaledClock(source, 10);
+
+		assertEquals(1_000, clock.nanoTime());
+
+		source.advance(1_000_000);
+		assertEquals(10_001_000, clock.nanoTime());
+	}
+
+	@Test
+	public void testChangingScaleDoesNotJump() {
+		VirtualClock source = new VirtualClock();
+		ScaledClock clock = new ScaledClock(source, 2);
+
+		source.advance(1_000);
+		clock.setScale(0.5);
+		assertEquals(2_000, clock.nanoTime());
+
+		source.advance(1_000);
+		assertEquals(2_500, clock.nanoTime());
+	}
+
+	@Test
+	public void testSleepUntil() {
+		VirtualClock source = new VirtualClock();
+		ScaledClock clock = new ScaledClock(source, 0.1);
+
+		clock.sleepUntil(3_000);
+
+		assertEquals(30_000, source.nanoTime());
+		assertEquals(3_000, clock.nanoTime());
+	}
+
+	@Test
+	public void testScaleOutOfRange() {
+		try {
+			new ScaledClock(new VirtualClock(), 1000);
+			fail("Expected an IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.pisoft.mistborn_game.display;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.levels.Metal;
+import com.pisoft.mistborn_game.levels.Platform;
+import com.pisoft.mistborn_game.player.Player;
+
+public class CameraTest {
+
+	private static Level createLevel(double width, double height) {
+		ArrayList<Platform> platforms = new ArrayList<>();
+		platforms.add(new Platform(0, 0, width, height));
+
+		return new Level(platforms, new ArrayList<Metal>());
+	}
+
+	@Test
+	public void testStaysStillInsideDeadZone() {
+		Level level = createLevel(10000, 5000);
+		RenderGeometry geometry = new RenderGeometry(level);
+		Player player = level.getPlayer();
+		Camera camera = new Camera(800, 450);
+
+		player.setxPos(2000);
+		player.setyPos(2000);
+		camera.centreOn(player, geometry);
+
+		int viewX = camera.getViewX();
+		int viewY = camera.getViewY();
+
+		// small moves stay inside the dead zone
+		player.setxPos(2050);
+		player.setyPos(1980);
+		for (int i = 0; i < 10; i++) {
+			camera.follow(player, geometry);
+		}
+
+		assertEquals(viewX, camera.getViewX());
+		assertEquals(viewY, camera.getViewY());
+	}
+
+	@Test
+	public void testEasesTowardsPlayer() {
+		Level level = createLevel(10000, 5000);
+		RenderGeometry geometry = new RenderGeometry(level);
+		Player player = level.getPlayer();
+		Camera camera = new Camera(800, 450);
+
+		player.setxPos(2000);
+		player.setyPos(2000);
+		camera.centreOn(player, geometry);
+
+		int start = camera.getViewX();
+
+		player.setxPos(3000);
+		camera.follow(player, geometry);
+
+		// moves part of the way in one tick
+		assertTrue(camera.getViewX() > start);
+		assertTrue(camera.getViewX() < 3000 - 800);
+
+		for (int i = 0; i < 200; i++) {
+			camera.follow(player, geometry);
+		}
+
+		// settles with the player's right edge on the right edge of the dead zone
+		double zoneMax = camera.getViewX() + 800 * (1 + 0.3) / 2;
+		assertEquals(zoneMax, player.getxPos() + player.getWidth(), 1);
+	}
+
+	@Test
+	public void testStaysInsideLevel() {
+		Level level = createLevel(600, 300);
+		RenderGeometry geometry = new RenderGeometry(level);
+		Player player = level.getPlayer();
+		Camera camera = new Camera(800, 450);
+
+		player.setxPos(-500);
+		player.setyPos(900);
+		for (int i = 0; i < 100; i++) {
+			camera.follow(player, geometry);
+		}
+
+		// the level fits inside the viewport, so it is drawn where it would be without a camera
+		assertEquals(0, camera.getViewX());
+		assertEquals(0, camera.getViewY());
+	}
+}
@@ -0,0 +1,65 @@
+package com.pisoft.mistborn_game.display;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.levels.LoadedLevels;
+
+public class DebugOverlayTest {
+
+	// shared, so the overlay always sees the same graphics configuration
+	private final BufferedImage screen = new BufferedImage(800, 450, BufferedImage.TYPE_INT_RGB);
+
+	private void paint(DebugOverlay overlay, Level level, long tick) {
+		RenderGeometry geometry = new RenderGeometry(level);
+		Camera camera = new Camera(800, 450);
+		RenderSnapshot snapshot = new RenderSnapshot();
+		snapshot.capture(level, geometry, camera, tick);
+
+		Graphics2D g = screen.createGraphics();
+		overlay.paint(g, snapshot);
+		g.dispose();
+	}
+
+	@Test
+	public void testFormatsFields() {
+		Level level = LoadedLevels.createLevel1();
+		level.getPlayer().setxPos(12.5);
+
+		DebugOverlay overlay = new DebugOverlay();
+		paint(overlay, level, 1);
+
+		String[] lines = overlay.getLines();
+		assertEquals("xPos: 12.5", lines[1]);
+		assertEquals("Target Metal: null", lines[lines.length - 1]);
+	}
+
+	@Test
+	public void testThrottlesRefreshes() {
+		Level level = LoadedLevels.createLevel1();
+		level.getPlayer().setxPos(10);
+
+		DebugOverlay overlay = new DebugOverlay();
+		overlay.setRefreshDelay(Long.MAX_VALUE);
+		paint(overlay, level, 1);
+
+		// not due for a refresh yet, so the old text is kept
+		level.getPlayer().setxPos(20);
+		paint(overlay, level, 2);
+		assertEquals("xPos: 10.0", overlay.getLines()[1]);
+
+		overlay.setRefreshDelay(0);
+		paint(overlay, level, 3);
+		assertEquals("xPos: 20.0", overlay.getLines()[1]);
+
+		// always due, but only once a new tick has been captured
+		level.getPlayer().setxPos(30);
+		paint(overlay, level, 3);
+		assertEquals("xPos: 20.0", overlay.getLines()[1]);
+	}
+}
@@ -0,0 +1,62 @@
+package com.pisoft.mistborn_game.display;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Canvas;
+import java.awt.Graphics2D;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.Game;
+import com.pisoft.mistborn_game.controllers.KeyBinder;
+import com.pisoft.mistborn_game.levels.Level;
+
+public class FrameRendererTest {
+
+	private static void paint(FrameRenderer renderer, int width, int height) {
+		BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+		Graphics2D g = frame.createGraphics();
+		renderer.paintFrame(g, width, height);
+		g.dispose();
+	}
+
+	@Test
+	public void testViewTransformMatchesDrawing() throws Exception {
+		// a headless game publishes no snapshots, so publish one by hand
+		Game game = new Game(true);
+		Level level = game.getContext().getActiveLevel();
+		level.getPlayer().setxPos(3000);
+
+		RenderGeometry geometry = new RenderGeometry(level);
+		game.getCamera().centreOn(level.getPlayer(), geometry);
+		game.getSnapshots().getBack().capture(level, geometry, game.getCamera(), 1);
+		game.getSnapshots().publish();
+
+		FrameRenderer renderer = new FrameRenderer(game);
+		KeyBinder keyBinder = renderer.bindControls(new Canvas());
+
+		game.setRenderScale(0.5);
+		paint(renderer, 1920, 1200);
+
+		// letterboxed at 1.5x, with 60 pixel bars above and below
+		Point2D level1 = keyBinder.getViewTransform().inverseTransform(new Point2D.Double(0, 60), null);
+		Point2D level2 = keyBinder.getViewTransform().inverseTransform(new Point2D.Double(1920, 1140), null);
+
+		int viewX = game.getCamera().getViewX();
+		int viewY = game.getCamera().getViewY();
+		assertEquals(viewX, level1.getX(), 1);
+		assertEquals(viewY, level1.getY(), 1);
+		assertEquals(viewX + FrameRenderer.LOGICAL_WIDTH, level2.getX(), 1);
+		assertEquals(viewY + FrameRenderer.LOGICAL_HEIGHT, level2.getY(), 1);
+	}
+
+	@Test
+	public void testFitScale() {
+		assertEquals(1, FrameRenderer.fitScale(1280, 720), 0);
+		assertEquals(1.5, FrameRenderer.fitScale(1920, 1200), 0);
+		assertEquals(0.5, FrameRenderer.fitScale(640, 1000), 0);
+	}
+}
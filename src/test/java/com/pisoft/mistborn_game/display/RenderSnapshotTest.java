@@ -0,0 +1,111 @@
+package com.pisoft.mistborn_game.display;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.levels.Metal;
+import com.pisoft.mistborn_game.levels.Platform;
+
+public class RenderSnapshotTest {
+
+	/**
+	 * Metal that counts how many times its position is read.
+	 */
+	private static class CountingMetal extends Metal {
+		private static int reads = 0;
+
+		private CountingMetal(double xPos, double yPos) {
+			super(xPos, yPos);
+		}
+
+		@Override
+		public double getxPos() {
+			reads++;
+			return super.getxPos();
+		}
+
+		@Override
+		public double getyPos() {
+			reads++;
+			return super.getyPos();
+		}
+	}
+
+	private static final int VIEW_WIDTH = 800, VIEW_HEIGHT = 450;
+
+	private static Level createLevel(int farMetals) {
+		ArrayList<Platform> platforms = new ArrayList<>();
+		platforms.add(new Platform(0, 0, 200_000, 5000));
+
+		Level level = new Level(platforms, new ArrayList<>());
+		level.getPlayer().setxPos(2000);
+		level.getPlayer().setyPos(2000);
+
+		Camera camera = createCamera(level);
+		int viewX = camera.getViewX(), viewY = camera.getViewY();
+
+		ArrayList<Metal> metals = level.getMetals();
+		metals.add(new CountingMetal(viewX + 100, viewY + 100));
+		// only the outlines of these two are inside the viewport
+		metals.add(new CountingMetal(viewX - 6, viewY + 200));
+		metals.add(new CountingMetal(viewX + 300, viewY + VIEW_HEIGHT + 1));
+		// and only the outline of this one is outside it
+		metals.add(new CountingMetal(viewX - 7, viewY + 300));
+
+		for (int i = 0; i < farMetals; i++) {
+			metals.add(new CountingMetal(10_000 + i % 1000 * 150, 500 + i / 1000 * 40));
+		}
+
+		level.metalsChanged();
+
+		return level;
+	}
+
+	private static Camera createCamera(Level level) {
+		Camera camera = new Camera(VIEW_WIDTH, VIEW_HEIGHT);
+		camera.centreOn(level.getPlayer(), new RenderGeometry(level));
+
+		return camera;
+	}
+
+	private static RenderSnapshot capture(Level level) {
+		RenderGeometry geometry = new RenderGeometry(level);
+		Camera camera = createCamera(level);
+
+		// metals are copied into the geometry once, and never read from the level again
+		CountingMetal.reads = 0;
+
+		RenderSnapshot snapshot = new RenderSnapshot();
+		for (int i = 0; i < 10; i++) {
+			snapshot.capture(level, geometry, camera, i);
+		}
+
+		return snapshot;
+	}
+
+	@Test
+	public void testCapturesMetalsInViewport() {
+		RenderSnapshot snapshot = capture(createLevel(0));
+		int viewX = snapshot.getViewX(), viewY = snapshot.getViewY();
+
+		assertEquals(3, snapshot.getMetalCount());
+		assertEquals(viewX + 100, snapshot.getMetalxPos(0), 0);
+		assertEquals(viewX - 6, snapshot.getMetalxPos(1), 0);
+		assertEquals(viewY + VIEW_HEIGHT + 1, snapshot.getMetalyPos(2), 0);
+	}
+
+	@Test
+	public void testCaptureCostIndependentOfMetalCount() {
+		RenderSnapshot small = capture(createLevel(0));
+		assertEquals(0, CountingMetal.reads);
+
+		RenderSnapshot large = capture(createLevel(100_000));
+		assertEquals(0, CountingMetal.reads);
+
+		assertEquals(small.getMetalCount(), large.getMetalCount());
+	}
+}
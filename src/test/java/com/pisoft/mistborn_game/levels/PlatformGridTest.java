@@ -0,0 +1,66 @@
+package com.pisoft.mistborn_game.levels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PlatformGridTest {
+
+	@Test
+	public void testMatchesLinearScan() {
+		Random random = new Random(42);
+
+		ArrayList<Platform> platforms = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			platforms.add(new Platform(random.nextInt(20000) - 1000, random.nextInt(5000), 1 + random.nextInt(400),
+					1 + random.nextInt(100)));
+		}
+
+		PlatformGrid grid = new PlatformGrid();
+		grid.rebuild(platforms);
+
+		for (int i = 0; i < 500; i++) {
+			double minX = random.nextInt(22000) - 2000;
+			double minY = random.nextInt(6000) - 500;
+			double maxX = minX + random.nextInt(300);
+			double maxY = minY + random.nextInt(300);
+
+			ArrayList<Platform> expected = new ArrayList<>();
+			for (Platform p : platforms) {
+				if (p.getxPos() < maxX && p.getxPos() + p.getWidth() > minX && p.getyPos() < maxY
+						&& p.getyPos() + p.getHeight() > minY) {
+					expected.add(p);
+				}
+			}
+
+			ArrayList<Platform> found = new ArrayList<>();
+			grid.findOverlapping(minX, minY, maxX, maxY, found);
+
+			assertEquals(expected, found);
+			assertSame(expected.isEmpty() ? null : expected.get(0),
+					grid.findFirst(minX, minY, maxX, maxY, expected::contains));
+		}
+	}
+
+	@Test
+	public void testLevelKeepsGridUpToDate() {
+		Level level = new Level(new ArrayList<>(), new ArrayList<>());
+		assertNull(level.getPlatformGrid().findFirst(0, 0, 1000, 1000, p -> true));
+
+		Platform platform = new Platform(100, 100, 50, 50);
+		level.addPlatform(platform);
+		assertSame(platform, level.getPlatformGrid().findFirst(0, 0, 1000, 1000, p -> true));
+
+		platform.setxPos(5000);
+		level.platformsChanged();
+		assertNull(level.getPlatformGrid().findFirst(0, 0, 1000, 1000, p -> true));
+
+		level.removePlatform(platform);
+		assertNull(level.getPlatformGrid().findFirst(4000, 0, 6000, 1000, p -> true));
+	}
+}
@@ -0,0 +1,152 @@
+package com.pisoft.mistborn_game.levels;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Microbenchmark for <code>SweptCollider</code>.
+ * <p>
+ * A box is moved around levels of increasing numbers of platforms, and the
+ * time taken per move is measured. The back-off loop that
+ * <code>Player.handleCollision()</code> used before the swept collider, which
+ * scanned every platform in the level each time it checked for a collision,
+ * is run alongside as a baseline, on the same moves.
+ * <p>
+ * Run with <code>main()</code>; this is not part of the test suite.
+ *
+ * @author gouldb
+ *
+ */
+public class SweptColliderBenchmark {
+	private static final int[] PLATFORM_COUNTS = { 10, 1_000, 10_000 };
+	private static final int MOVES = 200_000;
+	private static final int ROUNDS = 5;
+
+	private static final double MARGIN = 2;
+	private static final double WIDTH = 50;
+	private static final double HEIGHT = 100;
+
+	public static void main(String[] args) {
+		System.out.println("platforms  swept   back-off   (ns/move)");
+
+		for (int count : PLATFORM_COUNTS) {
+			Random random = new Random(1);
+
+			ArrayList<Platform> platforms = new ArrayList<>();
+			for (int i = 0; i < count; i++) {
+				platforms.add(new Platform(random.nextInt(100_000), random.nextInt(10_000), 10 + random.nextInt(300),
+						10 + random.nextInt(50)));
+			}
+
+			double[] moves = new double[MOVES * 4];
+			for (int i = 0; i < MOVES; i++) {
+				moves[4 * i] = random.nextInt(100_000);
+				moves[4 * i + 1] = random.nextInt(10_000);
+				moves[4 * i + 2] = random.nextGaussian() * 10;
+				moves[4 * i + 3] = random.nextGaussian() * 10;
+			}
+
+			PlatformGrid grid = new PlatformGrid();
+			grid.rebuild(platforms);
+
+			double swept = 0;
+			double backOff = 0;
+
+			// first rounds are warm up, keep the last one
+			for (int round = 0; round < ROUNDS; round++) {
+				swept = runSwept(grid, moves);
+				backOff = runBackOff(platforms, moves);
+			}
+
+			System.out.println(String.format("%-10d %6.1f %10.1f", count, swept, backOff));
+		}
+	}
+
+	private static double runSwept(PlatformGrid grid, double[] moves) {
+		SweptCollider collider = new SweptCollider(MARGIN);
+		double sink = 0;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < MOVES; i++) {
+			double x = collider.sweepX(grid, moves[4 * i], moves[4 * i + 1], WIDTH, HEIGHT, moves[4 * i + 2]);
+			double y = collider.sweepY(grid, x, moves[4 * i + 1], WIDTH, HEIGHT, moves[4 * i + 3]);
+
+			sink += x + y;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		blackhole(sink);
+		return (double) elapsed / MOVES;
+	}
+
+	/**
+	 * Baseline: moves the box by its full speed, then backs it out of each
+	 * platform it overlaps, one axis at a time.
+	 */
+	private static double runBackOff(ArrayList<Platform> platforms, double[] moves) {
+		int moveCount = platforms.size() > 1_000 ? MOVES / 20 : MOVES;
+		double sink = 0;
+
+		long start = System.nanoTime();
+		for (int i = 0; i < moveCount; i++) {
+			double xSpeed = moves[4 * i + 2];
+			double ySpeed = moves[4 * i + 3];
+			double x = moves[4 * i] + xSpeed;
+			double y = moves[4 * i + 1] + ySpeed;
+
+			Platform platform;
+			while ((platform = findCollided(platforms, x, y)) != null) {
+				boolean causedByX = false;
+				boolean causedByY = false;
+
+				if (collided(platform, x - xSpeed, y)) {
+					causedByY = true;
+				}
+				if (collided(platform, x, y - ySpeed)) {
+					causedByX = true;
+				}
+
+				if (!causedByX && !causedByY) {
+					causedByX = Math.abs(ySpeed) > Math.abs(xSpeed);
+					causedByY = !causedByX;
+				}
+
+				if (causedByX) {
+					x = (xSpeed > 0) ? platform.getxPos() - WIDTH - MARGIN
+							: platform.getxPos() + platform.getWidth() + MARGIN;
+				}
+				if (causedByY) {
+					y = (ySpeed > 0) ? platform.getyPos() - HEIGHT - MARGIN
+							: platform.getyPos() + platform.getHeight() + MARGIN;
+				}
+			}
+
+			sink += x + y;
+		}
+		long elapsed = System.nanoTime() - start;
+
+		blackhole(sink);
+		return (double) elapsed / moveCount;
+	}
+
+	private static Platform findCollided(ArrayList<Platform> platforms, double x, double y) {
+		for (Platform platform : platforms) {
+			if (collided(platform, x, y)) {
+				return platform;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean collided(Platform platform, double x, double y) {
+		return x + WIDTH + MARGIN > platform.getxPos() && platform.getxPos() + platform.getWidth() + MARGIN > x
+				&& y + HEIGHT + MARGIN > platform.getyPos() && platform.getyPos() + platform.getHeight() + MARGIN > y;
+	}
+
+	private static void blackhole(double value) {
+		if (value == Double.MIN_VALUE) {
+			System.out.println(value);
+		}
+	}
+}
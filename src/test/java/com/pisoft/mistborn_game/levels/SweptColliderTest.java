@@ -0,0 +1,75 @@
+package com.pisoft.mistborn_game.levels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class SweptColliderTest {
+	private static final double MARGIN = 2;
+
+	private final SweptCollider collider = new SweptCollider(MARGIN);
+
+	private static PlatformGrid gridOf(Platform... platforms) {
+		PlatformGrid grid = new PlatformGrid();
+		grid.rebuild(new ArrayList<>(Arrays.asList(platforms)));
+
+		return grid;
+	}
+
+	@Test
+	public void testFastBoxDoesNotTunnelThroughThinWall() {
+		Platform wall = new Platform(300, 0, 1, 1000);
+		PlatformGrid grid = gridOf(wall);
+
+		double x = collider.sweepX(grid, 0, 100, 50, 100, 5000);
+
+		assertEquals(300 - 50 - MARGIN, x, 0);
+		assertSame(wall, collider.getHit());
+
+		x = collider.sweepX(grid, 1000, 100, 50, 100, -5000);
+
+		assertEquals(301 + MARGIN, x, 0);
+		assertSame(wall, collider.getHit());
+	}
+
+	@Test
+	public void testFastBoxDoesNotTunnelThroughThinFloor() {
+		Platform floor = new Platform(0, 400, 1000, 1);
+		PlatformGrid grid = gridOf(floor);
+
+		double y = collider.sweepY(grid, 100, 0, 50, 100, 10_000);
+
+		assertEquals(400 - 100 - MARGIN, y, 0);
+		assertSame(floor, collider.getHit());
+	}
+
+	@Test
+	public void testStopsAtNearestPlatform() {
+		Platform far = new Platform(800, 0, 10, 1000);
+		Platform near = new Platform(400, 0, 10, 1000);
+		PlatformGrid grid = gridOf(far, near);
+
+		double x = collider.sweepX(grid, 0, 100, 50, 100, 2000);
+
+		assertEquals(400 - 50 - MARGIN, x, 0);
+		assertSame(near, collider.getHit());
+	}
+
+	@Test
+	public void testMissesPlatformsOutOfTheWay() {
+		PlatformGrid grid = gridOf(new Platform(300, 500, 10, 10));
+
+		// passes above the platform, and moving along a floor it is resting on
+		assertEquals(1000, collider.sweepX(grid, 0, 100, 50, 100, 1000), 0);
+		assertNull(collider.getHit());
+
+		grid = gridOf(new Platform(0, 300, 1000, 10));
+		assertEquals(600, collider.sweepX(grid, 100, 300 - 100 - MARGIN, 50, 100, 500), 0);
+		assertNull(collider.getHit());
+	}
+}
@@ -0,0 +1,68 @@
+package com.pisoft.mistborn_game.player;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.levels.Level;
+import com.pisoft.mistborn_game.levels.Platform;
+
+public class PlayerCollisionTest {
+
+	private GameContext context;
+	private Player player;
+
+	@Before
+	public void setUp() {
+		ArrayList<Platform> platforms = new ArrayList<>();
+		// a thin wall to the right of the player, and a thin floor below it
+		platforms.add(new Platform(600, 0, 1, 1000));
+		platforms.add(new Platform(0, 400, 600, 1));
+
+		context = new GameContext();
+		context.setActiveLevel(new Level(platforms, new ArrayList<>()));
+		player = context.getActiveLevel().getPlayer();
+		// a new player has no wall side yet, which would count as leaving a wall
+		player.setWallSide(Side.NONE);
+	}
+
+	@Test
+	public void testHighSpeedStopsAtThinWall() {
+		player.setxSpeed(1000);
+		context.tick();
+
+		assertEquals(600 - player.getWidth() - 2, player.getxPos(), 0);
+		assertTrue(player.isAtWall());
+		assertEquals(Side.RIGHT, player.getWallSide());
+	}
+
+	@Test
+	public void testHighSpeedLandsOnThinFloor() {
+		player.setySpeed(1000);
+		context.tick();
+
+		assertEquals(400 - player.getHeight() - 2, player.getyPos(), 0);
+		assertTrue(player.isGrounded());
+	}
+
+	@Test
+	public void testLeavesFloorWhenFloorIsRemoved() {
+		player.setySpeed(1000);
+		context.tick();
+		assertTrue(player.isGrounded());
+
+		// the floor is cached as the player's contact, which must not outlive it
+		context.getActiveLevel().removePlatform(context.getActiveLevel().getPlatforms().get(1));
+		for (int i = 0; i < 5; i++) {
+			context.tick();
+		}
+
+		assertTrue(player.isFalling());
+		assertTrue(player.getyPos() > 400 - player.getHeight() - 2);
+	}
+}
@@ -0,0 +1,84 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.actions.PlayerAction;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+
+public class GameEventListenerRegistryTest {
+
+	@Test
+	public void testDispatchSharesSnapshot() {
+		Player player = new Player();
+		player.setContext(new GameContext());
+		GameEventListener listener = e -> {
+		};
+		player.addGameEventListener(listener);
+
+		SlidingEvent first = new SlidingEvent();
+		SlidingEvent second = new SlidingEvent();
+		player.dispatchEvent(first);
+		player.dispatchEvent(second);
+
+		assertSame(first.getListeners(), second.getListeners());
+		assertSame(listener, first.getListeners().route(first)[0]);
+	}
+
+	@Test
+	public void testChangeDoesNotAffectDispatchedEvents() {
+		Player player = new Player();
+		player.setContext(new GameContext());
+		GameEventListener listener = e -> {
+		};
+		player.addGameEventListener(listener);
+
+		SlidingEvent event = new SlidingEvent();
+		player.dispatchEvent(event);
+		GameEventSubscriptions dispatched = event.getListeners();
+
+		player.removeGameEventListener(listener);
+
+		assertEquals(1, event.getListeners().size());
+		assertEquals(0, player.getListeners().size());
+		assertNotSame(dispatched, player.getListeners());
+	}
+
+	@Test
+	public void testListenerOnlyReceivesSubscribedTypes() {
+		ArrayList<GameEvent> received = new ArrayList<>();
+		Player player = new Player();
+		player.setContext(new GameContext());
+		player.addGameEventListener(received::add, PlayerAction.class);
+
+		JumpIntent jump = new JumpIntent();
+		player.dispatchEvent(new SlidingEvent());
+		player.dispatchEvent(jump);
+
+		assertEquals(1, received.size());
+		assertSame(jump, received.get(0));
+	}
+
+	@Test
+	public void testDirectDispatchSharesManagerSnapshot() {
+		GameContext context = new GameContext();
+		Player player = new Player();
+		player.setContext(context);
+		GameEventManager<GameEvent> manager = new GameEventManager<>(context, GameEvent.class);
+
+		SlidingEvent first = new SlidingEvent();
+		SlidingEvent second = new SlidingEvent();
+		player.dispatchEvent(first, manager);
+		player.dispatchEvent(second, manager);
+
+		assertSame(first.getListeners(), second.getListeners());
+		assertSame(manager, first.getListeners().route(first)[0]);
+	}
+}
@@ -0,0 +1,116 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.constants.GameEventConflictConstants;
+import com.pisoft.mistborn_game.player.intents.CrouchIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+
+public class GameEventManagerTest {
+
+	private GameContext context;
+	private GameEventManager<GameEvent> manager;
+
+	@Before
+	public void setUp() {
+		GameEventConflictConstants.initConflicts();
+
+		context = new GameContext();
+		manager = new GameEventManager<>(context, GameEvent.class);
+	}
+
+	@Test
+	public void testConflictDiscardsBufferedEvent() {
+		FinishLandingEvent finishLanding = new FinishLandingEvent();
+		finishLanding.setValidExecutionTick(5);
+		manager.getBuffers().get(0).add(finishLanding);
+
+		manager.receiveGameEvent(new LeavingFloorEvent());
+		manager.cleanUp();
+
+		assertEquals(0, manager.getBuffers().get(0).size());
+		assertEquals(1, manager.queuedEvents.size());
+	}
+
+	@Test
+	public void testLowerPriorityConflictDiscarded() {
+		JumpIntent jump = new JumpIntent();
+		CrouchIntent crouch = new CrouchIntent();
+		crouch.setPriority(1);
+
+		manager.receiveGameEvent(jump);
+		manager.receiveGameEvent(crouch);
+		manager.cleanUp();
+
+		assertEquals(1, manager.queuedEvents.size());
+		assertSame(crouch, manager.queuedEvents.deque());
+	}
+
+	@Test
+	public void testCompatibleEventsKept() {
+		manager.receiveGameEvent(new JumpIntent());
+		manager.receiveGameEvent(new FinishLandingEvent());
+		manager.receiveGameEvent(new SlidingEvent());
+		manager.cleanUp();
+
+		assertEquals(3, manager.queuedEvents.size());
+	}
+
+	@Test
+	public void testIngressSideEffectsResolvedInSamePass() {
+		manager.clearBuffers();
+
+		boolean[] resolved = new boolean[1];
+		GameEvent effect = new GameEvent() {
+			@Override
+			public void resolve() {
+				resolved[0] = true;
+			}
+		};
+		GameEvent cause = new GameEvent() {
+			@Override
+			public void resolve() {
+				dispatchEvent(effect);
+			}
+		};
+
+		Player player = new Player();
+		player.setContext(context);
+		player.addGameEventListener(manager.getIngress());
+		player.dispatchEvent(cause);
+		manager.resolveQueuedEvents();
+
+		assertTrue(resolved[0]);
+	}
+
+	@Test
+	public void testIngressEventCreatedDuringTickHeldUntilNext() {
+		boolean[] resolved = new boolean[1];
+		GameEvent event = new GameEvent() {
+			@Override
+			public void resolve() {
+				resolved[0] = true;
+			}
+		};
+
+		// created after tick 1 started, while its ingress had not been drained yet
+		context.setCurrentTick(1);
+		Player player = new Player();
+		player.setContext(context);
+		player.dispatchEvent(event, manager.getIngress());
+		manager.resolveQueuedEvents();
+		assertFalse(resolved[0]);
+
+		context.setCurrentTick(2);
+		manager.resolveQueuedEvents();
+		assertTrue(resolved[0]);
+	}
+}
@@ -0,0 +1,76 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.player.Player;
+
+public class GameEventPoolTest {
+
+	@Test
+	public void testEventReusedAfterResolve() {
+		GameContext context = new GameContext();
+		GameEventManager<GameEvent> manager = context.getGameEventManager();
+		manager.clearBuffers();
+
+		JumpPeakedEvent event = context.obtain(JumpPeakedEvent.class);
+		event.setTargetPlayer(new Player());
+		manager.receiveGameEvent(event);
+		manager.resolveQueuedEvents();
+
+		assertSame(event, context.obtain(JumpPeakedEvent.class));
+	}
+
+	@Test
+	public void testEventNotReusedWhileRetained() {
+		GameEventPool<SlidingEvent> pool = new GameEventPool<>(SlidingEvent::new);
+
+		SlidingEvent event = pool.acquire();
+		event.retain();
+		event.retain();
+		event.release();
+
+		assertEquals(0, pool.getFreeCount());
+		assertNotSame(event, pool.acquire());
+
+		event.release();
+		assertEquals(1, pool.getFreeCount());
+	}
+
+	@Test
+	public void testEventNotRecycledWithoutManager() {
+		GameContext context = new GameContext();
+		Player player = new Player();
+		player.setContext(context);
+
+		GameEvent[] received = new GameEvent[1];
+		player.addGameEventListener(event -> received[0] = event);
+
+		SlidingEvent event = context.obtain(SlidingEvent.class);
+		player.dispatchEvent(event);
+
+		// only managers retain events, so the listener can keep this one
+		assertSame(event, received[0]);
+		assertEquals(0, context.getPool(SlidingEvent.class).getFreeCount());
+		assertNotSame(event, context.obtain(SlidingEvent.class));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUseAfterReleaseDetected() {
+		GameContext context = new GameContext();
+		context.setPoolDebug(true);
+
+		SlidingEvent event = context.obtain(SlidingEvent.class);
+		event.retain();
+		event.release();
+
+		// debug mode keeps released events out of the pool
+		assertEquals(0, context.getPool(SlidingEvent.class).getFreeCount());
+
+		event.retain();
+	}
+}
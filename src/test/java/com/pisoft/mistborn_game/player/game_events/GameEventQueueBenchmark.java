@@ -0,0 +1,126 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Microbenchmark for <code>GameEventQueue</code>.
+ * <p>
+ * For each queue depth, the queue is filled to that depth and then a fixed
+ * number of <code>add()</code> / <code>deque()</code> pairs are timed, so the
+ * depth stays constant while measuring. The old sorted <code>ArrayList</code>
+ * insertion is run alongside as a baseline.
+ * <p>
+ * Run with <code>main()</code>; this is not part of the test suite.
+ *
+ * @author gouldb
+ *
+ */
+public class GameEventQueueBenchmark {
+	private static final int[] DEPTHS = { 10, 1_000, 100_000 };
+	private static final int OPERATIONS = 20_000;
+	private static final int ROUNDS = 5;
+
+	private static class BenchmarkEvent extends GameEvent {
+		@Override
+		public void resolve() {
+		}
+	}
+
+	public static void main(String[] args) {
+		Random random = new Random(1);
+		BenchmarkEvent[] events = new BenchmarkEvent[DEPTHS[DEPTHS.length - 1] + OPERATIONS];
+
+		for (int i = 0; i < events.length; i++) {
+			events[i] = new BenchmarkEvent();
+			events[i].setValidExecutionTick(random.nextInt(1_000));
+		}
+
+		System.out.println("depth      heap add   heap deque   list add   list deque   (ns/op)");
+
+		for (int depth : DEPTHS) {
+			double[] heap = null;
+			double[] list = null;
+
+			// first rounds are warm up, keep the last one
+			for (int round = 0; round < ROUNDS; round++) {
+				heap = runHeap(events, depth);
+				list = runList(events, depth);
+			}
+
+			System.out.println(String.format("%-10d %8.1f %12.1f %10.1f %12.1f", depth, heap[0], heap[1], list[0],
+					list[1]));
+		}
+	}
+
+	private static double[] runHeap(BenchmarkEvent[] events, int depth) {
+		GameEventQueue<BenchmarkEvent> queue = new GameEventQueue<>();
+
+		for (int i = 0; i < depth; i++) {
+			queue.add(events[i]);
+		}
+
+		long addTime = 0;
+		long dequeTime = 0;
+
+		for (int i = 0; i < OPERATIONS; i++) {
+			long start = System.nanoTime();
+			queue.add(events[depth + i]);
+			long mid = System.nanoTime();
+			queue.deque();
+			long end = System.nanoTime();
+
+			addTime += mid - start;
+			dequeTime += end - mid;
+		}
+
+		return new double[] { (double) addTime / OPERATIONS, (double) dequeTime / OPERATIONS };
+	}
+
+	/**
+	 * Baseline: the sorted <code>ArrayList</code> queue that
+	 * <code>GameEventQueue</code> used before it was backed by a heap.
+	 */
+	private static double[] runList(BenchmarkEvent[] events, int depth) {
+		ArrayList<BenchmarkEvent> queue = new ArrayList<>();
+
+		for (int i = 0; i < depth; i++) {
+			listAdd(queue, events[i]);
+		}
+
+		int operations = Math.min(OPERATIONS, 2_000);
+		long addTime = 0;
+		long dequeTime = 0;
+
+		for (int i = 0; i < operations; i++) {
+			long start = System.nanoTime();
+			listAdd(queue, events[depth + i]);
+			long mid = System.nanoTime();
+			queue.remove(0);
+			long end = System.nanoTime();
+
+			addTime += mid - start;
+			dequeTime += end - mid;
+		}
+
+		return new double[] { (double) addTime / operations, (double) dequeTime / operations };
+	}
+
+	private static void listAdd(ArrayList<BenchmarkEvent> queue, BenchmarkEvent event) {
+		boolean indexFound = false;
+		int index = 0;
+
+		for (int i = 0; i < queue.size(); i++) {
+			if (!indexFound && event.getValidExecutionTick() < queue.get(i).getValidExecutionTick()) {
+				index = i;
+				indexFound = true;
+			}
+		}
+
+		if (!indexFound) {
+			index = queue.size();
+		}
+
+		queue.add(index, event);
+	}
+}
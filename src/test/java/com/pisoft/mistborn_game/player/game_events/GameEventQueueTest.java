@@ -0,0 +1,77 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GameEventQueueTest {
+
+	private static class TestEvent extends GameEvent {
+		private TestEvent(long validExecutionTick) {
+			setValidExecutionTick(validExecutionTick);
+		}
+
+		@Override
+		public void resolve() {
+		}
+	}
+
+	@Test
+	public void testDequeInComparatorOrder() {
+		GameEventQueue<TestEvent> queue = new GameEventQueue<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 1000; i++) {
+			queue.add(new TestEvent(random.nextInt(100)));
+		}
+
+		long last = Long.MIN_VALUE;
+		while (queue.size() > 0) {
+			long time = queue.deque().getValidExecutionTick();
+			assertEquals(true, time >= last);
+			last = time;
+		}
+	}
+
+	@Test
+	public void testEqualEventsAreFifo() {
+		GameEventQueue<TestEvent> queue = new GameEventQueue<>();
+		ArrayList<TestEvent> added = new ArrayList<>();
+
+		for (int i = 0; i < 100; i++) {
+			TestEvent event = new TestEvent(i % 3);
+			added.add(event);
+			queue.add(event);
+		}
+
+		for (int time = 0; time < 3; time++) {
+			for (TestEvent event : added) {
+				if (event.getValidExecutionTick() == time) {
+					assertSame(event, queue.deque());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFilterKeepsOrder() {
+		GameEventQueue<TestEvent> queue = new GameEventQueue<>();
+
+		for (int i = 0; i < 50; i++) {
+			queue.add(new TestEvent(50 - i));
+		}
+
+		ArrayList<TestEvent> even = queue.filter(e -> e.getValidExecutionTick() % 2 == 0);
+
+		assertEquals(25, even.size());
+		assertEquals(25, queue.size());
+		for (int i = 0; i < even.size(); i++) {
+			assertEquals(2 * (i + 1), even.get(i).getValidExecutionTick());
+			assertEquals(2 * i + 1, queue.deque().getValidExecutionTick());
+		}
+	}
+}
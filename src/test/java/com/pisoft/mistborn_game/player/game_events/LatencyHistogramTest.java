@@ -0,0 +1,38 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testValuesBucketedByPowersOfTwo() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(0);
+		histogram.record(1);
+		histogram.record(5);
+		histogram.record(7);
+		histogram.record(8);
+
+		assertEquals(1, histogram.getBucketCount(0));
+		assertEquals(1, histogram.getBucketCount(1));
+		assertEquals(2, histogram.getBucketCount(3));
+		assertEquals(1, histogram.getBucketCount(4));
+		assertEquals(5, histogram.getCount());
+		assertEquals(21, histogram.getSum());
+	}
+
+	@Test
+	public void testPercentileIsBucketUpperBound() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i);
+		}
+
+		// 63 of the values are below 64, so the median falls in [32, 63]
+		assertEquals(63, histogram.getPercentile(0.5));
+		assertEquals(100, histogram.getPercentile(0.99));
+		assertEquals(100, histogram.getMax());
+	}
+}
@@ -0,0 +1,95 @@
+package com.pisoft.mistborn_game.player.game_events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.GameContext;
+
+public class TimingWheelGameEventBufferTest {
+
+	private static class TestEvent extends GameEvent {
+		@Override
+		public void resolve() {
+		}
+	}
+
+	@Test
+	public void testEventsReleasedExactlyWhenValid() {
+		GameContext context = new GameContext();
+		TimingWheelGameEventBuffer<TestEvent> buffer = new TimingWheelGameEventBuffer<>(context);
+		Random random = new Random(7);
+
+		// spread over every level of the wheel, and past its range
+		int count = 2000;
+		for (int i = 0; i < count; i++) {
+			TestEvent event = new TestEvent();
+			event.setValidExecutionTick((long) Math.pow(10, random.nextInt(9)) + random.nextInt(1000));
+			buffer.add(event);
+		}
+
+		int released = 0;
+		long tick = 0;
+		while (released < count) {
+			// uneven steps, so harvests skip over several ticks at once
+			tick += 1 + random.nextInt(37) + (tick > 100_000 ? tick / 3 : 0);
+			context.setCurrentTick(tick);
+
+			ArrayList<TestEvent> ready = buffer.harvest();
+			for (TestEvent event : ready) {
+				assertTrue(event.getValidExecutionTick() <= tick);
+			}
+
+			released += ready.size();
+			assertEquals(count - released, buffer.size());
+
+			for (TestEvent event : buffer.find(e -> true)) {
+				assertTrue(event.getValidExecutionTick() > tick);
+			}
+		}
+	}
+
+	@Test
+	public void testPastEventsReleasedImmediately() {
+		GameContext context = new GameContext();
+		context.setCurrentTick(1000);
+		TimingWheelGameEventBuffer<TestEvent> buffer = new TimingWheelGameEventBuffer<>(context);
+
+		TestEvent event = new TestEvent();
+		event.setValidExecutionTick(500);
+		buffer.add(event);
+
+		assertEquals(1, buffer.harvest().size());
+		assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void testRemoveIfKeepsOtherEvents() {
+		GameContext context = new GameContext();
+		TimingWheelGameEventBuffer<TestEvent> buffer = new TimingWheelGameEventBuffer<>(context);
+
+		// one event already current, and the rest spread over several levels of the wheel
+		for (long tick : new long[] { 0, 3, 100, 5001, 300_000, 300_001 }) {
+			TestEvent event = new TestEvent();
+			event.setValidExecutionTick(tick);
+			buffer.add(event);
+		}
+
+		assertTrue(buffer.removeIf(e -> e.getValidExecutionTick() % 2 == 0));
+		assertEquals(3, buffer.size());
+		assertFalse(buffer.removeIf(e -> e.getValidExecutionTick() % 2 == 0));
+
+		context.setCurrentTick(300_001);
+		ArrayList<TestEvent> ready = buffer.harvest();
+		assertEquals(3, ready.size());
+		assertEquals(3, ready.get(0).getValidExecutionTick());
+		assertEquals(5001, ready.get(1).getValidExecutionTick());
+		assertEquals(300_001, ready.get(2).getValidExecutionTick());
+		assertEquals(0, buffer.size());
+	}
+}
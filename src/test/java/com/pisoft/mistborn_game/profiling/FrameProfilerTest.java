@@ -0,0 +1,53 @@
+package com.pisoft.mistborn_game.profiling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.profiling.FrameProfiler.Phase;
+
+public class FrameProfilerTest {
+
+	@Test
+	public void testWindowKeepsLatestSamples() {
+		FrameProfiler profiler = new FrameProfiler();
+
+		for (int i = 0; i < FrameProfiler.WINDOW + 10; i++) {
+			profiler.begin(Phase.PLAYER);
+			profiler.end(Phase.PLAYER);
+		}
+
+		assertEquals(FrameProfiler.WINDOW, profiler.getSampleCount(Phase.PLAYER));
+		assertEquals(0, profiler.getSampleCount(Phase.PAINT));
+		assertTrue(profiler.getNanos(Phase.PLAYER, 0) >= 0);
+	}
+
+	@Test
+	public void testCsvRowsLeaveOutUnsampledPhases() throws IOException {
+		StringWriter out = new StringWriter();
+		ProfileCsvWriter writer = new ProfileCsvWriter(out, FrameProfiler.getCsvHeader(),
+				FrameProfiler.getCsvColumns());
+
+		FrameProfiler profiler = new FrameProfiler();
+		profiler.setWriter(writer);
+
+		profiler.begin(Phase.ACTIONS);
+		profiler.end(Phase.ACTIONS);
+		profiler.endFrame(1);
+		profiler.endFrame(2);
+
+		writer.close();
+
+		String[] lines = out.toString().split("\n");
+		assertEquals(3, lines.length);
+		assertEquals(FrameProfiler.getCsvHeader(), lines[0]);
+
+		// only the actions phase was sampled before the first row, and nothing before the second
+		assertTrue(lines[1].matches("1,\\d+,\\d+,,,,,,,,"));
+		assertEquals("2,,,,,,,,,,", lines[2]);
+	}
+}
@@ -0,0 +1,51 @@
+package com.pisoft.mistborn_game.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.player.Side;
+import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+import com.pisoft.mistborn_game.player.intents.SteelPushIntent;
+import com.pisoft.mistborn_game.player.intents.StopAccIntent;
+
+public class InputLogTest {
+
+	@Test
+	public void testIntentsRoundTrip() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		try (InputRecorder recorder = new InputRecorder(bytes)) {
+			recorder.record(3, new AccelerateIntent(Side.LEFT));
+			recorder.record(3, new JumpIntent());
+			recorder.record(200, new SteelPushIntent(-17, 70_000));
+			recorder.record(1_000_000, new StopAccIntent(Side.RIGHT));
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		InputLog.readHeader(in);
+
+		assertEquals(3, InputLog.readVarLong(in));
+		assertSame(Side.LEFT, ((AccelerateIntent) InputLog.readIntent(in)).getDirection());
+
+		assertEquals(0, InputLog.readVarLong(in));
+		assertSame(JumpIntent.class, InputLog.readIntent(in).getClass());
+
+		assertEquals(197, InputLog.readVarLong(in));
+		SteelPushIntent steelPush = (SteelPushIntent) InputLog.readIntent(in);
+		assertEquals(-17, steelPush.getX());
+		assertEquals(70_000, steelPush.getY());
+
+		assertEquals(999_800, InputLog.readVarLong(in));
+		assertSame(Side.RIGHT, ((StopAccIntent) InputLog.readIntent(in)).getDirection());
+
+		assertEquals(0, in.available());
+	}
+}
@@ -0,0 +1,120 @@
+package com.pisoft.mistborn_game.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.pisoft.mistborn_game.GameContext;
+import com.pisoft.mistborn_game.controllers.IntentController;
+import com.pisoft.mistborn_game.levels.LoadedLevels;
+import com.pisoft.mistborn_game.player.Player;
+import com.pisoft.mistborn_game.player.Side;
+import com.pisoft.mistborn_game.player.intents.AccelerateIntent;
+import com.pisoft.mistborn_game.player.intents.CrouchIntent;
+import com.pisoft.mistborn_game.player.intents.JumpIntent;
+import com.pisoft.mistborn_game.player.intents.PlayerIntent;
+import com.pisoft.mistborn_game.player.intents.PrepRunIntent;
+import com.pisoft.mistborn_game.player.intents.StopAccIntent;
+import com.pisoft.mistborn_game.player.intents.StopCrouchIntent;
+import com.pisoft.mistborn_game.player.intents.StopJumpIntent;
+import com.pisoft.mistborn_game.player.intents.StopPrepRunIntent;
+
+public class InputReplayTest {
+
+	private static final int TICKS = 400;
+
+	/**
+	 * Gets the intents a scripted player sends before a tick, as if their keys
+	 * were pressed while the previous tick was running.
+	 */
+	private static PlayerIntent[] script(int tick) {
+		switch (tick) {
+		case 5:
+			return new PlayerIntent[] { new AccelerateIntent(Side.RIGHT) };
+		case 40:
+			return new PlayerIntent[] { new PrepRunIntent(), new JumpIntent() };
+		case 52:
+			return new PlayerIntent[] { new StopJumpIntent() };
+		case 60:
+			return new PlayerIntent[] { new JumpIntent() };
+		case 70:
+			return new PlayerIntent[] { new StopJumpIntent() };
+		case 150:
+			return new PlayerIntent[] { new StopAccIntent(Side.RIGHT), new StopPrepRunIntent(),
+					new AccelerateIntent(Side.LEFT) };
+		case 200:
+			return new PlayerIntent[] { new CrouchIntent() };
+		case 230:
+			return new PlayerIntent[] { new StopCrouchIntent(), new JumpIntent() };
+		case 245:
+			return new PlayerIntent[] { new StopJumpIntent() };
+		case 300:
+			return new PlayerIntent[] { new StopAccIntent(Side.LEFT) };
+		default:
+			return new PlayerIntent[0];
+		}
+	}
+
+	private static GameContext createContext() {
+		GameContext context = new GameContext();
+		context.setActiveLevel(LoadedLevels.createLevel1());
+
+		return context;
+	}
+
+	private static double[] state(Player player) {
+		return new double[] { player.getxPos(), player.getyPos(), player.getxSpeed(), player.getySpeed() };
+	}
+
+	@Test
+	public void testReplayReproducesRecordedSession() throws IOException {
+		ByteArrayOutputStream log = new ByteArrayOutputStream();
+		double[][] recorded = new double[TICKS][];
+
+		GameContext context = createContext();
+		Player player = context.getActiveLevel().getPlayer();
+		IntentController controller = new IntentController(context);
+		controller.setTargetPlayer(player);
+
+		try (InputRecorder recorder = new InputRecorder(log)) {
+			context.getPlayerActionManager().setRecorder(recorder);
+
+			for (int i = 0; i < TICKS; i++) {
+				for (PlayerIntent intent : script(i + 1)) {
+					controller.send(intent);
+				}
+
+				context.tick();
+				recorded[i] = state(player);
+			}
+
+			context.getPlayerActionManager().setRecorder(null);
+		}
+
+		// the script must actually have moved the player for the comparison to mean anything
+		assertTrue(recorded[TICKS - 1][0] != recorded[0][0]);
+
+		GameContext replayContext = createContext();
+		Player replayPlayer = replayContext.getActiveLevel().getPlayer();
+
+		try (InputReplayer replayer = new InputReplayer(new ByteArrayInputStream(log.toByteArray()))) {
+			replayer.attach(replayContext);
+
+			for (int i = 0; i < TICKS; i++) {
+				replayer.tick();
+
+				double[] replayed = state(replayPlayer);
+				for (int j = 0; j < replayed.length; j++) {
+					assertEquals("tick " + (i + 1), recorded[i][j], replayed[j], 0);
+				}
+			}
+
+			assertTrue(replayer.isFinished());
+		}
+	}
+}